@@ -0,0 +1,99 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.fleet.BatchBoot;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares turning laptops on one by one with Laptop.turnOn() to turning them
+ * on with a prepared BatchBoot, sequentially and in parallel. The loggers of
+ * the domain model are switched off, otherwise writing the log would be all
+ * that is measured, and the laptops are turned off again before every
+ * invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BatchBootBenchmark {
+    @Param({"1000000"})
+    public int laptops;
+
+    private List<Laptop> batch;
+    private BatchBoot boot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configurator.setLevel("com.solvd.computer", org.apache.logging.log4j.Level.OFF);
+        batch = new ArrayList<>(laptops);
+
+        for (int i = 0; i < laptops; i++) {
+            batch.add(new Laptop());
+        }
+
+        boot = new BatchBoot(batch);
+    }
+
+    @Setup(Level.Invocation)
+    public void turnOff() {
+        for (Laptop laptop : batch) {
+            laptop.setIsTurnedOn(false);
+        }
+    }
+
+    @Benchmark
+    public List<Laptop> perLaptop() {
+        for (Laptop laptop : batch) {
+            laptop.turnOn();
+        }
+
+        return batch;
+    }
+
+    @Benchmark
+    public BatchBoot sequential() {
+        boot.turnOn(false);
+        return boot;
+    }
+
+    @Benchmark
+    public BatchBoot parallel() {
+        boot.turnOn(true);
+        return boot;
+    }
+}
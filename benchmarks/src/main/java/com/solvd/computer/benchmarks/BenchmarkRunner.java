@@ -0,0 +1,60 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * The BenchmarkRunner class runs the benchmarks selected by the usual JMH
+ * command line options, always with the GC profiler, so every result comes
+ * with the allocation rate per operation. It is the main class of
+ * benchmarks.jar, so it answers the help and list options as JMH does.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException,
+            IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Runner runner = new Runner(new OptionsBuilder()
+                                           .parent(commandLine)
+                                           .addProfiler(GCProfiler.class)
+                                           .build());
+
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+        } else if (commandLine.shouldList()) {
+            runner.list();
+        } else if (commandLine.shouldListWithParams()) {
+            runner.listWithParams(commandLine);
+        } else if (commandLine.shouldListProfilers()) {
+            commandLine.listProfilers();
+        } else if (commandLine.shouldListResultFormats()) {
+            commandLine.listResultFormats();
+        } else {
+            runner.run();
+        }
+    }
+}
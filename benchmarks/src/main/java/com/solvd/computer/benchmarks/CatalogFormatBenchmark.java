@@ -0,0 +1,185 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.LaptopMapper;
+import com.solvd.computer.catalog.CatalogReader;
+import com.solvd.computer.catalog.CatalogWriter;
+import com.solvd.computer.inventory.InventoryFormat;
+import com.solvd.computer.inventory.InventoryGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding and decoding a catalog of generated laptops in the binary
+ * catalog format with Java serialization of the maps of LaptopMapper and with
+ * JSON lines. The sizes of the three forms are printed once per trial, the
+ * auxiliary counter reports the encoded bytes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CatalogFormatBenchmark {
+    @Param({"10000"})
+    public int laptops;
+
+    private List<Laptop> catalog;
+    private byte[] binary;
+    private byte[] serialized;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        catalog = new InventoryGenerator(42).list(laptops);
+        binary = writeBinary(catalog);
+        serialized = serialize(catalog);
+        json = writeJson(catalog).getBytes(StandardCharsets.UTF_8);
+        System.out.printf("%nBytes per laptop: binary %.1f, serialization %.1f, JSON lines %.1f%n",
+                          (double) binary.length / laptops, (double) serialized.length / laptops,
+                          (double) json.length / laptops);
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeBinary(Bytes bytes) throws IOException {
+        byte[] encoded = writeBinary(catalog);
+        bytes.bytes += encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public long decodeBinary(Bytes bytes) throws IOException {
+        long cores = 0;
+
+        try (CatalogReader reader =
+                     new CatalogReader(Channels.newChannel(new ByteArrayInputStream(binary)))) {
+            Laptop laptop;
+
+            while ((laptop = reader.read()) != null) {
+                cores += laptop.getProcessor().getNumOfCores();
+            }
+        }
+
+        bytes.bytes += binary.length;
+        return cores;
+    }
+
+    @Benchmark
+    public byte[] encodeSerialization(Bytes bytes) throws IOException {
+        byte[] encoded = serialize(catalog);
+        bytes.bytes += encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public long decodeSerialization(Bytes bytes) throws Exception {
+        long cores = 0;
+
+        try (ObjectInputStream in =
+                     new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            for (Map<String, Object> map : (List<Map<String, Object>>) in.readObject()) {
+                cores += LaptopMapper.fromMap(map).getProcessor().getNumOfCores();
+            }
+        }
+
+        bytes.bytes += serialized.length;
+        return cores;
+    }
+
+    @Benchmark
+    public byte[] encodeJson(Bytes bytes) {
+        byte[] encoded = writeJson(catalog).getBytes(StandardCharsets.UTF_8);
+        bytes.bytes += encoded.length;
+        return encoded;
+    }
+
+    private static byte[] writeBinary(List<Laptop> catalog) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+
+        try (CatalogWriter writer = new CatalogWriter(channel)) {
+            writer.writeAll(catalog);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static byte[] serialize(List<Laptop> catalog) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Map<String, Object>> maps = new ArrayList<>(catalog.size());
+
+        for (Laptop laptop : catalog) {
+            maps.add(LaptopMapper.toMap(laptop));
+        }
+
+        try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+            objects.writeObject(maps);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static String writeJson(List<Laptop> catalog) {
+        StringBuilder out = new StringBuilder();
+
+        for (Laptop laptop : catalog) {
+            InventoryFormat.JSON_LINES.append(out, LaptopMapper.toMap(laptop));
+        }
+
+        return out.toString();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares CustomLinkedList with ArrayDeque, LinkedList and ArrayList on one
+ * thread: filling a collection at either end, reading its ends, iterating
+ * over it and a mixed workload. The filling and iterating benchmarks also
+ * report the elements they processed per second. Since ArrayList inserts at
+ * the front in linear time, the benchmarks that insert at the front stop at
+ * 100000 elements, the others go up to 10M.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx3g")
+public class CollectionBenchmark {
+    @State(Scope.Thread)
+    public static class Filled {
+        @Param({"CUSTOM_LINKED_LIST", "ARRAY_DEQUE", "LINKED_LIST", "ARRAY_LIST"})
+        private Sequence.Kind kind;
+
+        @Param({"10", "1000", "100000", "10000000"})
+        private int size;
+
+        private Integer[] values;
+        private Sequence sequence;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            values = Sequence.values(size);
+            sequence = kind.create();
+
+            for (Integer value : values) {
+                sequence.addLast(value);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Empty {
+        @Param({"CUSTOM_LINKED_LIST", "ARRAY_DEQUE", "LINKED_LIST", "ARRAY_LIST"})
+        private Sequence.Kind kind;
+
+        @Param({"10", "1000", "100000"})
+        private int size;
+
+        private Integer[] values;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            values = Sequence.values(size);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Elements {
+        public long elements;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            elements = 0;
+        }
+    }
+
+    @Benchmark
+    public Sequence addLast(Filled filled, Elements elements) {
+        Sequence sequence = filled.kind.create();
+
+        for (Integer value : filled.values) {
+            sequence.addLast(value);
+        }
+
+        elements.elements += filled.size;
+        return sequence;
+    }
+
+    @Benchmark
+    public Sequence addFirst(Empty empty, Elements elements) {
+        Sequence sequence = empty.kind.create();
+
+        for (Integer value : empty.values) {
+            sequence.addFirst(value);
+        }
+
+        elements.elements += empty.size;
+        return sequence;
+    }
+
+    @Benchmark
+    public Integer getFirst(Filled filled) {
+        return filled.sequence.getFirst();
+    }
+
+    @Benchmark
+    public Integer getLast(Filled filled) {
+        return filled.sequence.getLast();
+    }
+
+    @Benchmark
+    public long iterate(Filled filled, Elements elements) {
+        elements.elements += filled.size;
+        return filled.sequence.sum();
+    }
+
+    /**
+     * Adds the values alternately at the front and at the back, reading both
+     * ends after every insertion, and finally iterates over the collection.
+     */
+    @Benchmark
+    public long mixed(Empty empty, Elements elements) {
+        Sequence sequence = empty.kind.create();
+        long sum = 0;
+
+        for (int i = 0; i < empty.size; i++) {
+            if ((i & 1) == 0) {
+                sequence.addFirst(empty.values[i]);
+            } else {
+                sequence.addLast(empty.values[i]);
+            }
+
+            sum += sequence.getFirst() + sequence.getLast();
+        }
+
+        elements.elements += empty.size;
+        return sum + sequence.sum();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The CollectionFootprint class measures how many bytes CustomLinkedList,
+ * ArrayDeque, LinkedList and ArrayList retain per element. It takes a class
+ * histogram of the heap through the DiagnosticCommand MBean, which runs a
+ * full GC first, before and after filling the collections and divides the
+ * difference by the number of elements. The elements themselves are created
+ * before the first histogram, so only the collections are counted. Small
+ * collections are built many times over to rise above the noise.
+ */
+public final class CollectionFootprint {
+    private final static int[] SIZES = {10, 1000, 100000, 10000000};
+    private final static int MIN_ELEMENTS = 1000000;
+    private final static Pattern HISTOGRAM_LINE =
+            Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)");
+    private final static int TOP_CLASSES = 3;
+
+    private CollectionFootprint() {}
+
+    public static void main(String[] args) throws JMException {
+        System.out.printf("%-20s %10s %14s  %s%n", "collection", "size", "bytes/element",
+                          "largest classes");
+
+        for (int size : SIZES) {
+            Integer[] values = Sequence.values(size);
+            int copies = Math.max(1, MIN_ELEMENTS / size);
+
+            for (Sequence.Kind kind : Sequence.Kind.values()) {
+                Map<String, Long> before = histogram();
+                List<Sequence> sequences = new ArrayList<>(copies);
+
+                for (int copy = 0; copy < copies; copy++) {
+                    Sequence sequence = kind.create();
+
+                    for (Integer value : values) {
+                        sequence.addLast(value);
+                    }
+
+                    sequences.add(sequence);
+                }
+
+                Map<String, Long> after = histogram();
+                Reference.reachabilityFence(sequences);
+                report(kind, size, (long) size * copies, before, after);
+            }
+        }
+    }
+
+    private static void report(Sequence.Kind kind, int size, long elements,
+                               Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> growth = new HashMap<>();
+        after.forEach((name, bytes) -> growth.put(name, bytes - before.getOrDefault(name, 0L)));
+        long total = growth.values().stream().mapToLong(Long::longValue).sum();
+        StringBuilder largest = new StringBuilder();
+
+        growth.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_CLASSES)
+                .filter(entry -> entry.getValue() > 0)
+                .forEach(entry -> largest.append(String.format(
+                        Locale.ROOT, "%s %.1f  ", entry.getKey(),
+                        (double) entry.getValue() / elements)));
+
+        System.out.printf(Locale.ROOT, "%-20s %10d %14.1f  %s%n", kind, size,
+                          (double) total / elements, largest.toString().trim());
+    }
+
+    /**
+     * Returns the bytes taken by the live instances of every class.
+     */
+    private static Map<String, Long> histogram() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String output = (String) server.invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                "gcClassHistogram", new Object[] {new String[0]},
+                new String[] {String[].class.getName()});
+        Map<String, Long> bytes = new HashMap<>();
+
+        for (String line : output.split("\n")) {
+            Matcher matcher = HISTOGRAM_LINE.matcher(line);
+
+            if (matcher.find()) {
+                bytes.merge(matcher.group(3), Long.parseLong(matcher.group(2)), Long::sum);
+            }
+        }
+
+        return bytes;
+    }
+}
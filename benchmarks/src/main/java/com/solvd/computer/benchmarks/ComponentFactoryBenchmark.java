@@ -0,0 +1,101 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.factory.ComponentFactory;
+import com.solvd.computer.factory.ComponentRegistry;
+import com.solvd.computer.interfaces.IConsume;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating a CPU and calling one of its methods directly, through
+ * core reflection the way Main used to, and through the cached handles of
+ * ComponentFactory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ComponentFactoryBenchmark {
+    private String name = "Super CPU";
+    private Integer cores = 16;
+    private Double clockRate = 10.00;
+    private Boolean turboBoost = true;
+
+    private Constructor<CPU> constructor;
+    private Method getName;
+    private ComponentFactory<CPU> factory;
+    private IConsume<CPU> factoryGetName;
+    private CPU cpu;
+
+    @Setup
+    public void setUp() throws Exception {
+        constructor = CPU.class.getConstructor(String.class, int.class, double.class,
+                                               boolean.class);
+        getName = CPU.class.getMethod("getName");
+        factory = ComponentRegistry.getFactory(CPU.class);
+        factoryGetName = factory.method("getName");
+        cpu = new CPU(name, cores, clockRate, turboBoost);
+    }
+
+    @Benchmark
+    public CPU createDirectly() throws Exception {
+        return new CPU(name, cores, clockRate, turboBoost);
+    }
+
+    @Benchmark
+    public CPU createReflectively() throws Exception {
+        return constructor.newInstance(name, cores, clockRate, turboBoost);
+    }
+
+    @Benchmark
+    public CPU createWithFactory() throws Exception {
+        return factory.create(name, cores, clockRate, turboBoost);
+    }
+
+    @Benchmark
+    public String invokeDirectly() {
+        return cpu.getName();
+    }
+
+    @Benchmark
+    public Object invokeReflectively() throws Exception {
+        return getName.invoke(cpu);
+    }
+
+    @Benchmark
+    public void invokeWithFactory() {
+        factoryGetName.consume(cpu);
+    }
+}
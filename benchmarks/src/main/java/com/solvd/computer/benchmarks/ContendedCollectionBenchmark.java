@@ -0,0 +1,113 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares CustomLinkedList with ArrayDeque, LinkedList and ArrayList shared
+ * by several threads. None of them is thread-safe, so every access locks the
+ * collection, the way a caller sharing one of them would have to. In the
+ * readWrite group three threads read the ends while one appends, in the
+ * writers group four threads append. The collections only grow, so they are
+ * recreated for every iteration and the iterations are short.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 2, jvmArgsAppend = "-Xmx3g")
+public class ContendedCollectionBenchmark {
+    private final static int INITIAL_SIZE = 1000;
+    private final static Integer[] VALUES = Sequence.values(1024);
+
+    @State(Scope.Group)
+    public static class Shared {
+        @Param({"CUSTOM_LINKED_LIST", "ARRAY_DEQUE", "LINKED_LIST", "ARRAY_LIST"})
+        private Sequence.Kind kind;
+
+        private Sequence sequence;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            sequence = kind.create();
+
+            for (int i = 0; i < INITIAL_SIZE; i++) {
+                sequence.addLast(VALUES[i % VALUES.length]);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index = 0;
+
+        Integer next() {
+            index = (index + 1) & (VALUES.length - 1);
+            return VALUES[index];
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public int readEnds(Shared shared) {
+        Sequence sequence = shared.sequence;
+
+        synchronized (sequence) {
+            return sequence.getFirst() + sequence.getLast();
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void append(Shared shared, Cursor cursor) {
+        Sequence sequence = shared.sequence;
+
+        synchronized (sequence) {
+            sequence.addLast(cursor.next());
+        }
+    }
+
+    @Benchmark
+    @Group("writers")
+    @GroupThreads(4)
+    public void appendConcurrently(Shared shared, Cursor cursor) {
+        Sequence sequence = shared.sequence;
+
+        synchronized (sequence) {
+            sequence.addLast(cursor.next());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * The CorpusGenerator class writes deterministic text corpora for the
+ * WordCalculator benchmarks. The words are drawn from a vocabulary of the
+ * given size with a Zipf distribution, so the word of rank k occurs about
+ * 1/k^s times as often as the most frequent one. Lines have about the given
+ * length, and the given fraction of the vocabulary is written in Cyrillic,
+ * Greek or CJK letters instead of Latin ones. The same parameters always give
+ * the same file, and a file that was already generated is reused.
+ */
+public final class CorpusGenerator {
+    private final static char[][] ALPHABETS = {
+            range('a', 'z'),
+            range('а', 'я'),
+            range('α', 'ω'),
+            range('一', '俿')
+    };
+    private final static int MIN_WORD_LENGTH = 2;
+
+    private final long sizeInBytes;
+    private final int vocabularySize;
+    private final double zipfExponent;
+    private final int lineLength;
+    private final double nonAsciiFraction;
+    private final long seed;
+
+    public CorpusGenerator(long sizeInBytes, int vocabularySize, double zipfExponent,
+                           int lineLength, double nonAsciiFraction, long seed) {
+        if (sizeInBytes < 1 || vocabularySize < 1 || zipfExponent < 0 || lineLength < 1
+                || nonAsciiFraction < 0 || nonAsciiFraction > 1) {
+            throw new IllegalArgumentException("Invalid corpus parameters.");
+        }
+
+        this.sizeInBytes = sizeInBytes;
+        this.vocabularySize = vocabularySize;
+        this.zipfExponent = zipfExponent;
+        this.lineLength = lineLength;
+        this.nonAsciiFraction = nonAsciiFraction;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the corpus in the directory, generating it if it is not there
+     * yet. The file name is made of the parameters.
+     */
+    public Path generate(Path directory) throws IOException {
+        Path file = directory.resolve(String.format(Locale.ROOT,
+                                                    "corpus-%d-%d-%.2f-%d-%.2f-%d.txt",
+                                                    sizeInBytes, vocabularySize, zipfExponent,
+                                                    lineLength, nonAsciiFraction, seed));
+
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "corpus", ".tmp");
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary),
+                                                         1 << 20)) {
+            write(out);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[][] words = vocabulary(random);
+        double[] cumulative = zipf();
+        long written = 0;
+        int line = 0;
+
+        while (written < sizeInBytes) {
+            byte[] word = words[sample(cumulative, random.nextDouble())];
+
+            if (line > 0) {
+                boolean endOfLine = line + 1 + word.length > lineLength;
+                out.write(endOfLine ? '\n' : ' ');
+                written++;
+                line = endOfLine ? 0 : line + 1;
+            }
+
+            out.write(word);
+            written += word.length;
+            line += word.length;
+        }
+    }
+
+    private byte[][] vocabulary(SplittableRandom random) {
+        byte[][] words = new byte[vocabularySize][];
+
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            char[] alphabet = random.nextDouble() < nonAsciiFraction
+                    ? ALPHABETS[1 + random.nextInt(ALPHABETS.length - 1)]
+                    : ALPHABETS[0];
+            words[rank] = word(rank, alphabet).getBytes(StandardCharsets.UTF_8);
+        }
+
+        return words;
+    }
+
+    /**
+     * Spells the rank in the letters of the alphabet, so that every rank gets
+     * its own word and the most frequent words are the shortest ones.
+     */
+    private static String word(int rank, char[] alphabet) {
+        StringBuilder word = new StringBuilder();
+        long value = rank;
+
+        do {
+            word.append(alphabet[(int) (value % alphabet.length)]);
+            value /= alphabet.length;
+        } while (value > 0 || word.length() < MIN_WORD_LENGTH);
+
+        return word.toString();
+    }
+
+    private double[] zipf() {
+        double[] cumulative = new double[vocabularySize];
+        double sum = 0;
+
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            sum += 1 / Math.pow(rank + 1, zipfExponent);
+            cumulative[rank] = sum;
+        }
+
+        for (int rank = 0; rank < vocabularySize; rank++) {
+            cumulative[rank] /= sum;
+        }
+
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static char[] range(char first, char last) {
+        char[] letters = new char[last - first + 1];
+
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) (first + i);
+        }
+
+        return letters;
+    }
+
+    /**
+     * Generates a corpus: directory, size in MB, vocabulary size, Zipf
+     * exponent, line length, non-ASCII fraction and seed.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 7) {
+            System.err.println("Usage: CorpusGenerator <directory> <sizeInMB> <vocabularySize> "
+                               + "<zipfExponent> <lineLength> <nonAsciiFraction> <seed>");
+            System.exit(1);
+        }
+
+        Path file = new CorpusGenerator(Long.parseLong(args[1]) << 20, Integer.parseInt(args[2]),
+                                        Double.parseDouble(args[3]), Integer.parseInt(args[4]),
+                                        Double.parseDouble(args[5]), Long.parseLong(args[6]))
+                .generate(Path.of(args[0]));
+        System.out.println(file);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.RAM;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures equals and hashCode of the laptops and their components. Equal
+ * objects are distinct instances, so equals has to compare every field, and
+ * hashCode goes through Objects.hash, which boxes the primitive fields.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class EqualityBenchmark {
+    private Laptop laptop;
+    private Laptop equalLaptop;
+    private Laptop otherLaptop;
+    private CPU processor;
+    private CPU equalProcessor;
+    private GPU graphics;
+    private GPU equalGraphics;
+    private RAM memory;
+    private RAM equalMemory;
+
+    @Setup
+    public void setUp() throws Exception {
+        laptop = Fixtures.laptop("Dell", 4);
+        equalLaptop = Fixtures.laptop("Dell", 4);
+        otherLaptop = Fixtures.laptop("Lenovo", 6);
+        processor = Fixtures.processor(4);
+        equalProcessor = Fixtures.processor(4);
+        graphics = Fixtures.graphics();
+        equalGraphics = Fixtures.graphics();
+        memory = Fixtures.memory();
+        equalMemory = Fixtures.memory();
+    }
+
+    @Benchmark
+    public boolean laptopEqualsEqual() {
+        return laptop.equals(equalLaptop);
+    }
+
+    @Benchmark
+    public boolean laptopEqualsDifferent() {
+        return laptop.equals(otherLaptop);
+    }
+
+    @Benchmark
+    public int laptopHashCode() {
+        return laptop.hashCode();
+    }
+
+    @Benchmark
+    public boolean cpuEquals() {
+        return processor.equals(equalProcessor);
+    }
+
+    @Benchmark
+    public int cpuHashCode() {
+        return processor.hashCode();
+    }
+
+    @Benchmark
+    public boolean gpuEquals() {
+        return graphics.equals(equalGraphics);
+    }
+
+    @Benchmark
+    public int gpuHashCode() {
+        return graphics.hashCode();
+    }
+
+    @Benchmark
+    public boolean ramEquals() {
+        return memory.equals(equalMemory);
+    }
+
+    @Benchmark
+    public int ramHashCode() {
+        return memory.hashCode();
+    }
+}
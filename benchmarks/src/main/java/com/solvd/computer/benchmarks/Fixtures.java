@@ -0,0 +1,80 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The Fixtures class builds the laptops the benchmarks work on, the same way
+ * Main does, so every run measures the same objects.
+ */
+final class Fixtures {
+    final static String[] PRODUCERS = {"Dell", "Lenovo", "Sony", "HP", "Asus", "Acer"};
+    private final static long SEED = 42;
+
+    private Fixtures() {}
+
+    static CPU processor(int cores) throws Exception {
+        return new CPU("Intel(R) Core(TM) i5-8365U CPU @ 1.60GHz 1.90 GHz", cores, 1.90, true);
+    }
+
+    static GPU graphics() throws Exception {
+        return new GPU("Intel(R) UHD Graphics 620", 0, 1150, true);
+    }
+
+    static RAM memory() throws Exception {
+        return new RAM(16, 2133, "LPDDR3 RAM");
+    }
+
+    static Laptop laptop(String producer, int cores) throws Exception {
+        return new Laptop(producer, "Latitude 7400 2-in-1", "Laptop",
+                          new OperatingSystem("Windows 10 Pro"),
+                          new Display(14.0, "1920x1080", "LCD touch screen"),
+                          processor(cores), graphics(), memory(), new Storage(512, "SSD"),
+                          new Port(2, 1, 1, 1, 2), new BigDecimal("300.00"), false, true,
+                          true, true, true, true, true, true, 1500, "gray");
+    }
+
+    /**
+     * Returns laptops of random producers and numbers of cores, the same ones
+     * for the same size in every run.
+     */
+    static List<Laptop> laptops(int size) throws Exception {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Laptop> laptops = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            laptops.add(laptop(PRODUCERS[random.nextInt(PRODUCERS.length)],
+                               1 + random.nextInt(50)));
+        }
+
+        return laptops;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validating constructors: the 21-argument Laptop constructor
+ * with prebuilt components, and the laptop together with all its components.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LaptopConstructionBenchmark {
+    private OperatingSystem operatingSystem;
+    private Display screen;
+    private CPU processor;
+    private GPU graphics;
+    private RAM memory;
+    private Storage storage;
+    private Port ports;
+    private BigDecimal price;
+
+    @Setup
+    public void setUp() throws Exception {
+        operatingSystem = new OperatingSystem("Windows 10 Pro");
+        screen = new Display(14.0, "1920x1080", "LCD touch screen");
+        processor = Fixtures.processor(4);
+        graphics = Fixtures.graphics();
+        memory = Fixtures.memory();
+        storage = new Storage(512, "SSD");
+        ports = new Port(2, 1, 1, 1, 2);
+        price = new BigDecimal("300.00");
+    }
+
+    @Benchmark
+    public Laptop laptop() throws Exception {
+        return new Laptop("Dell", "Latitude 7400 2-in-1", "Laptop", operatingSystem, screen,
+                          processor, graphics, memory, storage, ports, price, false, true,
+                          true, true, true, true, true, true, 1500, "gray");
+    }
+
+    @Benchmark
+    public Laptop laptopWithComponents() throws Exception {
+        return Fixtures.laptop("Dell", 4);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.catalog.CatalogReader;
+import com.solvd.computer.catalog.CatalogWriter;
+import com.solvd.computer.catalog.LaptopView;
+import com.solvd.computer.catalog.MappedCatalog;
+import com.solvd.computer.catalog.MappedCatalogWriter;
+import com.solvd.computer.inventory.InventoryGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares starting up from the streamed binary catalog, which rebuilds every
+ * laptop on heap, with opening the memory-mapped catalog, and scanning the
+ * laptops on heap with scanning them through a single LaptopView.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class MappedCatalogBenchmark {
+    @Param({"1000000"})
+    public int laptops;
+
+    private Path directory;
+    private Path streamed;
+    private Path mapped;
+    private MappedCatalog catalog;
+
+    /**
+     * Streams the generated laptops into both files, so only the benchmarks
+     * that need them keep the laptops on heap.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("catalog");
+        streamed = directory.resolve("laptops.lpc");
+        mapped = directory.resolve("laptops.lpm");
+
+        try (CatalogWriter writer = CatalogWriter.open(streamed);
+             MappedCatalogWriter mappedWriter = MappedCatalogWriter.open(mapped)) {
+            Iterator<Laptop> iterator = new InventoryGenerator(42).stream(laptops).iterator();
+
+            while (iterator.hasNext()) {
+                Laptop laptop = iterator.next();
+                writer.write(laptop);
+                mappedWriter.write(laptop);
+            }
+        }
+
+        catalog = MappedCatalog.open(mapped);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Heap {
+        private List<Laptop> laptops;
+
+        @Setup(Level.Trial)
+        public void setUp(MappedCatalogBenchmark benchmark) {
+            laptops = new InventoryGenerator(42).list(benchmark.laptops);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        catalog.close();
+        Files.deleteIfExists(streamed);
+        Files.deleteIfExists(mapped);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Laptop> loadStreamed() throws IOException {
+        List<Laptop> loaded = new ArrayList<>(laptops);
+
+        try (CatalogReader reader = CatalogReader.open(streamed)) {
+            Laptop laptop;
+
+            while ((laptop = reader.read()) != null) {
+                loaded.add(laptop);
+            }
+        }
+
+        return loaded;
+    }
+
+    @Benchmark
+    public int openMapped() throws IOException {
+        try (MappedCatalog opened = MappedCatalog.open(mapped)) {
+            return opened.view(opened.size() - 1).getNumOfCores();
+        }
+    }
+
+    @Benchmark
+    public long scanHeap(Heap heap) {
+        long total = 0;
+
+        for (Laptop laptop : heap.laptops) {
+            if (laptop.getMemory().getMemorySizeInGBs() >= 16) {
+                total += laptop.getPriceInUSD().unscaledValue().longValue();
+            }
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public long scanMapped() {
+        long total = 0;
+        LaptopView view = catalog.view(0);
+
+        for (long i = 0; i < catalog.size(); i++) {
+            view.moveTo(i);
+
+            if (view.getMemorySizeInGBs() >= 16) {
+                total += view.getPriceInCents();
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.CustomLinkedList;
+import com.solvd.computer.Node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * The operations the collection benchmarks compare, implemented over
+ * CustomLinkedList and the JDK collections Main uses next to it. ArrayList
+ * inserts at the front with add(0, e), which shifts the whole array.
+ */
+public interface Sequence {
+    void addFirst(Integer value);
+
+    void addLast(Integer value);
+
+    Integer getFirst();
+
+    Integer getLast();
+
+    /**
+     * Visits every element from the first to the last one.
+     */
+    long sum();
+
+    enum Kind {
+        CUSTOM_LINKED_LIST {
+            @Override
+            Sequence create() {
+                CustomLinkedList<Integer> list = new CustomLinkedList<>();
+
+                return new Sequence() {
+                    @Override
+                    public void addFirst(Integer value) {
+                        list.addFirst(value);
+                    }
+
+                    @Override
+                    public void addLast(Integer value) {
+                        list.addLast(value);
+                    }
+
+                    @Override
+                    public Integer getFirst() {
+                        return list.getFirst().getValue();
+                    }
+
+                    @Override
+                    public Integer getLast() {
+                        return list.getLast().getValue();
+                    }
+
+                    @Override
+                    public long sum() {
+                        long sum = 0;
+
+                        for (Node<Integer> node = list.getSize() == 0 ? null : list.getFirst();
+                             node != null; node = node.getNext()) {
+                            sum += node.getValue();
+                        }
+
+                        return sum;
+                    }
+                };
+            }
+        },
+        ARRAY_DEQUE {
+            @Override
+            Sequence create() {
+                ArrayDeque<Integer> deque = new ArrayDeque<>();
+
+                return new Sequence() {
+                    @Override
+                    public void addFirst(Integer value) {
+                        deque.addFirst(value);
+                    }
+
+                    @Override
+                    public void addLast(Integer value) {
+                        deque.addLast(value);
+                    }
+
+                    @Override
+                    public Integer getFirst() {
+                        return deque.getFirst();
+                    }
+
+                    @Override
+                    public Integer getLast() {
+                        return deque.getLast();
+                    }
+
+                    @Override
+                    public long sum() {
+                        long sum = 0;
+
+                        for (Integer value : deque) {
+                            sum += value;
+                        }
+
+                        return sum;
+                    }
+                };
+            }
+        },
+        LINKED_LIST {
+            @Override
+            Sequence create() {
+                LinkedList<Integer> list = new LinkedList<>();
+
+                return new Sequence() {
+                    @Override
+                    public void addFirst(Integer value) {
+                        list.addFirst(value);
+                    }
+
+                    @Override
+                    public void addLast(Integer value) {
+                        list.addLast(value);
+                    }
+
+                    @Override
+                    public Integer getFirst() {
+                        return list.getFirst();
+                    }
+
+                    @Override
+                    public Integer getLast() {
+                        return list.getLast();
+                    }
+
+                    @Override
+                    public long sum() {
+                        long sum = 0;
+
+                        for (Integer value : list) {
+                            sum += value;
+                        }
+
+                        return sum;
+                    }
+                };
+            }
+        },
+        ARRAY_LIST {
+            @Override
+            Sequence create() {
+                ArrayList<Integer> list = new ArrayList<>();
+
+                return new Sequence() {
+                    @Override
+                    public void addFirst(Integer value) {
+                        list.add(0, value);
+                    }
+
+                    @Override
+                    public void addLast(Integer value) {
+                        list.add(value);
+                    }
+
+                    @Override
+                    public Integer getFirst() {
+                        return list.getFirst();
+                    }
+
+                    @Override
+                    public Integer getLast() {
+                        return list.getLast();
+                    }
+
+                    @Override
+                    public long sum() {
+                        long sum = 0;
+
+                        for (Integer value : list) {
+                            sum += value;
+                        }
+
+                        return sum;
+                    }
+                };
+            }
+        };
+
+        abstract Sequence create();
+    }
+
+    /**
+     * Returns the boxed values 0 to size - 1, created up front so that the
+     * benchmarks measure the collections and not Integer.valueOf.
+     */
+    static Integer[] values(int size) {
+        Integer[] values = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.benchmarks;
+
+import com.solvd.computer.calculator.Corpus;
+import com.solvd.computer.calculator.LongCounter;
+import com.solvd.computer.calculator.NGramCounter;
+import com.solvd.computer.calculator.ResultWriter;
+import com.solvd.computer.calculator.Utf8Tokenizer;
+import com.solvd.computer.calculator.Vocabulary;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the phases of WordCalculator separately over generated corpora:
+ * tokenizing the bytes into word IDs, counting words, n-grams and
+ * co-occurrences, and writing the result. Next to the operations per second
+ * every benchmark reports the bytes it processed per second, the input bytes
+ * for tokenizing and counting and the output bytes for writing; the
+ * allocation per operation comes from the GC profiler of BenchmarkRunner.
+ *
+ * <p>The corpora are generated by CorpusGenerator into the directory given by
+ * the {@code corpus.dir} system property and are reused by later runs. The
+ * default sizes keep a run short; GB-scale corpora are measured with, for
+ * example, {@code -p sizeInMB=1024 -jvmArgs -Xmx8g}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WordCalculatorBenchmark {
+    private final static long SEED = 42;
+    private final static int MAX_REGION_SIZE = 1 << 30;
+
+    @State(Scope.Benchmark)
+    public static class CorpusFile {
+        @Param({"1", "64"})
+        private int sizeInMB;
+
+        @Param({"10000", "1000000"})
+        private int vocabularySize;
+
+        @Param({"1.0"})
+        private double zipfExponent;
+
+        @Param({"80"})
+        private int lineLength;
+
+        @Param({"0.0", "0.3"})
+        private double nonAsciiFraction;
+
+        private Path file;
+        private long size;
+        private List<ByteBuffer> regions;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Path directory = Path.of(System.getProperty(
+                    "corpus.dir",
+                    Path.of(System.getProperty("java.io.tmpdir"), "word-calculator-corpora")
+                            .toString()));
+            file = new CorpusGenerator((long) sizeInMB << 20, vocabularySize, zipfExponent,
+                                       lineLength, nonAsciiFraction, SEED)
+                    .generate(directory);
+            regions = new ArrayList<>();
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                size = channel.size();
+
+                for (long position = 0; position < size; position += MAX_REGION_SIZE) {
+                    regions.add(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                            Math.min(MAX_REGION_SIZE, size - position)));
+                }
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Sequence {
+        private Corpus corpus;
+        private NGramCounter counter;
+
+        @Setup(Level.Trial)
+        public void setUp(CorpusFile corpusFile) throws IOException {
+            corpus = Corpus.read(List.of(corpusFile.file), false, true);
+            counter = new NGramCounter(corpus.getVocabulary());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class WordCounts {
+        private final ResultWriter writer =
+                new ResultWriter(ResultWriter.Format.TEXT, ResultWriter.Order.COUNT);
+        private Vocabulary vocabulary;
+        private long[] keys;
+        private long[] counts;
+        private Path output;
+        private long outputSize;
+
+        @Setup(Level.Trial)
+        public void setUp(CorpusFile corpusFile) throws IOException {
+            Corpus corpus = Corpus.read(List.of(corpusFile.file), false, false);
+            vocabulary = corpus.getVocabulary();
+            counts = corpus.getCounts();
+            keys = new long[counts.length];
+
+            for (int id = 0; id < keys.length; id++) {
+                keys[id] = id;
+            }
+
+            output = Files.createTempFile("word-calculator", ".txt");
+            writer.write(output, keys, counts, key -> vocabulary.word((int) key));
+            outputSize = Files.size(output);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Tokenizes the whole corpus on one thread into a fresh vocabulary, the
+     * word IDs are only counted.
+     */
+    @Benchmark
+    public long tokenize(CorpusFile corpusFile, Bytes bytes) {
+        long[] tokens = new long[1];
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(new Vocabulary(), false, id -> tokens[0]++);
+
+        for (ByteBuffer region : corpusFile.regions) {
+            tokenizer.feed(region.duplicate());
+        }
+
+        tokenizer.finish();
+        bytes.bytes += corpusFile.size;
+        return tokens[0];
+    }
+
+    /**
+     * Counts the words the way WordCalculator does without a mode: the
+     * corpus is tokenized in parallel parts and their counts are merged.
+     */
+    @Benchmark
+    public Corpus countWords(CorpusFile corpusFile, Bytes bytes) throws IOException {
+        Corpus corpus = Corpus.read(List.of(corpusFile.file), false, false);
+        bytes.bytes += corpusFile.size;
+        return corpus;
+    }
+
+    @Benchmark
+    public LongCounter countBigrams(CorpusFile corpusFile, Sequence sequence, Bytes bytes) {
+        LongCounter counter = sequence.counter.countNGrams(sequence.corpus.getIds(), 2);
+        bytes.bytes += corpusFile.size;
+        return counter;
+    }
+
+    @Benchmark
+    public LongCounter countCooccurrences(CorpusFile corpusFile, Sequence sequence,
+                                          Bytes bytes) {
+        LongCounter counter = sequence.counter.countCooccurrences(sequence.corpus.getIds(), 2);
+        bytes.bytes += corpusFile.size;
+        return counter;
+    }
+
+    @Benchmark
+    public void write(WordCounts wordCounts, Bytes bytes) throws IOException {
+        wordCounts.writer.write(wordCounts.output, wordCounts.keys, wordCounts.counts,
+                                key -> wordCounts.vocabulary.word((int) key));
+        bytes.bytes += wordCounts.outputSize;
+    }
+}
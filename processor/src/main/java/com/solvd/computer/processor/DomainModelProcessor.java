@@ -0,0 +1,649 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The DomainModelProcessor class generates, at compile time, the code that
+ * would otherwise need reflection at run time for every class annotated with
+ * DomainModel: a Metadata class with the declared members and the properties
+ * of the class and, for classes that are not abstract, a Builder and a Mapper
+ * to and from maps and records. The properties are the parameters of the
+ * public constructor with the most parameters and the properties it does not
+ * take that have a public getter and setter.
+ */
+@SupportedAnnotationTypes(DomainModelProcessor.ANNOTATION)
+public final class DomainModelProcessor extends AbstractProcessor {
+    final static String ANNOTATION = "com.solvd.computer.model.DomainModel";
+    private final static String VALUES = "com.solvd.computer.model.Values";
+    private final static String VALUES_CLASS = VALUES.substring(VALUES.lastIndexOf('.') + 1);
+    private final static String GENERATED =
+            "@Generated(\"" + DomainModelProcessor.class.getName() + "\")";
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+    private final Map<TypeElement, Model> models = new HashMap<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        filer = processingEnv.getFiler();
+        messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                                          "@DomainModel applies to classes only.", element);
+                    continue;
+                }
+
+                try {
+                    generate(model((TypeElement) element));
+                } catch (IllegalStateException ex) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), element);
+                } catch (IOException ex) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                                          "Cannot write the generated code: " + ex, element);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void generate(Model model) throws IOException {
+        writeMetadata(model);
+
+        if (model.concrete()) {
+            writeBuilder(model);
+            writeMapper(model);
+        }
+    }
+
+    private Model model(TypeElement type) {
+        Model cached = models.get(type);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        ExecutableElement constructor = ElementFilter
+                .constructorsIn(type.getEnclosedElements())
+                .stream()
+                .filter(element -> element.getModifiers().contains(Modifier.PUBLIC))
+                .max(Comparator.comparingInt(element -> element.getParameters().size()))
+                .orElseThrow(() -> new IllegalStateException(
+                        type.getSimpleName() + " has no public constructor."));
+        List<ExecutableElement> methods = ElementFilter
+                .methodsIn(elements.getAllMembers(type))
+                .stream()
+                .filter(method -> method.getModifiers().contains(Modifier.PUBLIC)
+                        && !method.getModifiers().contains(Modifier.STATIC))
+                .toList();
+        List<Property> properties = new ArrayList<>();
+        Set<String> covered = new LinkedHashSet<>();
+        Set<TypeMirror> thrown = new LinkedHashSet<>(constructor.getThrownTypes());
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            String name = parameter.getSimpleName().toString();
+            List<String> suffixes = suffixes(name);
+            String getter = suffixes
+                    .stream()
+                    .map(suffix -> "get" + suffix)
+                    .filter(candidate -> findGetter(methods, candidate) != null)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            type.getSimpleName() + " has no getter for the constructor "
+                            + "parameter " + name + "."));
+            covered.addAll(suffixes);
+            properties.add(new Property(name, parameter.asType(), getter, null));
+        }
+
+        for (ExecutableElement setter : methods) {
+            String setterName = setter.getSimpleName().toString();
+
+            if (!setterName.startsWith("set") || setterName.length() == 3
+                    || setter.getParameters().size() != 1
+                    || setter.getReturnType().getKind() != TypeKind.VOID) {
+                continue;
+            }
+
+            String suffix = setterName.substring(3);
+            ExecutableElement getter = findGetter(methods, "get" + suffix);
+            TypeMirror propertyType = setter.getParameters().getFirst().asType();
+
+            if (covered.contains(suffix) || getter == null
+                    || !types.isSameType(getter.getReturnType(), propertyType)) {
+                continue;
+            }
+
+            covered.add(suffix);
+            properties.add(new Property(decapitalize(suffix), propertyType, "get" + suffix,
+                                        setterName));
+            thrown.addAll(setter.getThrownTypes());
+        }
+
+        Model model = new Model(type, !type.getModifiers().contains(Modifier.ABSTRACT),
+                                List.copyOf(properties), distinct(thrown));
+        models.put(type, model);
+        return model;
+    }
+
+    private void writeMetadata(Model model) throws IOException {
+        TypeElement type = model.type();
+        String name = type.getSimpleName() + "Metadata";
+
+        try (PrintWriter out = open(type, name)) {
+            header(out, type, List.of("java.util.Collections", "java.util.LinkedHashMap",
+                                      "java.util.List", "java.util.Map"));
+            out.println("/**");
+            out.println(" * The members and properties of " + type.getSimpleName()
+                        + ", collected at compile time.");
+            out.println(" */");
+            out.println(GENERATED);
+            out.println("public final class " + name + " {");
+            out.println("    public final static String NAME = "
+                        + literal(type.getQualifiedName().toString()) + ";");
+            constant(out, "FIELDS", ElementFilter
+                    .fieldsIn(type.getEnclosedElements())
+                    .stream()
+                    .map(field -> modifiers(field) + field.asType() + " " + field.getSimpleName())
+                    .toList());
+            constant(out, "CONSTRUCTORS", ElementFilter
+                    .constructorsIn(type.getEnclosedElements())
+                    .stream()
+                    .map(constructor -> modifiers(constructor) + type.getSimpleName()
+                                        + signature(constructor))
+                    .toList());
+            constant(out, "METHODS", ElementFilter
+                    .methodsIn(type.getEnclosedElements())
+                    .stream()
+                    .map(method -> modifiers(method) + method.getReturnType() + " "
+                                   + method.getSimpleName() + signature(method))
+                    .toList());
+            constant(out, "INTERFACES", type
+                    .getInterfaces()
+                    .stream()
+                    .map(TypeMirror::toString)
+                    .toList());
+            out.println("    public final static Map<String, Class<?>> PROPERTIES = "
+                        + "properties();");
+            out.println();
+            out.println("    private " + name + "() {}");
+            out.println();
+            out.println("    private static Map<String, Class<?>> properties() {");
+            out.println("        Map<String, Class<?>> properties = new LinkedHashMap<>();");
+
+            for (Property property : model.properties()) {
+                out.println("        properties.put(" + literal(property.name()) + ", "
+                            + types.erasure(property.type()) + ".class);");
+            }
+
+            out.println("        return Collections.unmodifiableMap(properties);");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void writeBuilder(Model model) throws IOException {
+        TypeElement type = model.type();
+        String simpleName = type.getSimpleName().toString();
+        String name = simpleName + "Builder";
+
+        List<Property> required = model
+                .properties()
+                .stream()
+                .filter(property -> property.setter() == null)
+                .toList();
+
+        try (PrintWriter out = open(type, name)) {
+            header(out, type, required.isEmpty() ? List.of() : List.of("java.util.StringJoiner"));
+            out.println("/**");
+            out.println(" * Builds " + simpleName + " objects through the constructor with the "
+                        + "most parameters,");
+            out.println(" * the other properties are set after the construction. Every "
+                        + "parameter of the");
+            out.println(" * constructor must be set before build() is called.");
+            out.println(" */");
+            out.println(GENERATED);
+            out.println("public final class " + name + " {");
+
+            for (Property property : model.properties()) {
+                out.println("    private " + property.type() + " " + property.name() + ";");
+                out.println("    private boolean " + property.name() + "Set;");
+            }
+
+            out.println();
+            out.println("    public static " + name + " from(" + simpleName + " source) {");
+            out.println("        " + name + " builder = new " + name + "();");
+
+            for (Property property : model.properties()) {
+                out.println("        builder." + property.name() + "(source." + property.getter()
+                            + "());");
+            }
+
+            out.println("        return builder;");
+            out.println("    }");
+
+            for (Property property : model.properties()) {
+                out.println();
+                out.println("    public " + name + " " + property.name() + "(" + property.type()
+                            + " " + property.name() + ") {");
+                out.println("        this." + property.name() + " = " + property.name() + ";");
+                out.println("        this." + property.name() + "Set = true;");
+                out.println("        return this;");
+                out.println("    }");
+            }
+
+            out.println();
+            out.println("    public " + simpleName + " build()" + throwsClause(model.thrown())
+                        + " {");
+            String arguments = required
+                    .stream()
+                    .map(Property::name)
+                    .collect(Collectors.joining(", "));
+
+            if (!required.isEmpty()) {
+                out.println("        StringJoiner missing = new StringJoiner(\", \");");
+
+                for (Property property : required) {
+                    out.println();
+                    out.println("        if (!" + property.name() + "Set) {");
+                    out.println("            missing.add(" + literal(property.name()) + ");");
+                    out.println("        }");
+                }
+
+                out.println();
+                out.println("        if (missing.length() > 0) {");
+                out.println("            throw new IllegalStateException(\"The properties \" + "
+                            + "missing");
+                out.println("                                            + \" of "
+                            + simpleName + " are not set.\");");
+                out.println("        }");
+                out.println();
+            }
+
+            if (required.size() == model.properties().size()) {
+                out.println("        return new " + simpleName + "(" + arguments + ");");
+            } else {
+                out.println("        " + simpleName + " result = new " + simpleName + "("
+                            + arguments + ");");
+
+                for (Property property : model.properties()) {
+                    if (property.setter() != null) {
+                        out.println();
+                        out.println("        if (" + property.name() + "Set) {");
+                        out.println("            result." + property.setter() + "("
+                                    + property.name() + ");");
+                        out.println("        }");
+                    }
+                }
+
+                out.println();
+                out.println("        return result;");
+            }
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void writeMapper(Model model) throws IOException {
+        TypeElement type = model.type();
+        String simpleName = type.getSimpleName().toString();
+        String name = simpleName + "Mapper";
+        String thrown = throwsClause(mapperThrown(model));
+
+        try (PrintWriter out = open(type, name)) {
+            header(out, type, List.of(VALUES, "java.util.LinkedHashMap", "java.util.Map"));
+            out.println("/**");
+            out.println(" * Converts " + simpleName + " objects to and from maps keyed by "
+                        + "property name and");
+            out.println(" * Data records. Nested models become nested maps and records.");
+            out.println(" */");
+            out.println(GENERATED);
+            out.println("public final class " + name + " {");
+            out.println("    private " + name + "() {}");
+            out.println();
+            out.println("    public static Map<String, Object> toMap(" + simpleName
+                        + " source) {");
+            out.println("        if (source == null) {");
+            out.println("            return null;");
+            out.println("        }");
+            out.println();
+            out.println("        Map<String, Object> map = new LinkedHashMap<>();");
+
+            for (Property property : model.properties()) {
+                String value = "source." + property.getter() + "()";
+                TypeElement nested = nestedModel(property.type());
+                out.println("        map.put(" + literal(property.name()) + ", "
+                            + (nested != null ? mapper(nested) + ".toMap(" + value + ")" : value)
+                            + ");");
+            }
+
+            out.println("        return map;");
+            out.println("    }");
+            out.println();
+            out.println("    public static " + simpleName + " fromMap(Map<String, ?> map)" + thrown
+                        + " {");
+            out.println("        " + simpleName + "Builder builder = new " + simpleName
+                        + "Builder();");
+
+            for (Property property : model.properties()) {
+                out.println();
+                out.println("        if (map.containsKey(" + literal(property.name()) + ")) {");
+                out.println("            Object value = map.get(" + literal(property.name())
+                            + ");");
+                out.println("            builder." + property.name() + "("
+                            + conversion(property.type()) + ");");
+                out.println("        }");
+            }
+
+            out.println();
+            out.println("        return builder.build();");
+            out.println("    }");
+            out.println();
+            out.println("    public static Data toRecord(" + simpleName + " source) {");
+            out.println("        if (source == null) {");
+            out.println("            return null;");
+            out.println("        }");
+            out.println();
+            out.println("        return new Data(" + model
+                    .properties()
+                    .stream()
+                    .map(property -> {
+                        String value = "source." + property.getter() + "()";
+                        TypeElement nested = nestedModel(property.type());
+                        return nested != null ? mapper(nested) + ".toRecord(" + value + ")" : value;
+                    })
+                    .collect(Collectors.joining(",\n                        ")) + ");");
+            out.println("    }");
+            out.println();
+            out.println("    public static " + simpleName + " fromRecord(Data data)" + thrown
+                        + " {");
+            out.println("        if (data == null) {");
+            out.println("            return null;");
+            out.println("        }");
+            out.println();
+            out.println("        " + simpleName + "Builder builder = new " + simpleName
+                        + "Builder();");
+
+            boolean block = false;
+
+            for (Property property : model.properties()) {
+                String value = "data." + property.name() + "()";
+                TypeElement nested = nestedModel(property.type());
+                String converted = nested != null
+                        ? mapper(nested) + ".fromRecord(" + value + ")"
+                        : value;
+                boolean optional = property.setter() != null
+                        && !property.type().getKind().isPrimitive();
+
+                if (optional || block) {
+                    out.println();
+                }
+
+                if (optional) {
+                    out.println("        if (" + value + " != null) {");
+                    out.println("            builder." + property.name() + "(" + converted + ");");
+                    out.println("        }");
+                } else {
+                    out.println("        builder." + property.name() + "(" + converted + ");");
+                }
+
+                block = optional;
+            }
+
+            if (block) {
+                out.println();
+            }
+
+            out.println("        return builder.build();");
+            out.println("    }");
+            out.println();
+            out.println("    public record Data(" + model
+                    .properties()
+                    .stream()
+                    .map(property -> {
+                        TypeElement nested = nestedModel(property.type());
+                        return (nested != null ? mapper(nested) + ".Data" : property.type())
+                               + " " + property.name();
+                    })
+                    .collect(Collectors.joining(",\n                       ")) + ") {");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * Returns the expression that converts the Object named value into the
+     * given type.
+     */
+    private String conversion(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            String primitive = type.toString();
+            return VALUES_CLASS + ".as" + Character.toUpperCase(primitive.charAt(0))
+                   + primitive.substring(1) + "(value)";
+        }
+
+        TypeElement nested = nestedModel(type);
+
+        if (nested != null) {
+            return VALUES_CLASS + ".asMap(value) != null ? " + mapper(nested) + ".fromMap("
+                   + VALUES_CLASS + ".asMap(value)) : (" + type + ") value";
+        }
+
+        String erased = types.erasure(type).toString();
+        Element element = types.asElement(type);
+
+        if (erased.equals("java.lang.String")) {
+            return VALUES_CLASS + ".asString(value)";
+        } else if (erased.equals("java.math.BigDecimal")) {
+            return VALUES_CLASS + ".asBigDecimal(value)";
+        } else if (element != null && element.getKind() == ElementKind.ENUM) {
+            return VALUES_CLASS + ".asEnum(" + erased + ".class, value)";
+        }
+
+        return "(" + type + ") value";
+    }
+
+    private List<TypeMirror> mapperThrown(Model model) {
+        Set<TypeMirror> thrown = new LinkedHashSet<>(model.thrown());
+
+        for (Property property : model.properties()) {
+            TypeElement nested = nestedModel(property.type());
+
+            if (nested != null) {
+                thrown.addAll(mapperThrown(model(nested)));
+            }
+        }
+
+        return distinct(thrown);
+    }
+
+    private TypeElement nestedModel(TypeMirror type) {
+        if (!(type instanceof DeclaredType declared)) {
+            return null;
+        }
+
+        TypeElement element = (TypeElement) declared.asElement();
+        boolean annotated = element
+                .getAnnotationMirrors()
+                .stream()
+                .anyMatch(mirror -> mirror.getAnnotationType().toString().equals(ANNOTATION));
+        return annotated && !element.getModifiers().contains(Modifier.ABSTRACT) ? element : null;
+    }
+
+    private String mapper(TypeElement type) {
+        return type.getQualifiedName() + "Mapper";
+    }
+
+    private static ExecutableElement findGetter(List<ExecutableElement> methods, String name) {
+        return methods
+                .stream()
+                .filter(method -> method.getSimpleName().contentEquals(name)
+                        && method.getParameters().isEmpty()
+                        && method.getReturnType().getKind() != TypeKind.VOID)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Returns the accessor suffixes a property may have: isIntegrated is read
+     * by getIsIntegrated or getIntegrated.
+     */
+    private static List<String> suffixes(String name) {
+        List<String> suffixes = new ArrayList<>();
+        suffixes.add(capitalize(name));
+
+        for (String prefix : List.of("is", "has")) {
+            if (name.length() > prefix.length() && name.startsWith(prefix)
+                    && Character.isUpperCase(name.charAt(prefix.length()))) {
+                suffixes.add(name.substring(prefix.length()));
+            }
+        }
+
+        return suffixes;
+    }
+
+    private List<TypeMirror> distinct(Set<TypeMirror> thrown) {
+        Map<String, TypeMirror> byName = new LinkedHashMap<>();
+        thrown.forEach(type -> byName.putIfAbsent(type.toString(), type));
+        return List.copyOf(byName.values());
+    }
+
+    private PrintWriter open(TypeElement type, String name) throws IOException {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        return new PrintWriter(filer
+                                       .createSourceFile(packageName + "." + name, type)
+                                       .openWriter());
+    }
+
+    private void header(PrintWriter out, TypeElement type, List<String> imports) {
+        out.println("package " + elements.getPackageOf(type).getQualifiedName() + ";");
+        out.println();
+        List<String> sorted = new ArrayList<>(imports);
+        sorted.add("javax.annotation.processing.Generated");
+        sorted.sort(Comparator
+                            .comparing((String name) -> name.startsWith("java"))
+                            .thenComparing(Comparator.naturalOrder()));
+
+        for (String name : sorted) {
+            out.println("import " + name + ";");
+        }
+
+        out.println();
+    }
+
+    private static void constant(PrintWriter out, String name, List<String> values) {
+        out.println("    public final static List<String> " + name + " = List.of(");
+        out.println(values
+                            .stream()
+                            .map(value -> "            " + literal(value))
+                            .collect(Collectors.joining(",\n")) + ");");
+    }
+
+    private static String modifiers(Element element) {
+        return element
+                .getModifiers()
+                .stream()
+                .sorted()
+                .map(modifier -> modifier + " ")
+                .collect(Collectors.joining());
+    }
+
+    private static String signature(ExecutableElement executable) {
+        return executable
+                .getParameters()
+                .stream()
+                .map(parameter -> parameter.asType() + " " + parameter.getSimpleName())
+                .collect(Collectors.joining(", ", "(", ")"))
+               + throwsClause(executable.getThrownTypes());
+    }
+
+    private static String throwsClause(List<? extends TypeMirror> thrown) {
+        return thrown.isEmpty()
+                ? ""
+                : thrown
+                        .stream()
+                        .map(TypeMirror::toString)
+                        .collect(Collectors.joining(", ", " throws ", ""));
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private record Model(TypeElement type, boolean concrete, List<Property> properties,
+                         List<TypeMirror> thrown) {
+    }
+
+    private record Property(String name, TypeMirror type, String getter, String setter) {
+    }
+}
@@ -22,11 +22,18 @@ import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.interfaces.IBoost;
 import com.solvd.computer.interfaces.IUse;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Objects;
 
+@DomainModel
 public class CPU implements IBoost, IUse {
     private final static int CPU_MASK = 20;
     private final static int MAX_CPU_NAME_LENGTH = 100;
@@ -42,6 +49,7 @@ public class CPU implements IBoost, IUse {
             "The CPU clock rate should not be less than or equal to 0 "
             + "or exceed " + MAX_CLOCK_RATE_IN_GHZ + " GHz.";
     private final static Logger LOGGER = LogManager.getLogger(CPU.class);
+    private final static Counter CREATED = MetricsRegistry.counter("cpu.created");
 
     private String name = "";
     private int numOfCores = 1;
@@ -55,16 +63,19 @@ public class CPU implements IBoost, IUse {
                NoOneOrTooManyCoresException, NoOneOrTooManyHzException {
         if (name.isEmpty() || name.length() > MAX_CPU_NAME_LENGTH) {
             LOGGER.error(CPU_NAME_MESSAGE);
+            ValidationFailureEvent.emit(CPU.class, CPU_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(CPU_NAME_MESSAGE);
         }
 
         if (numOfCores <= 0 || numOfCores > MAX_NUMBER_OF_CORES) {
             LOGGER.error(CORES_MESSAGE);
+            ValidationFailureEvent.emit(CPU.class, CORES_MESSAGE);
             throw new NoOneOrTooManyCoresException(CORES_MESSAGE);
         }
 
         if (clockRateInGHz <= 0.00 || clockRateInGHz > MAX_CLOCK_RATE_IN_GHZ) {
             LOGGER.error(CLOCK_RATE_MESSAGE);
+            ValidationFailureEvent.emit(CPU.class, CLOCK_RATE_MESSAGE);
             throw new NoOneOrTooManyHzException(CLOCK_RATE_MESSAGE);
         }
 
@@ -72,12 +83,21 @@ public class CPU implements IBoost, IUse {
         this.numOfCores = numOfCores;
         this.clockRateInGHz = clockRateInGHz;
         this.hasTurboBoost = hasTurboBoost;
+        CREATED.increment();
     }
 
     public static double getMaxClockRateInGhz() {
         return MAX_CLOCK_RATE_IN_GHZ;
     }
 
+    public static int getMaxNameLength() {
+        return MAX_CPU_NAME_LENGTH;
+    }
+
+    public static int getMaxNumOfCores() {
+        return MAX_NUMBER_OF_CORES;
+    }
+
     public String getName() {
         return name;
     }
@@ -85,6 +105,7 @@ public class CPU implements IBoost, IUse {
     public void setName(String name) throws ZeroOrTooManyCharactersException {
         if (name.isEmpty() || name.length() > MAX_CPU_NAME_LENGTH) {
             LOGGER.error(CPU_NAME_MESSAGE);
+            ValidationFailureEvent.emit(CPU.class, CPU_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(CPU_NAME_MESSAGE);
         }
 
@@ -98,6 +119,7 @@ public class CPU implements IBoost, IUse {
     public void setNumOfCores(int numOfCores) throws NoOneOrTooManyCoresException {
         if (numOfCores <= 0 || numOfCores > MAX_NUMBER_OF_CORES) {
             LOGGER.error(CORES_MESSAGE);
+            ValidationFailureEvent.emit(CPU.class, CORES_MESSAGE);
             throw new NoOneOrTooManyCoresException(CORES_MESSAGE);
         }
 
@@ -112,6 +134,7 @@ public class CPU implements IBoost, IUse {
             throws NoOneOrTooManyHzException {
         if (clockRateInGHz <= 0.00 || clockRateInGHz > MAX_CLOCK_RATE_IN_GHZ) {
             LOGGER.error(CLOCK_RATE_MESSAGE);
+            ValidationFailureEvent.emit(CPU.class, CLOCK_RATE_MESSAGE);
             throw new NoOneOrTooManyHzException(CLOCK_RATE_MESSAGE);
         }
 
@@ -132,7 +155,7 @@ public class CPU implements IBoost, IUse {
 
     @Override
     public void use() {
-        LOGGER.info("The CPU is used.");
+        EventJournal.record(Event.CPU_USED, this);
     }
 
     @Override
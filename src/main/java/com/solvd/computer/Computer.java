@@ -20,12 +20,18 @@ package com.solvd.computer;
 import com.solvd.computer.enums.*;
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+import com.solvd.computer.interfaces.IObserve;
 import com.solvd.computer.interfaces.ITurn;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
 
+@DomainModel
 public abstract class Computer implements ITurn {
     private final static int MAX_PRODUCER_NAME_LENGTH = 100;
     private final static int MAX_MODEL_NAME_LENGTH = 100;
@@ -44,6 +50,7 @@ public abstract class Computer implements ITurn {
             "The price should not be less than or equal to 0.00 "
             + "or exceed " + MAX_PRICE_IN_USD + " USD.";
     private final static Logger LOGGER = LogManager.getLogger(Computer.class);
+    private final static IObserve[] NO_OBSERVERS = new IObserve[0];
 
     protected String producer = "";
     protected String model = "";
@@ -62,6 +69,7 @@ public abstract class Computer implements ITurn {
     private Model computerModel;
     private Producer computerProducer;
     private Target target;
+    private volatile IObserve[] observers = NO_OBSERVERS;
 
     public Computer() {
         this.operatingSystem = new OperatingSystem();
@@ -81,22 +89,26 @@ public abstract class Computer implements ITurn {
                     ZeroOrTooManyUSDException {
         if (producer.isEmpty() || producer.length() > MAX_PRODUCER_NAME_LENGTH) {
             LOGGER.error(PRODUCER_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, PRODUCER_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(PRODUCER_NAME_MESSAGE);
         }
 
         if (model.isEmpty() || model.length() > MAX_MODEL_NAME_LENGTH) {
             LOGGER.error(MODEL_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, MODEL_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(MODEL_NAME_MESSAGE);
         }
 
         if (type.isEmpty() || type.length() > MAX_TYPE_NAME_LENGTH) {
             LOGGER.error(TYPE_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, TYPE_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(TYPE_NAME_MESSAGE);
         }
 
         if (priceInUSD.compareTo(new BigDecimal("0.00")) == 0
                 || priceInUSD.compareTo(MAX_PRICE_IN_USD) > 0) {
             LOGGER.error(PRICE_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, PRICE_MESSAGE);
             throw new ZeroOrTooManyUSDException(PRICE_MESSAGE);
         }
 
@@ -114,6 +126,22 @@ public abstract class Computer implements ITurn {
         this.isTurnedOn = isTurnedOn;
     }
 
+    public static int getMaxProducerNameLength() {
+        return MAX_PRODUCER_NAME_LENGTH;
+    }
+
+    public static int getMaxModelNameLength() {
+        return MAX_MODEL_NAME_LENGTH;
+    }
+
+    public static int getMaxTypeNameLength() {
+        return MAX_TYPE_NAME_LENGTH;
+    }
+
+    public static BigDecimal getMaxPriceInUSD() {
+        return MAX_PRICE_IN_USD;
+    }
+
     public String getProducer() {
         return producer;
     }
@@ -122,10 +150,13 @@ public abstract class Computer implements ITurn {
             throws ZeroOrTooManyCharactersException {
         if (producer.isEmpty() || producer.length() > MAX_PRODUCER_NAME_LENGTH) {
             LOGGER.error(PRODUCER_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, PRODUCER_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(PRODUCER_NAME_MESSAGE);
         }
 
+        String oldProducer = this.producer;
         this.producer = producer;
+        notifyObservers(ComputerAttribute.PRODUCER, oldProducer, producer);
     }
 
     public String getModel() {
@@ -135,10 +166,13 @@ public abstract class Computer implements ITurn {
     public void setModel(String model) throws ZeroOrTooManyCharactersException {
         if (model.isEmpty() || model.length() > MAX_MODEL_NAME_LENGTH) {
             LOGGER.error(MODEL_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, MODEL_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(MODEL_NAME_MESSAGE);
         }
 
+        String oldModel = this.model;
         this.model = model;
+        notifyObservers(ComputerAttribute.MODEL, oldModel, model);
     }
 
     public String getType() {
@@ -148,10 +182,13 @@ public abstract class Computer implements ITurn {
     public void setType(String type) throws ZeroOrTooManyCharactersException {
         if (type.isEmpty() || type.length() > MAX_TYPE_NAME_LENGTH) {
             LOGGER.error(TYPE_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, TYPE_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(TYPE_NAME_MESSAGE);
         }
 
+        String oldType = this.type;
         this.type = type;
+        notifyObservers(ComputerAttribute.TYPE, oldType, type);
     }
 
     public OperatingSystem getOperatingSystem() {
@@ -159,7 +196,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setOperatingSystem(OperatingSystem operatingSystem) {
+        OperatingSystem oldOperatingSystem = this.operatingSystem;
         this.operatingSystem = operatingSystem;
+        notifyObservers(ComputerAttribute.OPERATING_SYSTEM, oldOperatingSystem, operatingSystem);
     }
 
     public Display getScreen() {
@@ -167,7 +206,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setScreen(Display screen) {
+        Display oldScreen = this.screen;
         this.screen = screen;
+        notifyObservers(ComputerAttribute.SCREEN, oldScreen, screen);
     }
 
     public CPU getProcessor() {
@@ -175,7 +216,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setProcessor(CPU processor) {
+        CPU oldProcessor = this.processor;
         this.processor = processor;
+        notifyObservers(ComputerAttribute.PROCESSOR, oldProcessor, processor);
     }
 
     public GPU getGraphics() {
@@ -183,7 +226,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setGraphics(GPU graphics) {
+        GPU oldGraphics = this.graphics;
         this.graphics = graphics;
+        notifyObservers(ComputerAttribute.GRAPHICS, oldGraphics, graphics);
     }
 
     public RAM getMemory() {
@@ -191,7 +236,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setMemory(RAM memory) {
+        RAM oldMemory = this.memory;
         this.memory = memory;
+        notifyObservers(ComputerAttribute.MEMORY, oldMemory, memory);
     }
 
     public Storage getStorage() {
@@ -199,7 +246,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setStorage(Storage storage) {
+        Storage oldStorage = this.storage;
         this.storage = storage;
+        notifyObservers(ComputerAttribute.STORAGE, oldStorage, storage);
     }
 
     public Port getPorts() {
@@ -207,7 +256,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setPorts(Port ports) {
+        Port oldPorts = this.ports;
         this.ports = ports;
+        notifyObservers(ComputerAttribute.PORTS, oldPorts, ports);
     }
 
     public BigDecimal getPriceInUSD() {
@@ -219,10 +270,13 @@ public abstract class Computer implements ITurn {
         if (priceInUSD.compareTo(new BigDecimal("0.00")) == 0
                 || priceInUSD.compareTo(MAX_PRICE_IN_USD) > 0) {
             LOGGER.error(PRICE_MESSAGE);
+            ValidationFailureEvent.emit(Computer.class, PRICE_MESSAGE);
             throw new ZeroOrTooManyUSDException(PRICE_MESSAGE);
         }
 
+        BigDecimal oldPriceInUSD = this.priceInUSD;
         this.priceInUSD = priceInUSD;
+        notifyObservers(ComputerAttribute.PRICE_IN_USD, oldPriceInUSD, priceInUSD);
     }
 
     public boolean getIsTurnedOn() {
@@ -230,7 +284,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setIsTurnedOn(boolean turnedOn) {
-        isTurnedOn = turnedOn;
+        boolean wasTurnedOn = this.isTurnedOn;
+        this.isTurnedOn = turnedOn;
+        notifyObservers(ComputerAttribute.TURNED_ON, wasTurnedOn, turnedOn);
     }
 
     public ComputerType getComputerType() {
@@ -238,7 +294,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setComputerType(ComputerType computerType) {
+        ComputerType oldComputerType = this.computerType;
         this.computerType = computerType;
+        notifyObservers(ComputerAttribute.COMPUTER_TYPE, oldComputerType, computerType);
     }
 
     public Freshness getFreshness() {
@@ -246,7 +304,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setFreshness(Freshness freshness) {
+        Freshness oldFreshness = this.freshness;
         this.freshness = freshness;
+        notifyObservers(ComputerAttribute.FRESHNESS, oldFreshness, freshness);
     }
 
     public Model getComputerModel() {
@@ -254,7 +314,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setComputerModel(Model computerModel) {
+        Model oldComputerModel = this.computerModel;
         this.computerModel = computerModel;
+        notifyObservers(ComputerAttribute.COMPUTER_MODEL, oldComputerModel, computerModel);
     }
 
     public Producer getComputerProducer() {
@@ -262,7 +324,9 @@ public abstract class Computer implements ITurn {
     }
 
     public void setComputerProducer(Producer computerProducer) {
+        Producer oldComputerProducer = this.computerProducer;
         this.computerProducer = computerProducer;
+        notifyObservers(ComputerAttribute.COMPUTER_PRODUCER, oldComputerProducer, computerProducer);
     }
 
     public Target getTarget() {
@@ -270,6 +334,40 @@ public abstract class Computer implements ITurn {
     }
 
     public void setTarget(Target target) {
+        Target oldTarget = this.target;
         this.target = target;
+        notifyObservers(ComputerAttribute.TARGET, oldTarget, target);
+    }
+
+    public synchronized void addObserver(IObserve observer) {
+        IObserve[] current = observers;
+        IObserve[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = observer;
+        observers = updated;
+    }
+
+    public synchronized void removeObserver(IObserve observer) {
+        IObserve[] current = observers;
+
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == observer) {
+                IObserve[] updated = new IObserve[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                observers = updated;
+                return;
+            }
+        }
+    }
+
+    protected void notifyObservers(ComputerAttribute attribute, Object oldValue,
+                                   Object newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+
+        for (IObserve observer : observers) {
+            observer.observe(this, attribute, oldValue, newValue);
+        }
     }
 }
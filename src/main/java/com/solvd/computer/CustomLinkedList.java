@@ -17,6 +17,7 @@
  */
 package com.solvd.computer;
 
+import com.solvd.computer.jfr.LinkedListOperationEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -33,6 +34,8 @@ public class CustomLinkedList<E> {
     }
 
     public void addFirst(E value) {
+        LinkedListOperationEvent event = new LinkedListOperationEvent();
+        event.begin();
         Node<E> temp = new Node<>(value);
         temp.setNext(head);
         head = temp;
@@ -42,6 +45,7 @@ public class CustomLinkedList<E> {
         }
 
         size++;
+        commit(event, "addFirst");
     }
 
     public Node<E> getFirst() {
@@ -59,10 +63,13 @@ public class CustomLinkedList<E> {
             return;
         }
 
+        LinkedListOperationEvent event = new LinkedListOperationEvent();
+        event.begin();
         Node<E> temp = new Node<>(value);
         tail.setNext(temp);
         tail = temp;
         size++;
+        commit(event, "addLast");
     }
 
     public Node<E> getLast() {
@@ -73,4 +80,13 @@ public class CustomLinkedList<E> {
 
         return tail;
     }
+
+    private void commit(LinkedListOperationEvent event, String operation) {
+        event.size = size;
+
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.commit();
+        }
+    }
 }
@@ -21,11 +21,18 @@ import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.interfaces.IDisplay;
 import com.solvd.computer.interfaces.IUse;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Objects;
 
+@DomainModel
 public class Display implements IDisplay, IUse {
     private final static int DISPLAY_MASK = 20;
     private final static double MAX_SCREEN_SIZE_IN_INCHES = 50.0;
@@ -41,6 +48,7 @@ public class Display implements IDisplay, IUse {
             "The length of the display type name should not be equal to 0 "
             + "or exceed " + MAX_DISPLAY_TYPE_NAME_LENGTH + " characters.";
     private final static Logger LOGGER = LogManager.getLogger(Display.class);
+    private final static Counter CREATED = MetricsRegistry.counter("display.created");
 
     private double screenSizeInInches = 0.0;
     private String resolution = "";
@@ -53,22 +61,38 @@ public class Display implements IDisplay, IUse {
         if (screenSizeInInches <= 0.0
                 || screenSizeInInches > MAX_SCREEN_SIZE_IN_INCHES) {
             LOGGER.error(SCREEN_SIZE_MESSAGE);
+            ValidationFailureEvent.emit(Display.class, SCREEN_SIZE_MESSAGE);
             throw new NoOneOrTooManyInchesException(SCREEN_SIZE_MESSAGE);
         }
 
         if (resolution.isEmpty() || resolution.length() > MAX_RESOLUTION_NAME_LENGTH) {
             LOGGER.error(RESOLUTION_MESSAGE);
+            ValidationFailureEvent.emit(Display.class, RESOLUTION_MESSAGE);
             throw new ZeroOrTooManyCharactersException(RESOLUTION_MESSAGE);
         }
 
         if (type.isEmpty() || type.length() > MAX_DISPLAY_TYPE_NAME_LENGTH) {
             LOGGER.error(DISPLAY_TYPE_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Display.class, DISPLAY_TYPE_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(DISPLAY_TYPE_NAME_MESSAGE);
         }
 
         this.screenSizeInInches = screenSizeInInches;
         this.resolution = resolution;
         this.type = type;
+        CREATED.increment();
+    }
+
+    public static double getMaxScreenSizeInInches() {
+        return MAX_SCREEN_SIZE_IN_INCHES;
+    }
+
+    public static int getMaxResolutionNameLength() {
+        return MAX_RESOLUTION_NAME_LENGTH;
+    }
+
+    public static int getMaxTypeNameLength() {
+        return MAX_DISPLAY_TYPE_NAME_LENGTH;
     }
 
     public double getScreenSizeInInches() {
@@ -80,6 +104,7 @@ public class Display implements IDisplay, IUse {
         if (screenSizeInInches <= 0.0
                 || screenSizeInInches > MAX_SCREEN_SIZE_IN_INCHES) {
             LOGGER.error(SCREEN_SIZE_MESSAGE);
+            ValidationFailureEvent.emit(Display.class, SCREEN_SIZE_MESSAGE);
             throw new NoOneOrTooManyInchesException(SCREEN_SIZE_MESSAGE);
         }
 
@@ -94,6 +119,7 @@ public class Display implements IDisplay, IUse {
             throws ZeroOrTooManyCharactersException {
         if (resolution.isEmpty() || resolution.length() > MAX_RESOLUTION_NAME_LENGTH) {
             LOGGER.error(RESOLUTION_MESSAGE);
+            ValidationFailureEvent.emit(Display.class, RESOLUTION_MESSAGE);
             throw new ZeroOrTooManyCharactersException(RESOLUTION_MESSAGE);
         }
 
@@ -107,6 +133,7 @@ public class Display implements IDisplay, IUse {
     public void setType(String type) throws ZeroOrTooManyCharactersException {
         if (type.isEmpty() || type.length() > MAX_DISPLAY_TYPE_NAME_LENGTH) {
             LOGGER.error(DISPLAY_TYPE_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Display.class, DISPLAY_TYPE_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(DISPLAY_TYPE_NAME_MESSAGE);
         }
 
@@ -115,7 +142,7 @@ public class Display implements IDisplay, IUse {
 
     @Override
     public void use() {
-        LOGGER.info("The display is used.");
+        EventJournal.record(Event.DISPLAY_USED, this);
     }
 
     @Override
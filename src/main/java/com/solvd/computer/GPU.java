@@ -21,11 +21,18 @@ import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.interfaces.ISubstitute;
 import com.solvd.computer.interfaces.IUse;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Objects;
 
+@DomainModel
 public class GPU implements ISubstitute, IUse {
     private final static int GPU_MASK = 30;
     private final static int MAX_GPU_NAME_LENGTH = 100;
@@ -42,6 +49,7 @@ public class GPU implements ISubstitute, IUse {
             "The GPU clock rate should not be less than or equal to 0 "
             + "or exceed " + MAX_CLOCK_RATE_IN_MHZ + " MHz.";
     private final static Logger LOGGER = LogManager.getLogger(GPU.class);
+    private final static Counter CREATED = MetricsRegistry.counter("gpu.created");
 
     private String name = "";
     private int videoMemorySizeInGBs = 0;
@@ -55,17 +63,20 @@ public class GPU implements ISubstitute, IUse {
                NoOneOrTooManyHzException {
         if (name.isEmpty() || name.length() > MAX_GPU_NAME_LENGTH) {
             LOGGER.error(GPU_NAME_MESSAGE);
+            ValidationFailureEvent.emit(GPU.class, GPU_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(GPU_NAME_MESSAGE);
         }
 
         if (videoMemorySizeInGBs < 0
                 || videoMemorySizeInGBs > MAX_VIDEO_MEMORY_SIZE_IN_GIGABYTES) {
             LOGGER.info(VIDEO_MEMORY_SIZE);
+            ValidationFailureEvent.emit(GPU.class, VIDEO_MEMORY_SIZE);
             System.exit(1);
         }
 
         if (clockRateInMHz <= 0 || clockRateInMHz > MAX_CLOCK_RATE_IN_MHZ) {
             LOGGER.error(CLOCK_RATE_MESSAGE);
+            ValidationFailureEvent.emit(GPU.class, CLOCK_RATE_MESSAGE);
             throw new NoOneOrTooManyHzException(CLOCK_RATE_MESSAGE);
         }
 
@@ -73,6 +84,19 @@ public class GPU implements ISubstitute, IUse {
         this.videoMemorySizeInGBs = videoMemorySizeInGBs;
         this.clockRateInMHz = clockRateInMHz;
         this.isIntegrated = isIntegrated;
+        CREATED.increment();
+    }
+
+    public static int getMaxNameLength() {
+        return MAX_GPU_NAME_LENGTH;
+    }
+
+    public static int getMaxVideoMemorySizeInGBs() {
+        return MAX_VIDEO_MEMORY_SIZE_IN_GIGABYTES;
+    }
+
+    public static int getMaxClockRateInMHz() {
+        return MAX_CLOCK_RATE_IN_MHZ;
     }
 
     public String getName() {
@@ -82,6 +106,7 @@ public class GPU implements ISubstitute, IUse {
     public void setName(String name) throws ZeroOrTooManyCharactersException {
         if (name.isEmpty() || name.length() > MAX_GPU_NAME_LENGTH) {
             LOGGER.error(GPU_NAME_MESSAGE);
+            ValidationFailureEvent.emit(GPU.class, GPU_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(GPU_NAME_MESSAGE);
         }
 
@@ -96,6 +121,7 @@ public class GPU implements ISubstitute, IUse {
         if (videoMemorySizeInGBs < 0
                 || videoMemorySizeInGBs > MAX_VIDEO_MEMORY_SIZE_IN_GIGABYTES) {
             LOGGER.info(VIDEO_MEMORY_SIZE);
+            ValidationFailureEvent.emit(GPU.class, VIDEO_MEMORY_SIZE);
             System.exit(1);
         }
 
@@ -110,6 +136,7 @@ public class GPU implements ISubstitute, IUse {
             throws NoOneOrTooManyHzException {
         if (clockRateInMHz <= 0 || clockRateInMHz > MAX_CLOCK_RATE_IN_MHZ) {
             LOGGER.error(CLOCK_RATE_MESSAGE);
+            ValidationFailureEvent.emit(GPU.class, CLOCK_RATE_MESSAGE);
             throw new NoOneOrTooManyHzException(CLOCK_RATE_MESSAGE);
         }
 
@@ -126,7 +153,7 @@ public class GPU implements ISubstitute, IUse {
 
     @Override
     public void use() {
-        LOGGER.info("The GPU is used.");
+        EventJournal.record(Event.GPU_USED, this);
     }
 
     @Override
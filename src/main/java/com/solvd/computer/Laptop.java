@@ -17,14 +17,23 @@
  */
 package com.solvd.computer;
 
+import com.solvd.computer.enums.ComputerAttribute;
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+import com.solvd.computer.jfr.LaptopTurnOnEvent;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
 import java.util.Objects;
 
+@DomainModel
 public final class Laptop extends Computer implements Comparable<Laptop> {
     private final static int LAPTOP_MASK;
     private final static double MAX_WEIGHT_IN_GRAMS = 10000.00;
@@ -36,6 +45,8 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
             "The length of the color name should not be equal to 0 "
             + "or exceed " + MAX_COLOR_NAME_LENGTH + " characters.";
     private final static Logger LOGGER = LogManager.getLogger(Laptop.class);
+    private final static Histogram TURN_ON_LATENCY =
+            MetricsRegistry.histogram("laptop.turnOn.latency");
 
     private boolean hasWirelessNetworking = true;
     private boolean hasIntegratedCamera = true;
@@ -70,11 +81,13 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
 
         if (weightInGrams <= 0.00 || weightInGrams > MAX_WEIGHT_IN_GRAMS) {
             LOGGER.info(WEIGHT_MESSAGE);
+            ValidationFailureEvent.emit(Laptop.class, WEIGHT_MESSAGE);
             System.exit(1);
         }
 
         if (color.isEmpty() || color.length() > MAX_COLOR_NAME_LENGTH) {
             LOGGER.error(COLOR_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Laptop.class, COLOR_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(COLOR_NAME_MESSAGE);
         }
 
@@ -90,12 +103,22 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
         this.laptopProcessor = processor;
     }
 
+    public static double getMaxWeightInGrams() {
+        return MAX_WEIGHT_IN_GRAMS;
+    }
+
+    public static int getMaxColorNameLength() {
+        return MAX_COLOR_NAME_LENGTH;
+    }
+
     public boolean getHasWirelessNetworking() {
         return hasWirelessNetworking;
     }
 
     public void setHasWirelessNetworking(boolean hasWirelessNetworking) {
+        boolean oldHasWirelessNetworking = this.hasWirelessNetworking;
         this.hasWirelessNetworking = hasWirelessNetworking;
+        notifyObservers(ComputerAttribute.WIRELESS_NETWORKING, oldHasWirelessNetworking, hasWirelessNetworking);
     }
 
     public boolean getHasIntegratedCamera() {
@@ -103,7 +126,9 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     }
 
     public void setHasIntegratedCamera(boolean hasIntegratedCamera) {
+        boolean oldHasIntegratedCamera = this.hasIntegratedCamera;
         this.hasIntegratedCamera = hasIntegratedCamera;
+        notifyObservers(ComputerAttribute.INTEGRATED_CAMERA, oldHasIntegratedCamera, hasIntegratedCamera);
     }
 
     public boolean getHasIntegratedKeyboard() {
@@ -111,7 +136,9 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     }
 
     public void setHasIntegratedKeyboard(boolean hasIntegratedKeyboard) {
+        boolean oldHasIntegratedKeyboard = this.hasIntegratedKeyboard;
         this.hasIntegratedKeyboard = hasIntegratedKeyboard;
+        notifyObservers(ComputerAttribute.INTEGRATED_KEYBOARD, oldHasIntegratedKeyboard, hasIntegratedKeyboard);
     }
 
     public boolean getHasIntegratedMicrophone() {
@@ -119,7 +146,9 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     }
 
     public void setHasIntegratedMicrophone(boolean hasIntegratedMicrophone) {
+        boolean oldHasIntegratedMicrophone = this.hasIntegratedMicrophone;
         this.hasIntegratedMicrophone = hasIntegratedMicrophone;
+        notifyObservers(ComputerAttribute.INTEGRATED_MICROPHONE, oldHasIntegratedMicrophone, hasIntegratedMicrophone);
     }
 
     public boolean getHasIntegratedSpeakers() {
@@ -127,7 +156,9 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     }
 
     public void setHasIntegratedSpeakers(boolean hasIntegratedSpeakers) {
+        boolean oldHasIntegratedSpeakers = this.hasIntegratedSpeakers;
         this.hasIntegratedSpeakers = hasIntegratedSpeakers;
+        notifyObservers(ComputerAttribute.INTEGRATED_SPEAKERS, oldHasIntegratedSpeakers, hasIntegratedSpeakers);
     }
 
     public boolean getHasTouchpad() {
@@ -135,7 +166,9 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     }
 
     public void setHasTouchpad(boolean hasTouchpad) {
+        boolean oldHasTouchpad = this.hasTouchpad;
         this.hasTouchpad = hasTouchpad;
+        notifyObservers(ComputerAttribute.TOUCHPAD, oldHasTouchpad, hasTouchpad);
     }
 
     public boolean getHasTouchableScreen() {
@@ -143,7 +176,9 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     }
 
     public void setHasTouchableScreen(boolean hasTouchableScreen) {
+        boolean oldHasTouchableScreen = this.hasTouchableScreen;
         this.hasTouchableScreen = hasTouchableScreen;
+        notifyObservers(ComputerAttribute.TOUCHABLE_SCREEN, oldHasTouchableScreen, hasTouchableScreen);
     }
 
     public double getWeightInGrams() {
@@ -153,10 +188,13 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     public void setWeightInGrams(double weightInGrams) {
         if (weightInGrams <= 0.00 || weightInGrams > MAX_WEIGHT_IN_GRAMS) {
             LOGGER.info(WEIGHT_MESSAGE);
+            ValidationFailureEvent.emit(Laptop.class, WEIGHT_MESSAGE);
             System.exit(1);
         }
 
+        double oldWeightInGrams = this.weightInGrams;
         this.weightInGrams = weightInGrams;
+        notifyObservers(ComputerAttribute.WEIGHT_IN_GRAMS, oldWeightInGrams, weightInGrams);
     }
 
     public String getColor() {
@@ -166,10 +204,13 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
     public void setColor(String color) throws ZeroOrTooManyCharactersException {
         if (color.isEmpty() || color.length() > MAX_COLOR_NAME_LENGTH) {
             LOGGER.error(COLOR_NAME_MESSAGE);
+            ValidationFailureEvent.emit(Laptop.class, COLOR_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(COLOR_NAME_MESSAGE);
         }
 
+        String oldColor = this.color;
         this.color = color;
+        notifyObservers(ComputerAttribute.COLOR, oldColor, color);
     }
 
     public void touchTouchpad() {
@@ -180,8 +221,13 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
 
     @Override
     public void turnOn() {
+        long start = System.nanoTime();
+        LaptopTurnOnEvent event = new LaptopTurnOnEvent();
+        event.begin();
+        event.alreadyTurnedOn = this.isTurnedOn;
+
         if (!this.isTurnedOn) {
-            LOGGER.info("The laptop is started.");
+            EventJournal.record(Event.LAPTOP_STARTED, this);
             getProcessor().use();
             getMemory().use();
             getPorts().use();
@@ -189,7 +235,16 @@ public final class Laptop extends Computer implements Comparable<Laptop> {
             getGraphics().use();
             getScreen().use();
             getOperatingSystem().use();
+            setIsTurnedOn(true);
+        }
+
+        if (event.shouldCommit()) {
+            event.producer = producer;
+            event.model = model;
+            event.commit();
         }
+
+        TURN_ON_LATENCY.recordSince(start);
     }
 
     @Override
@@ -19,6 +19,9 @@ package com.solvd.computer;
 
 import com.solvd.computer.enums.*;
 import com.solvd.computer.exceptions.*;
+import com.solvd.computer.executor.ManagedExecutor;
+import com.solvd.computer.factory.ComponentFactory;
+import com.solvd.computer.factory.ComponentRegistry;
 import com.solvd.computer.interfaces.IConsume;
 import com.solvd.computer.interfaces.IFunction;
 import com.solvd.computer.interfaces.IPredicate;
@@ -26,10 +29,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.*;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -67,18 +67,19 @@ public final class Main {
                                        operatingSystem, screen, processor, graphics, memory,
                                        storage, ports, new BigDecimal("300.00"), false, true,
                                        true, true, true, true, true, true, 1500, "gray");
-            Laptop similarLaptop = new Laptop("Dell", "Latitude 7400 2-in-1", "Laptop",
-                                              operatingSystem, screen, processor, graphics, memory,
-                                              storage, ports, new BigDecimal("300.00"), false, true,
-                                              true, true, true, true, true, true, 1500, "gray");
-            Laptop anotherLaptop = new Laptop("Lenovo", "Latitude 7400 2-in-1", "Laptop",
-                                              operatingSystem, screen, anotherProcessor, graphics, memory,
-                                              storage, ports, new BigDecimal("300.00"), false, true,
-                                              true, true, true, true, true, true, 1500, "gray");
-            Laptop fourthLaptop = new Laptop("L", "La", "Lap",
-                                             operatingSystem, screen, anotherProcessor, graphics, memory,
-                                             storage, ports, new BigDecimal("1000.00"), false, true,
-                                             true, true, true, true, true, true, 1500, "gray");
+            Laptop similarLaptop = LaptopBuilder.from(laptop).build();
+            Laptop anotherLaptop = LaptopBuilder
+                    .from(laptop)
+                    .producer("Lenovo")
+                    .processor(anotherProcessor)
+                    .build();
+            Laptop fourthLaptop = LaptopBuilder
+                    .from(anotherLaptop)
+                    .producer("L")
+                    .model("La")
+                    .type("Lap")
+                    .priceInUSD(new BigDecimal("1000.00"))
+                    .build();
             List<Computer> laptops = new ArrayList<>();
             Set<Computer> uniqueLaptops;
             Deque<Computer> laptopsInDeque;
@@ -156,41 +157,27 @@ public final class Main {
                          + fourthLaptop.getComputerModel() + " " + fourthLaptop.getComputerType() + " "
                          + fourthLaptop.getPriceInUSD() + " USD");
 
-            Class<?> cpu = Class.forName("com.solvd.computer.CPU");
-            Field[] cpuDeclaredFields = cpu.getDeclaredFields();
-            Arrays
-                    .stream(cpuDeclaredFields)
-                    .forEach(field -> LOGGER.info("{} {} {}",
-                                                        field.accessFlags(), field.getType(), field.getName()));
-            Constructor<?>[] cpuDeclaredConstructors = cpu.getDeclaredConstructors();
-            Arrays
-                    .stream(cpuDeclaredConstructors)
-                    .forEach(constructor ->
-                            LOGGER.info("{} {} {} {}", constructor.accessFlags(), constructor.getName(),
-                                        Arrays.toString(constructor.getParameterTypes()),
-                                        Arrays.toString(constructor.getExceptionTypes())));
-            Method[] cpuDeclaredMethods = cpu.getDeclaredMethods();
-            Arrays
-                    .stream(cpuDeclaredMethods)
-                    .forEach(method -> LOGGER.info("{} {} {} {} {}", method.accessFlags(),
-                                                           method.getReturnType(), method.getName(),
-                                                           Arrays.toString(method.getParameterTypes()),
-                                                           Arrays.toString(method.getExceptionTypes())));
-            Constructor<?> constructor = Arrays
-                    .stream(CPU.class.getDeclaredConstructors())
-                    .filter(theConstructor -> theConstructor.getParameterTypes().length == 4)
-                    .toList()
-                    .getFirst();
-            CPU aCPU = (CPU) constructor.newInstance("Super CPU", 16, 10.00, true);
-            LOGGER.info("The CPU that is created using reflection has {} cores.",
+            CPUMetadata.FIELDS.forEach(LOGGER::info);
+            CPUMetadata.CONSTRUCTORS.forEach(LOGGER::info);
+            CPUMetadata.METHODS.forEach(LOGGER::info);
+            CPUMetadata.INTERFACES.forEach(LOGGER::info);
+            LOGGER.info("The laptop as a map: {}", LaptopMapper.toMap(laptop));
+            ComponentFactory<CPU> cpuFactory = ComponentRegistry.getFactory(CPU.class);
+            CPU aCPU = cpuFactory.create("Super CPU", 16, 10.00, true);
+            LOGGER.info("The CPU that is created by the ComponentFactory has {} cores.",
                         aCPU.getNumOfCores());
-            Method use = CPU.class.getDeclaredMethod("use");
-            use.invoke(aCPU);
-            Arrays
-                    .stream(CPU.class.getInterfaces())
-                    .forEach(theInterface -> LOGGER.info(theInterface.getName()));
+            cpuFactory.use(aCPU);
 
-            new Thread(new CustomRunnable()).start();
+            ManagedExecutor executor = ManagedExecutor.builder()
+                    .name("main-worker")
+                    .poolSize(2)
+                    .build();
+
+            try (executor) {
+                executor.execute(new CustomRunnable());
+            }
+
+            LOGGER.info(executor.getMetrics());
             new CustomThread().start();
         } catch (ZeroOrTooManyCharactersException ex1) {
             LOGGER.error("ZeroOrTooManyCharactersException is caught.");
@@ -204,16 +191,12 @@ public final class Main {
             LOGGER.error("ZeroOrTooManyUSDException is caught.");
         } catch (IOException ex6) {
             LOGGER.error("IOException is caught.");
-        } catch (ClassNotFoundException e) {
-            LOGGER.error("ClassNotFoundException is caught.");
         } catch (InvocationTargetException e) {
             LOGGER.error("InvocationTargetException is caught.");
         } catch (IllegalAccessException e) {
             LOGGER.error("IllegalAccessException is caught.");
         } catch (NoSuchMethodException e) {
             LOGGER.error("NoSuchMethodException is caught.");
-        } catch (InstantiationException e) {
-            LOGGER.error("InstantiationException is caught.");
         }
     }
 }
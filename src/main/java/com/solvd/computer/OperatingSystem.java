@@ -20,11 +20,18 @@ package com.solvd.computer;
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.interfaces.IOperate;
 import com.solvd.computer.interfaces.IUse;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Objects;
 
+@DomainModel
 public class OperatingSystem implements IOperate, IUse {
     private final static int OPERATING_SYSTEM_MASK = 40;
     private final static int MAX_OPERATING_SYSTEM_NAME_LENGTH = 100;
@@ -32,6 +39,7 @@ public class OperatingSystem implements IOperate, IUse {
             "The operating system name length should not be equal to 0 "
             + "or exceed " + MAX_OPERATING_SYSTEM_NAME_LENGTH + " characters.";
     private final static Logger LOGGER = LogManager.getLogger(OperatingSystem.class);
+    private final static Counter CREATED = MetricsRegistry.counter("operatingSystem.created");
 
     private String name = "";
 
@@ -40,10 +48,16 @@ public class OperatingSystem implements IOperate, IUse {
     public OperatingSystem(String name) throws ZeroOrTooManyCharactersException {
         if (name.isEmpty() || name.length() > MAX_OPERATING_SYSTEM_NAME_LENGTH) {
             LOGGER.error(OPERATING_SYSTEM_NAME_MESSAGE);
+            ValidationFailureEvent.emit(OperatingSystem.class, OPERATING_SYSTEM_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(OPERATING_SYSTEM_NAME_MESSAGE);
         }
 
         this.name = name;
+        CREATED.increment();
+    }
+
+    public static int getMaxNameLength() {
+        return MAX_OPERATING_SYSTEM_NAME_LENGTH;
     }
 
     public String getName() {
@@ -53,6 +67,7 @@ public class OperatingSystem implements IOperate, IUse {
     public void setName(String name) throws ZeroOrTooManyCharactersException {
         if (name.isEmpty() || name.length() > MAX_OPERATING_SYSTEM_NAME_LENGTH) {
             LOGGER.error(OPERATING_SYSTEM_NAME_MESSAGE);
+            ValidationFailureEvent.emit(OperatingSystem.class, OPERATING_SYSTEM_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(OPERATING_SYSTEM_NAME_MESSAGE);
         }
 
@@ -65,12 +80,12 @@ public class OperatingSystem implements IOperate, IUse {
 
     @Override
     public void use() {
-        LOGGER.info("The operating system is used.");
+        EventJournal.record(Event.OPERATING_SYSTEM_USED, this);
     }
 
     @Override
     public void useTouchpad() {
-        LOGGER.info("The touchpad is used.");
+        EventJournal.record(Event.TOUCHPAD_USED, this);
     }
 
     @Override
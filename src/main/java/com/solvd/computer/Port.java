@@ -18,11 +18,18 @@
 package com.solvd.computer;
 
 import com.solvd.computer.interfaces.IUse;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Objects;
 
+@DomainModel
 public class Port implements IUse {
     private final static int PORT_MASK = 50;
     private final static int MAX_NUM_OF_USB_TYPE_A_PORTS = 4;
@@ -47,6 +54,7 @@ public class Port implements IUse {
             "The number of the integrated USB Type C ports should not be less than 0 "
             + "or exceed " + MAX_NUM_OF_USB_TYPE_C_PORTS + " ports.";
     private final static Logger LOGGER = LogManager.getLogger(Port.class);
+    private final static Counter CREATED = MetricsRegistry.counter("ports.created");
 
     private int numOfUSBTypeA = 0;
     private int numOfMicroSD = 0;
@@ -60,27 +68,32 @@ public class Port implements IUse {
                 int numOfHeadMicCombo, int numOfUSBTypeC) {
         if (numOfUSBTypeA < 0 || numOfUSBTypeA > MAX_NUM_OF_USB_TYPE_A_PORTS) {
             LOGGER.info(USB_TYPE_A_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, USB_TYPE_A_MESSAGE);
             System.exit(1);
         }
 
         if (numOfMicroSD < 0 || numOfMicroSD > MAX_NUM_OF_MICRO_SD_PORTS) {
             LOGGER.info(MICRO_SD_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, MICRO_SD_MESSAGE);
             System.exit(1);
         }
 
         if (numOfHDMI < 0 || numOfHDMI > MAX_NUM_OF_HDMI_PORTS) {
             LOGGER.info(HDMI_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, HDMI_MESSAGE);
             System.exit(1);
         }
 
         if (numOfHeadMicCombo < 0
                 || numOfHeadMicCombo > MAX_NUM_OF_HEAD_AND_MIC_COMBO_PORTS) {
             LOGGER.info(HEAD_AND_MIC_COMBO_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, HEAD_AND_MIC_COMBO_MESSAGE);
             System.exit(1);
         }
 
         if (numOfUSBTypeC < 0 || numOfUSBTypeC > MAX_NUM_OF_USB_TYPE_C_PORTS) {
             LOGGER.info(USB_TYPE_C_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, USB_TYPE_C_MESSAGE);
             System.exit(1);
         }
 
@@ -89,6 +102,27 @@ public class Port implements IUse {
         this.numOfHDMI = numOfHDMI;
         this.numOfHeadMicCombo = numOfHeadMicCombo;
         this.numOfUSBTypeC = numOfUSBTypeC;
+        CREATED.increment();
+    }
+
+    public static int getMaxNumOfUSBTypeA() {
+        return MAX_NUM_OF_USB_TYPE_A_PORTS;
+    }
+
+    public static int getMaxNumOfMicroSD() {
+        return MAX_NUM_OF_MICRO_SD_PORTS;
+    }
+
+    public static int getMaxNumOfHDMI() {
+        return MAX_NUM_OF_HDMI_PORTS;
+    }
+
+    public static int getMaxNumOfHeadMicCombo() {
+        return MAX_NUM_OF_HEAD_AND_MIC_COMBO_PORTS;
+    }
+
+    public static int getMaxNumOfUSBTypeC() {
+        return MAX_NUM_OF_USB_TYPE_C_PORTS;
     }
 
     public int getNumOfUSBTypeA() {
@@ -98,6 +132,7 @@ public class Port implements IUse {
     public void setNumOfUSBTypeA(int numOfUSBTypeA) {
         if (numOfUSBTypeA < 0 || numOfUSBTypeA > MAX_NUM_OF_USB_TYPE_A_PORTS) {
             LOGGER.info(USB_TYPE_A_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, USB_TYPE_A_MESSAGE);
             System.exit(1);
         }
 
@@ -111,6 +146,7 @@ public class Port implements IUse {
     public void setNumOfMicroSD(int numOfMicroSD) {
         if (numOfMicroSD < 0 || numOfMicroSD > MAX_NUM_OF_MICRO_SD_PORTS) {
             LOGGER.info(MICRO_SD_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, MICRO_SD_MESSAGE);
             System.exit(1);
         }
 
@@ -124,6 +160,7 @@ public class Port implements IUse {
     public void setNumOfHDMI(int numOfHDMI) {
         if (numOfHDMI < 0 || numOfHDMI > MAX_NUM_OF_HDMI_PORTS) {
             LOGGER.info(HDMI_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, HDMI_MESSAGE);
             System.exit(1);
         }
 
@@ -138,6 +175,7 @@ public class Port implements IUse {
         if (numOfHeadMicCombo < 0
                 || numOfHeadMicCombo > MAX_NUM_OF_HEAD_AND_MIC_COMBO_PORTS) {
             LOGGER.info(HEAD_AND_MIC_COMBO_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, HEAD_AND_MIC_COMBO_MESSAGE);
             System.exit(1);
         }
 
@@ -151,6 +189,7 @@ public class Port implements IUse {
     public void setNumOfUSBTypeC(int numOfUSBTypeC) {
         if (numOfUSBTypeC < 0 || numOfUSBTypeC > MAX_NUM_OF_USB_TYPE_C_PORTS) {
             LOGGER.info(USB_TYPE_C_MESSAGE);
+            ValidationFailureEvent.emit(Port.class, USB_TYPE_C_MESSAGE);
             System.exit(1);
         }
 
@@ -159,7 +198,7 @@ public class Port implements IUse {
 
     @Override
     public void use() {
-        LOGGER.info("The ports are used.");
+        EventJournal.record(Event.PORTS_USED, this);
     }
 
     @Override
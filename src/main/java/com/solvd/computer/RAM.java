@@ -20,11 +20,18 @@ package com.solvd.computer;
 import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.interfaces.IUse;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Objects;
 
+@DomainModel
 public class RAM implements IUse {
     private final static int RAM_MASK = 60;
     private final static int MAX_MEMORY_SIZE_IN_GIGABYTES = 1024;
@@ -40,6 +47,7 @@ public class RAM implements IUse {
             "The length of the RAM type name should not be equal to 0 "
             + "or exceed " + MAX_RAM_TYPE_NAME_LENGTH + " characters.";
     private final static Logger LOGGER = LogManager.getLogger(RAM.class);
+    private final static Counter CREATED = MetricsRegistry.counter("ram.created");
 
     private int memorySizeInGBs = 0;
     private int clockRateInMHz = 0;
@@ -51,22 +59,38 @@ public class RAM implements IUse {
             throws NoOneOrTooManyHzException, ZeroOrTooManyCharactersException {
         if (memorySizeInGBs <= 0 || memorySizeInGBs > MAX_MEMORY_SIZE_IN_GIGABYTES) {
             LOGGER.info(MEMORY_SIZE_MESSAGE);
+            ValidationFailureEvent.emit(RAM.class, MEMORY_SIZE_MESSAGE);
             System.exit(1);
         }
 
         if (clockRateInMHz <= 0 || clockRateInMHz > MAX_CLOCK_RATE_IN_MHZ) {
             LOGGER.error(CLOCK_RATE_MESSAGE);
+            ValidationFailureEvent.emit(RAM.class, CLOCK_RATE_MESSAGE);
             throw new NoOneOrTooManyHzException(CLOCK_RATE_MESSAGE);
         }
 
         if (type.isEmpty() || type.length() > MAX_RAM_TYPE_NAME_LENGTH) {
             LOGGER.error(RAM_TYPE_NAME_MESSAGE);
+            ValidationFailureEvent.emit(RAM.class, RAM_TYPE_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(RAM_TYPE_NAME_MESSAGE);
         }
 
         this.memorySizeInGBs = memorySizeInGBs;
         this.clockRateInMHz = clockRateInMHz;
         this.type = type;
+        CREATED.increment();
+    }
+
+    public static int getMaxMemorySizeInGBs() {
+        return MAX_MEMORY_SIZE_IN_GIGABYTES;
+    }
+
+    public static int getMaxClockRateInMHz() {
+        return MAX_CLOCK_RATE_IN_MHZ;
+    }
+
+    public static int getMaxTypeNameLength() {
+        return MAX_RAM_TYPE_NAME_LENGTH;
     }
 
     public int getMemorySizeInGBs() {
@@ -76,6 +100,7 @@ public class RAM implements IUse {
     public void setMemorySizeInGBs(int memorySizeInGBs) {
         if (memorySizeInGBs <= 0 || memorySizeInGBs > MAX_MEMORY_SIZE_IN_GIGABYTES) {
             LOGGER.info(MEMORY_SIZE_MESSAGE);
+            ValidationFailureEvent.emit(RAM.class, MEMORY_SIZE_MESSAGE);
             System.exit(1);
         }
 
@@ -90,6 +115,7 @@ public class RAM implements IUse {
             throws NoOneOrTooManyHzException {
         if (clockRateInMHz <= 0 || clockRateInMHz > MAX_CLOCK_RATE_IN_MHZ) {
             LOGGER.error(CLOCK_RATE_MESSAGE);
+            ValidationFailureEvent.emit(RAM.class, CLOCK_RATE_MESSAGE);
             throw new NoOneOrTooManyHzException(CLOCK_RATE_MESSAGE);
         }
 
@@ -103,6 +129,7 @@ public class RAM implements IUse {
     public void setType(String type) throws ZeroOrTooManyCharactersException {
         if (type.isEmpty() || type.length() > MAX_RAM_TYPE_NAME_LENGTH) {
             LOGGER.error(RAM_TYPE_NAME_MESSAGE);
+            ValidationFailureEvent.emit(RAM.class, RAM_TYPE_NAME_MESSAGE);
             throw new ZeroOrTooManyCharactersException(RAM_TYPE_NAME_MESSAGE);
         }
 
@@ -111,7 +138,7 @@ public class RAM implements IUse {
 
     @Override
     public void use() {
-        LOGGER.info("The RAM is used.");
+        EventJournal.record(Event.RAM_USED, this);
     }
 
     @Override
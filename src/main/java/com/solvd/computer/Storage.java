@@ -19,11 +19,18 @@ package com.solvd.computer;
 
 import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
 import com.solvd.computer.interfaces.IUse;
+import com.solvd.computer.jfr.ValidationFailureEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import com.solvd.computer.model.DomainModel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Objects;
 
+@DomainModel
 public class Storage implements IUse {
     private final static int STORAGE_MASK = 70;
     private final static int MAX_SIZE_IN_GIGABYTES = 43008;
@@ -35,6 +42,7 @@ public class Storage implements IUse {
             "The length of the storage type name should not be equal to 0 "
             + "or exceed " + MAX_TYPE_NAME_LENGTH + " characters.";
     private final static Logger LOGGER = LogManager.getLogger(Storage.class);
+    private final static Counter CREATED = MetricsRegistry.counter("storage.created");
 
     private int sizeInGBs = 0;
     private String type = "";
@@ -45,16 +53,27 @@ public class Storage implements IUse {
             throws ZeroOrTooManyCharactersException {
         if (sizeInGBs <= 0 || sizeInGBs > MAX_SIZE_IN_GIGABYTES) {
             LOGGER.info(SIZE_IN_GIGABYTES_MESSAGE);
+            ValidationFailureEvent.emit(Storage.class, SIZE_IN_GIGABYTES_MESSAGE);
             System.exit(1);
         }
 
         if (type.isEmpty() || type.length() > MAX_TYPE_NAME_LENGTH) {
             LOGGER.error(TYPE_NAME_LENGTH_MESSAGE);
+            ValidationFailureEvent.emit(Storage.class, TYPE_NAME_LENGTH_MESSAGE);
             throw new ZeroOrTooManyCharactersException(TYPE_NAME_LENGTH_MESSAGE);
         }
 
         this.sizeInGBs = sizeInGBs;
         this.type = type;
+        CREATED.increment();
+    }
+
+    public static int getMaxSizeInGBs() {
+        return MAX_SIZE_IN_GIGABYTES;
+    }
+
+    public static int getMaxTypeNameLength() {
+        return MAX_TYPE_NAME_LENGTH;
     }
 
     public int getSizeInGBs() {
@@ -64,6 +83,7 @@ public class Storage implements IUse {
     public void setSizeInGBs(int sizeInGBs) {
         if (sizeInGBs <= 0 || sizeInGBs > MAX_SIZE_IN_GIGABYTES) {
             LOGGER.info(SIZE_IN_GIGABYTES_MESSAGE);
+            ValidationFailureEvent.emit(Storage.class, SIZE_IN_GIGABYTES_MESSAGE);
             System.exit(1);
         }
 
@@ -76,6 +96,7 @@ public class Storage implements IUse {
 
     public void setType(String type) throws ZeroOrTooManyCharactersException {
         if (type.isEmpty() || type.length() > MAX_TYPE_NAME_LENGTH) {
+            ValidationFailureEvent.emit(Storage.class, TYPE_NAME_LENGTH_MESSAGE);
             throw new ZeroOrTooManyCharactersException(TYPE_NAME_LENGTH_MESSAGE);
         }
 
@@ -84,7 +105,7 @@ public class Storage implements IUse {
 
     @Override
     public void use() {
-        LOGGER.info("The storage is used.");
+        EventJournal.record(Event.STORAGE_USED, this);
     }
 
     @Override
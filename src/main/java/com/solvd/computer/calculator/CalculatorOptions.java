@@ -0,0 +1,169 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The CalculatorOptions class holds the command line options of the
+ * WordCalculator: the inputs and the output, what is counted and how the
+ * result is ordered and written. The result cache is off unless a directory
+ * is given with {@code --cache-dir}.
+ */
+public final class CalculatorOptions {
+    private final static Path DEFAULT_INPUT = Path.of("src/main/resources/text.txt");
+    private final static Path DEFAULT_OUTPUT = Path.of("logs/result.txt");
+    private final static long DEFAULT_CACHE_SIZE_IN_MEGABYTES = 256;
+    private final static String USAGE =
+            "Usage: WordCalculator [--input <file>]... [--output <file>] "
+            + "[--ngrams <n> | --cooccurrences <window>] "
+            + "[--case-folding] [--order none|count|lexicographic] [--format text|tsv|binary] "
+            + "[--cache-dir <directory>] [--cache-size <megabytes>]";
+
+    private final List<Path> inputs;
+    private final Path output;
+    private final Mode mode;
+    private final int size;
+    private final boolean caseFolding;
+    private final ResultWriter.Order order;
+    private final ResultWriter.Format format;
+    private final Path cacheDirectory;
+    private final long cacheSizeInBytes;
+
+    public CalculatorOptions(List<Path> inputs, Path output, Mode mode, int size,
+                             boolean caseFolding, ResultWriter.Order order, ResultWriter.Format format,
+                             Path cacheDirectory, long cacheSizeInBytes) {
+        this.inputs = List.copyOf(inputs);
+        this.output = output;
+        this.mode = mode;
+        this.size = size;
+        this.caseFolding = caseFolding;
+        this.order = order;
+        this.format = format;
+        this.cacheDirectory = cacheDirectory;
+        this.cacheSizeInBytes = cacheSizeInBytes;
+    }
+
+    public static CalculatorOptions parse(String[] args) {
+        List<Path> inputs = new ArrayList<>();
+        Path output = DEFAULT_OUTPUT;
+        Mode mode = Mode.WORDS;
+        int size = 1;
+        boolean caseFolding = false;
+        ResultWriter.Order order = ResultWriter.Order.NONE;
+        ResultWriter.Format format = ResultWriter.Format.TEXT;
+        Path cacheDirectory = null;
+        long cacheSizeInMegabytes = DEFAULT_CACHE_SIZE_IN_MEGABYTES;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--input" -> inputs.add(Path.of(value(args, ++i)));
+                case "--output" -> output = Path.of(value(args, ++i));
+                case "--ngrams" -> {
+                    mode = Mode.NGRAMS;
+                    size = Integer.parseInt(value(args, ++i));
+                }
+                case "--cooccurrences" -> {
+                    mode = Mode.COOCCURRENCES;
+                    size = Integer.parseInt(value(args, ++i));
+                }
+                case "--case-folding" -> caseFolding = true;
+                case "--order" -> order = ResultWriter.Order.valueOf(
+                        value(args, ++i).toUpperCase(Locale.ROOT));
+                case "--format" -> format = ResultWriter.Format.valueOf(
+                        value(args, ++i).toUpperCase(Locale.ROOT));
+                case "--cache-dir" -> cacheDirectory = Path.of(value(args, ++i));
+                case "--cache-size" -> cacheSizeInMegabytes = Long.parseLong(value(args, ++i));
+                default -> throw new IllegalArgumentException(USAGE);
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            inputs.add(DEFAULT_INPUT);
+        }
+
+        return new CalculatorOptions(inputs, output, mode, size, caseFolding, order, format,
+                                     cacheDirectory, cacheSizeInMegabytes << 20);
+    }
+
+    public List<Path> getInputs() {
+        return inputs;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isCaseFolding() {
+        return caseFolding;
+    }
+
+    public ResultWriter.Order getOrder() {
+        return order;
+    }
+
+    public ResultWriter.Format getFormat() {
+        return format;
+    }
+
+    public Path getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public long getCacheSizeInBytes() {
+        return cacheSizeInBytes;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheDirectory != null;
+    }
+
+    /**
+     * Describes the options that affect the result, the input and output
+     * paths and the cache settings are not part of the description.
+     */
+    public String describe() {
+        return "tokenizer=unicode,caseFolding=" + caseFolding + ",mode=" + mode + ",size=" + size
+               + ",order=" + order + ",format=" + format;
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(USAGE);
+        }
+
+        return args[index];
+    }
+
+    public enum Mode {
+        WORDS,
+        NGRAMS,
+        COOCCURRENCES
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import com.solvd.computer.jfr.WordCalculatorPhaseEvent;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The Corpus class tokenizes the input files into a shared vocabulary. Plain
+ * files are memory-mapped and split at ASCII whitespace into parts that are
+ * tokenized in parallel, compressed files are tokenized while they are being
+ * decompressed. Depending on the mode the corpus keeps either the whole
+ * sequence of word IDs or only the number of occurrences of every word.
+ */
+public final class Corpus {
+    private final static long MIN_PART_SIZE = 1 << 20;
+    private final static long MAX_PART_SIZE = 1 << 30;
+    private final static int PARTS_PER_THREAD = 4;
+    private final static int READ_BUFFER_SIZE = 1 << 16;
+    private final static int MAX_SEQUENCE_LENGTH = Integer.MAX_VALUE - 8;
+    private final static Histogram READ_LATENCY =
+            MetricsRegistry.histogram("wordCalculator.read.latency");
+    private final static Histogram MERGE_LATENCY =
+            MetricsRegistry.histogram("wordCalculator.merge.latency");
+    private final static Counter BYTES = MetricsRegistry.counter("wordCalculator.bytes");
+    private final static Counter TOKENS = MetricsRegistry.counter("wordCalculator.tokens");
+
+    private final Vocabulary vocabulary;
+    private final int[] ids;
+    private final long[] counts;
+
+    private Corpus(Vocabulary vocabulary, int[] ids, long[] counts) {
+        this.vocabulary = vocabulary;
+        this.ids = ids;
+        this.counts = counts;
+    }
+
+    public static Corpus read(List<Path> inputs, boolean caseFolding, boolean keepSequence)
+            throws IOException {
+        List<Part> parts = new ArrayList<>();
+
+        try {
+            for (Path input : inputs) {
+                long start = System.nanoTime();
+                WordCalculatorPhaseEvent event = new WordCalculatorPhaseEvent();
+                event.begin();
+                List<Part> inputParts = isCompressed(input) || !Files.isRegularFile(input)
+                        ? List.of(readStream(input, caseFolding, keepSequence))
+                        : readMapped(input, caseFolding, keepSequence);
+                parts.addAll(inputParts);
+                event.end();
+                READ_LATENCY.recordSince(start);
+                long bytes = inputParts.stream().mapToLong(part -> part.bytes).sum();
+                long tokens = inputParts.stream().mapToLong(part -> part.tokens).sum();
+                BYTES.add(bytes);
+                TOKENS.add(tokens);
+
+                if (event.shouldCommit()) {
+                    event.phase = WordCalculatorPhaseEvent.READ;
+                    event.file = input.toString();
+                    event.bytes = Files.isRegularFile(input) ? Files.size(input) : bytes;
+                    event.tokens = tokens;
+                    event.commit();
+                }
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        return merge(parts, keepSequence);
+    }
+
+    public Vocabulary getVocabulary() {
+        return vocabulary;
+    }
+
+    public int[] getIds() {
+        return ids;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    private static Part readStream(Path input, boolean caseFolding, boolean keepSequence)
+            throws IOException {
+        Part part = new Part(keepSequence);
+        Utf8Tokenizer tokenizer = new Utf8Tokenizer(part.vocabulary, caseFolding, part);
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        WordCalculatorPhaseEvent event = new WordCalculatorPhaseEvent();
+        event.begin();
+
+        try (InputStream in = open(input)) {
+            int count;
+
+            while ((count = in.read(buffer)) >= 0) {
+                tokenizer.feed(ByteBuffer.wrap(buffer, 0, count));
+                part.bytes += count;
+            }
+        }
+
+        tokenizer.finish();
+        commitTokenize(event, input, part);
+        return part;
+    }
+
+    private static List<Part> readMapped(Path input, boolean caseFolding, boolean keepSequence)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long[] boundaries = split(channel);
+
+            return IntStream.range(0, boundaries.length - 1)
+                    .parallel()
+                    .mapToObj(i -> {
+                        Part part = new Part(keepSequence);
+                        long from = boundaries[i];
+                        long to = boundaries[i + 1];
+
+                        if (from < to) {
+                            Utf8Tokenizer tokenizer =
+                                    new Utf8Tokenizer(part.vocabulary, caseFolding, part);
+                            WordCalculatorPhaseEvent event = new WordCalculatorPhaseEvent();
+                            event.begin();
+
+                            try {
+                                tokenizer.feed(channel.map(FileChannel.MapMode.READ_ONLY,
+                                                           from, to - from));
+                            } catch (IOException ex) {
+                                throw new UncheckedIOException(ex);
+                            }
+
+                            tokenizer.finish();
+                            part.bytes = to - from;
+                            commitTokenize(event, input, part);
+                        }
+
+                        return part;
+                    })
+                    .toList();
+        }
+    }
+
+    private static long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int threads = Runtime.getRuntime().availableProcessors() * PARTS_PER_THREAD;
+        long partSize = Math.min(MAX_PART_SIZE,
+                                 Math.max(MIN_PART_SIZE, (size + threads - 1) / threads));
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long boundary = 0;
+
+        while (boundary < size) {
+            boundary = Math.min(size, nextWhitespace(channel, boundary + partSize, size));
+
+            if (boundary - boundaries.getLast() > Integer.MAX_VALUE) {
+                throw new IOException("No whitespace within " + Integer.MAX_VALUE
+                                      + " bytes at offset " + boundaries.getLast());
+            }
+
+            boundaries.add(boundary);
+        }
+
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextWhitespace(FileChannel channel, long position, long size)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+        while (position < size) {
+            buffer.clear();
+            int count = channel.read(buffer, position);
+
+            if (count < 0) {
+                break;
+            }
+
+            for (int i = 0; i < count; i++) {
+                byte value = buffer.get(i);
+
+                if (value == ' ' || value == '\n' || value == '\r' || value == '\t') {
+                    return position + i;
+                }
+            }
+
+            position += count;
+        }
+
+        return size;
+    }
+
+    private static void commitTokenize(WordCalculatorPhaseEvent event, Path input, Part part) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.phase = WordCalculatorPhaseEvent.TOKENIZE;
+            event.file = input.toString();
+            event.bytes = part.bytes;
+            event.tokens = part.tokens;
+            event.entries = part.vocabulary.size();
+            event.commit();
+        }
+    }
+
+    private static Corpus merge(List<Part> parts, boolean keepSequence) throws IOException {
+        long start = System.nanoTime();
+        WordCalculatorPhaseEvent event = new WordCalculatorPhaseEvent();
+        event.begin();
+        Corpus corpus = keepSequence ? mergeSequences(parts) : mergeCounts(parts);
+        event.end();
+        MERGE_LATENCY.recordSince(start);
+
+        if (event.shouldCommit()) {
+            event.phase = WordCalculatorPhaseEvent.COUNT;
+            event.bytes = parts.stream().mapToLong(part -> part.bytes).sum();
+            event.tokens = parts.stream().mapToLong(part -> part.tokens).sum();
+            event.entries = corpus.vocabulary.size();
+            event.commit();
+        }
+
+        return corpus;
+    }
+
+    private static Corpus mergeSequences(List<Part> parts) throws IOException {
+        Vocabulary vocabulary = new Vocabulary();
+        long length = parts.stream().mapToLong(part -> part.length).sum();
+
+        if (length > MAX_SEQUENCE_LENGTH) {
+            throw tooManyTokens(length);
+        }
+
+        int[] ids = new int[(int) length];
+        int position = 0;
+
+        for (Part part : parts) {
+            int[] mapping = part.vocabulary.mergeInto(vocabulary);
+
+            for (int i = 0; i < part.length; i++) {
+                ids[position++] = mapping[part.ids[i]];
+            }
+        }
+
+        return new Corpus(vocabulary, ids, null);
+    }
+
+    private static Corpus mergeCounts(List<Part> parts) {
+        Vocabulary vocabulary = new Vocabulary();
+        long[] counts = new long[0];
+
+        for (Part part : parts) {
+            int[] mapping = part.vocabulary.mergeInto(vocabulary);
+            counts = Arrays.copyOf(counts, vocabulary.size());
+
+            for (int i = 0; i < mapping.length; i++) {
+                counts[mapping[i]] += part.counts[i];
+            }
+        }
+
+        return new Corpus(vocabulary, null, counts);
+    }
+
+    private static IOException tooManyTokens(long length) {
+        return new IOException("The sequence of " + length + " tokens is longer than "
+                               + MAX_SEQUENCE_LENGTH + ", only words can be counted.");
+    }
+
+    static boolean isCompressed(Path input) {
+        return input.getFileName().toString().endsWith(".gz");
+    }
+
+    static InputStream open(Path input) throws IOException {
+        if (isCompressed(input)) {
+            return ParallelGzipInputStream.open(input);
+        }
+
+        return Files.newInputStream(input);
+    }
+
+    private static final class Part implements IntConsumer {
+        private final static int INITIAL_SIZE = 1024;
+
+        private final Vocabulary vocabulary = new Vocabulary();
+        private final boolean keepSequence;
+        private int[] ids;
+        private int length = 0;
+        private long[] counts;
+        private long bytes = 0;
+        private long tokens = 0;
+
+        Part(boolean keepSequence) {
+            this.keepSequence = keepSequence;
+            this.ids = keepSequence ? new int[INITIAL_SIZE] : null;
+            this.counts = keepSequence ? null : new long[INITIAL_SIZE];
+        }
+
+        @Override
+        public void accept(int id) {
+            tokens++;
+
+            if (keepSequence) {
+                if (length == ids.length) {
+                    if (length == MAX_SEQUENCE_LENGTH) {
+                        throw new UncheckedIOException(tooManyTokens(tokens));
+                    }
+
+                    ids = Arrays.copyOf(ids, (int) Math.min(2L * length, MAX_SEQUENCE_LENGTH));
+                }
+
+                ids[length++] = id;
+            } else {
+                if (id == counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+
+                counts[id]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+/**
+ * The IndexSorter class sorts an array of indices with a primitive comparator,
+ * so that sorting millions of entries neither boxes the indices nor creates
+ * entry objects. The sort is a stable top-down merge sort.
+ */
+public final class IndexSorter {
+    private final static int INSERTION_SORT_THRESHOLD = 16;
+
+    private IndexSorter() {}
+
+    public static void sort(int[] indices, IndexComparator comparator) {
+        int[] buffer = indices.clone();
+        mergeSort(buffer, indices, 0, indices.length, comparator);
+    }
+
+    private static void mergeSort(int[] source, int[] target, int from, int to,
+                                  IndexComparator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(target, from, to, comparator);
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSort(target, source, from, middle, comparator);
+        mergeSort(target, source, middle, to, comparator);
+
+        if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, from, target, from, to - from);
+            return;
+        }
+
+        for (int i = from, left = from, right = middle; i < to; i++) {
+            if (right >= to || left < middle
+                    && comparator.compare(source[left], source[right]) <= 0) {
+                target[i] = source[left++];
+            } else {
+                target[i] = source[right++];
+            }
+        }
+    }
+
+    private static void insertionSort(int[] indices, int from, int to,
+                                      IndexComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int index = indices[i];
+            int j = i - 1;
+
+            while (j >= from && comparator.compare(indices[j], index) > 0) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+
+            indices[j + 1] = index;
+        }
+    }
+
+    @FunctionalInterface
+    public interface IndexComparator {
+        int compare(int first, int second);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import java.util.Arrays;
+
+/**
+ * The LongCounter class is an open addressing hash table from non-negative
+ * long keys to long counts. It keeps keys and counts in two primitive arrays
+ * so that counting never boxes. It is not thread-safe, each thread counts into
+ * its own instance and the instances are merged afterwards.
+ */
+public final class LongCounter {
+    private final static long EMPTY = -1L;
+    private final static int DEFAULT_CAPACITY = 1024;
+    private final static double MAX_LOAD_FACTOR = 0.5;
+
+    private long[] keys;
+    private long[] counts;
+    private int size = 0;
+
+    public LongCounter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongCounter(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    public void add(long key, long delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("The key should not be negative: " + key);
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                counts[index] += delta;
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        counts[index] = delta;
+        size++;
+
+        if (size > keys.length * MAX_LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    public void increment(long key) {
+        add(key, 1L);
+    }
+
+    public long get(long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return counts[index];
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return 0L;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public LongCounter merge(LongCounter other) {
+        LongCounter smaller = other.size < size ? other : this;
+        LongCounter larger = smaller == this ? other : this;
+
+        for (int i = 0; i < smaller.keys.length; i++) {
+            if (smaller.keys[i] != EMPTY) {
+                larger.add(smaller.keys[i], smaller.counts[i]);
+            }
+        }
+
+        return larger;
+    }
+
+    public void forEach(KeyCountConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    public void copyTo(long[] targetKeys, long[] targetCounts) {
+        int position = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                targetKeys[position] = keys[i];
+                targetCounts[position] = counts[i];
+                position++;
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new long[oldCounts.length * 2];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                add(oldKeys[i], oldCounts[i]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface KeyCountConsumer {
+        void accept(long key, long count);
+    }
+}
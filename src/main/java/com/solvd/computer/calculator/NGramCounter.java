@@ -0,0 +1,150 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import java.util.stream.IntStream;
+
+/**
+ * The NGramCounter class counts n-grams and within-window co-occurrences of
+ * words. Every word is replaced with its ID from the shared vocabulary and an
+ * n-gram is packed into a single long key, n IDs of {@code 63 / n} bits each.
+ * The token sequence is split into chunks that are counted on the common
+ * fork-join pool and merged at the end.
+ */
+public final class NGramCounter {
+    private final static int MAX_N = 6;
+    private final static int PAIR_BITS = 31;
+    private final static int CHUNKS_PER_THREAD = 4;
+    private final static int MAX_INITIAL_CAPACITY = 1 << 16;
+    private final static String N_MESSAGE =
+            "The n-gram size should not be less than 1 or exceed " + MAX_N + ".";
+    private final static String WINDOW_MESSAGE =
+            "The co-occurrence window should not be less than 1.";
+
+    private final Vocabulary vocabulary;
+
+    public NGramCounter(Vocabulary vocabulary) {
+        this.vocabulary = vocabulary;
+    }
+
+    public Vocabulary getVocabulary() {
+        return vocabulary;
+    }
+
+    public LongCounter countNGrams(int[] ids, int n) {
+        if (n < 1 || n > MAX_N) {
+            throw new IllegalArgumentException(N_MESSAGE);
+        }
+
+        int bits = bitsPerId(n);
+        checkVocabularySize(bits);
+        int last = ids.length - n + 1;
+
+        return countInChunks(last, (counter, from, to) -> {
+            for (int i = from; i < to; i++) {
+                long key = 0L;
+
+                for (int j = 0; j < n; j++) {
+                    key = (key << bits) | ids[i + j];
+                }
+
+                counter.increment(key);
+            }
+        });
+    }
+
+    public LongCounter countCooccurrences(int[] ids, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException(WINDOW_MESSAGE);
+        }
+
+        checkVocabularySize(PAIR_BITS);
+
+        return countInChunks(ids.length, (counter, from, to) -> {
+            for (int i = from; i < to; i++) {
+                int end = Math.min(i + window, ids.length - 1);
+
+                for (int j = i + 1; j <= end; j++) {
+                    int first = Math.min(ids[i], ids[j]);
+                    int second = Math.max(ids[i], ids[j]);
+                    counter.increment(((long) first << PAIR_BITS) | second);
+                }
+            }
+        });
+    }
+
+    public String decodeNGram(long key, int n) {
+        int bits = bitsPerId(n);
+        long mask = (1L << bits) - 1;
+        String[] words = new String[n];
+
+        for (int j = n - 1; j >= 0; j--) {
+            words[j] = vocabulary.word((int) (key & mask));
+            key >>>= bits;
+        }
+
+        return String.join(" ", words);
+    }
+
+    public String decodeCooccurrence(long key) {
+        long mask = (1L << PAIR_BITS) - 1;
+
+        return vocabulary.word((int) (key >>> PAIR_BITS)) + " "
+               + vocabulary.word((int) (key & mask));
+    }
+
+    private static int bitsPerId(int n) {
+        return Math.min(PAIR_BITS, (Long.SIZE - 1) / n);
+    }
+
+    private void checkVocabularySize(int bits) {
+        if (vocabulary.size() > 1L << bits) {
+            throw new IllegalStateException("The vocabulary of " + vocabulary.size()
+                                            + " words does not fit into " + bits
+                                            + " bits per word.");
+        }
+    }
+
+    private static LongCounter countInChunks(int length, ChunkCounter chunkCounter) {
+        if (length <= 0) {
+            return new LongCounter();
+        }
+
+        int chunks = Math.min(length,
+                              Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD);
+        int chunkSize = (length + chunks - 1) / chunks;
+
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    int from = chunk * chunkSize;
+                    int to = Math.min(from + chunkSize, length);
+                    LongCounter counter = new LongCounter(
+                            Math.min(Math.max(to - from, 0), MAX_INITIAL_CAPACITY));
+                    chunkCounter.count(counter, from, to);
+                    return counter;
+                })
+                .reduce(LongCounter::merge)
+                .orElseGet(LongCounter::new);
+    }
+
+    @FunctionalInterface
+    private interface ChunkCounter {
+        void count(LongCounter counter, int from, int to);
+    }
+}
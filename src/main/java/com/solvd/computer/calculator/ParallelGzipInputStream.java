@@ -0,0 +1,494 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The ParallelGzipInputStream class reads a multi-member gzip file, such as a
+ * concatenation of rolled log files, decompressing the members ahead of the
+ * reader on the common fork-join pool. Member boundaries are not known before
+ * decompression, so every offset that looks like a gzip header is decoded
+ * speculatively and only the members that chain from the start of the file
+ * are used. Every member is inflated into a bounded queue of chunks that the
+ * reader takes from while the member is still being inflated, so a single
+ * large member is decompressed and consumed at the same time. A decoder whose
+ * queue is full stops until the reader has taken half of it.
+ */
+public final class ParallelGzipInputStream extends InputStream {
+    private final static int GZIP_MAGIC_FIRST = 0x1f;
+    private final static int GZIP_MAGIC_SECOND = 0x8b;
+    private final static int DEFLATE = 8;
+    private final static int FHCRC = 2;
+    private final static int FEXTRA = 4;
+    private final static int FNAME = 8;
+    private final static int FCOMMENT = 16;
+    private final static int RESERVED_FLAGS = 0xe0;
+    private final static int HEADER_SIZE = 10;
+    private final static int TRAILER_SIZE = 8;
+    private final static int CHUNK_SIZE = 1 << 16;
+    private final static int MAX_QUEUED_CHUNKS = 64;
+    private final static int STREAM_BUFFER_SIZE = 1 << 16;
+    private final static int LOOKAHEAD = Runtime.getRuntime().availableProcessors();
+
+    private final FileChannel channel;
+    private final ByteBuffer file;
+    private final int[] candidates;
+    private final NavigableMap<Integer, MemberDecoding> decoding = new TreeMap<>();
+    private final byte[] single = new byte[1];
+    private int nextCandidate = 0;
+    private int position = 0;
+    private MemberDecoding member = null;
+    private Chunk current = null;
+    private int currentOffset = 0;
+
+    private ParallelGzipInputStream(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        this.candidates = findCandidates(file);
+    }
+
+    /**
+     * Opens the gzip file for reading. A file larger than 2 GB cannot be
+     * mapped as a whole and is read by a plain GZIPInputStream on the calling
+     * thread instead.
+     */
+    public static InputStream open(Path path) throws IOException {
+        if (Files.size(path) > Integer.MAX_VALUE) {
+            return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)),
+                                       STREAM_BUFFER_SIZE);
+        }
+
+        return new ParallelGzipInputStream(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        while (true) {
+            if (current != null && currentOffset < current.length()) {
+                int count = Math.min(length, current.length() - currentOffset);
+                System.arraycopy(current.data(), currentOffset, buffer, offset, count);
+                currentOffset += count;
+                return count;
+            }
+
+            if (member != null) {
+                if (current != null) {
+                    member.recycle(current.data());
+                }
+
+                current = member.take();
+                currentOffset = 0;
+
+                if (current == null) {
+                    position = member.end();
+                    member = null;
+                }
+
+                continue;
+            }
+
+            if (!nextMember()) {
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        decoding.values().forEach(MemberDecoding::cancel);
+        decoding.clear();
+
+        if (member != null) {
+            member.cancel();
+            member = null;
+        }
+
+        current = null;
+        channel.close();
+    }
+
+    private boolean nextMember() throws IOException {
+        if (position >= file.limit()) {
+            return false;
+        }
+
+        Map<Integer, MemberDecoding> skipped = decoding.headMap(position, false);
+        skipped.values().forEach(MemberDecoding::cancel);
+        skipped.clear();
+        schedule();
+        MemberDecoding next = decoding.remove(position);
+
+        if (next == null || !next.isMember()) {
+            return notAMember();
+        }
+
+        member = next;
+        schedule();
+        return true;
+    }
+
+    private boolean notAMember() throws ZipException {
+        if (position == 0) {
+            throw new ZipException("Not in GZIP format");
+        }
+
+        // Like GZIPInputStream, bytes after the last member are ignored.
+        return false;
+    }
+
+    private void schedule() {
+        while (nextCandidate < candidates.length && candidates[nextCandidate] < position) {
+            nextCandidate++;
+        }
+
+        while (decoding.size() < LOOKAHEAD && nextCandidate < candidates.length) {
+            int start = candidates[nextCandidate++];
+            MemberDecoding next = new MemberDecoding(start);
+            decoding.put(start, next);
+            next.start();
+        }
+    }
+
+    private static int[] findCandidates(ByteBuffer file) {
+        int[] found = new int[16];
+        int count = 0;
+
+        for (int i = 0; i + HEADER_SIZE <= file.limit(); i++) {
+            if ((file.get(i) & 0xff) == GZIP_MAGIC_FIRST
+                    && (file.get(i + 1) & 0xff) == GZIP_MAGIC_SECOND
+                    && file.get(i + 2) == DEFLATE
+                    && (file.get(i + 3) & RESERVED_FLAGS) == 0) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+
+                found[count++] = i;
+            }
+        }
+
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Inflated bytes of a member, filled up to the length.
+     */
+    private record Chunk(byte[] data, int length) {}
+
+    /**
+     * The decoding of the member that may start at an offset. A task on the
+     * pool inflates it chunk by chunk into the queue and stops when the queue
+     * is full; the reader takes the chunks in order and starts the task again.
+     * The inflater belongs to the task while it runs and to whoever finishes
+     * or cancels the decoding otherwise.
+     */
+    private final class MemberDecoding implements Runnable {
+        private final MemberDecoder decoder;
+        private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+        private final ArrayDeque<byte[]> free = new ArrayDeque<>();
+        private boolean running = false;
+        private boolean finished = false;
+        private boolean cancelled = false;
+        private IOException failure = null;
+
+        MemberDecoding(int start) {
+            MemberDecoder parsed;
+
+            try {
+                parsed = new MemberDecoder(file, start);
+            } catch (IOException ex) {
+                parsed = null;
+            }
+
+            this.decoder = parsed;
+        }
+
+        boolean isMember() {
+            return decoder != null;
+        }
+
+        int end() {
+            return decoder.end();
+        }
+
+        synchronized void start() {
+            if (decoder != null) {
+                running = true;
+                CompletableFuture.runAsync(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                byte[] data;
+
+                synchronized (this) {
+                    if (cancelled) {
+                        running = false;
+                        decoder.close();
+                        return;
+                    }
+
+                    if (chunks.size() >= MAX_QUEUED_CHUNKS) {
+                        running = false;
+                        return;
+                    }
+
+                    data = free.poll();
+                }
+
+                if (data == null) {
+                    data = new byte[CHUNK_SIZE];
+                }
+
+                int length = 0;
+                boolean done = false;
+                IOException error = null;
+
+                try {
+                    while (length < data.length) {
+                        int count = decoder.inflate(data, length, data.length - length);
+
+                        if (count < 0) {
+                            done = true;
+                            break;
+                        }
+
+                        length += count;
+                    }
+                } catch (IOException ex) {
+                    error = ex;
+                }
+
+                synchronized (this) {
+                    if (length > 0) {
+                        chunks.add(new Chunk(data, length));
+                    }
+
+                    if (done || error != null) {
+                        failure = error;
+                        finished = true;
+                        running = false;
+                        decoder.close();
+                    }
+
+                    notifyAll();
+
+                    if (finished) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the next chunk of the member, waiting for it to be
+         * inflated, or null after the last one. Throws the error that ended
+         * the member once the chunks before it are taken.
+         */
+        synchronized Chunk take() throws IOException {
+            while (chunks.isEmpty() && !finished) {
+                if (!running) {
+                    resume();
+                }
+
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while inflating");
+                }
+            }
+
+            Chunk chunk = chunks.poll();
+
+            if (chunk == null) {
+                if (failure != null) {
+                    throw failure;
+                }
+
+                return null;
+            }
+
+            if (!running && !finished && chunks.size() <= MAX_QUEUED_CHUNKS / 2) {
+                resume();
+            }
+
+            return chunk;
+        }
+
+        synchronized void recycle(byte[] data) {
+            if (!cancelled) {
+                free.add(data);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            chunks.clear();
+            free.clear();
+
+            if (decoder != null && !running) {
+                decoder.close();
+            }
+
+            notifyAll();
+        }
+
+        private void resume() {
+            running = true;
+            CompletableFuture.runAsync(this);
+        }
+    }
+
+    private static final class MemberDecoder implements AutoCloseable {
+        private final ByteBuffer file;
+        private final int dataStart;
+        private final Inflater inflater = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private int end = -1;
+
+        MemberDecoder(ByteBuffer file, int start) throws IOException {
+            this.file = file;
+
+            try {
+                int flags = file.get(start + 3);
+                int index = start + HEADER_SIZE;
+
+                if ((flags & FEXTRA) != 0) {
+                    index += 2 + (file.getShort(index) & 0xffff);
+                }
+
+                if ((flags & FNAME) != 0) {
+                    index = skipZeroTerminated(file, index);
+                }
+
+                if ((flags & FCOMMENT) != 0) {
+                    index = skipZeroTerminated(file, index);
+                }
+
+                if ((flags & FHCRC) != 0) {
+                    index += 2;
+                }
+
+                if (index > file.limit()) {
+                    throw new EOFException("Truncated GZIP header");
+                }
+
+                this.dataStart = index;
+            } catch (IndexOutOfBoundsException ex) {
+                inflater.end();
+                throw new EOFException("Truncated GZIP header");
+            }
+
+            inflater.setInput(file.slice(dataStart, file.limit() - dataStart));
+        }
+
+        int inflate(byte[] buffer, int offset, int length) throws IOException {
+            if (end >= 0) {
+                return -1;
+            }
+
+            int count;
+
+            try {
+                count = inflater.inflate(buffer, offset, length);
+            } catch (DataFormatException ex) {
+                throw new ZipException(ex.getMessage());
+            }
+
+            crc.update(buffer, offset, count);
+
+            if (inflater.finished()) {
+                verifyTrailer();
+            } else if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+
+            return count;
+        }
+
+        int end() {
+            return end;
+        }
+
+        @Override
+        public void close() {
+            inflater.end();
+        }
+
+        private void verifyTrailer() throws IOException {
+            long trailer = dataStart + inflater.getBytesRead();
+
+            if (trailer + TRAILER_SIZE > file.limit()) {
+                throw new EOFException("Truncated GZIP trailer");
+            }
+
+            if ((file.getInt((int) trailer) & 0xffffffffL) != crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+
+            if ((file.getInt((int) trailer + 4) & 0xffffffffL)
+                    != (inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+
+            end = (int) trailer + TRAILER_SIZE;
+        }
+
+        private static int skipZeroTerminated(ByteBuffer file, int index) {
+            while (file.get(index) != 0) {
+                index++;
+            }
+
+            return index + 1;
+        }
+    }
+}
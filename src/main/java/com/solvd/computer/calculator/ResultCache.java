@@ -0,0 +1,203 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * The ResultCache class keeps the results of previous WordCalculator runs in a
+ * local directory. A result is keyed by the content hashes of the input files
+ * and the calculator options. The content hash of a file is remembered together
+ * with its size and modification time, so an unchanged file is never read
+ * twice. The least recently used results are evicted once the directory grows
+ * beyond its size limit.
+ */
+public final class ResultCache {
+    private final static String FINGERPRINTS_FILE = "fingerprints.properties";
+    private final static String RESULT_SUFFIX = ".result";
+    private final static int HASH_BUFFER_SIZE = 1 << 20;
+    private final static Logger LOGGER = LogManager.getLogger(ResultCache.class);
+
+    private final Path directory;
+    private final long maxSizeInBytes;
+
+    public ResultCache(Path directory, long maxSizeInBytes) {
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    public String key(List<Path> inputs, String options) throws IOException {
+        Files.createDirectories(directory);
+        Properties fingerprints = loadFingerprints();
+        StringBuilder source = new StringBuilder(options);
+        boolean changed = false;
+
+        for (Path input : inputs) {
+            String path = input.toAbsolutePath().normalize().toString();
+            String stamp = Files.size(input) + ":" + Files.getLastModifiedTime(input).toMillis();
+            String fingerprint = fingerprints.getProperty(path);
+            String hash;
+
+            if (fingerprint != null && fingerprint.startsWith(stamp + ":")) {
+                hash = fingerprint.substring(stamp.length() + 1);
+            } else {
+                hash = hash(input);
+                fingerprints.setProperty(path, stamp + ":" + hash);
+                changed = true;
+            }
+
+            source.append('|').append(hash);
+        }
+
+        if (changed) {
+            storeFingerprints(fingerprints);
+        }
+
+        return digest(source.toString());
+    }
+
+    public boolean restore(String key, Path output) throws IOException {
+        Path result = directory.resolve(key + RESULT_SUFFIX);
+
+        if (!Files.isRegularFile(result)) {
+            return false;
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Files.copy(result, output, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(result, FileTime.fromMillis(System.currentTimeMillis()));
+        LOGGER.info("The result is restored from the cache entry {}.", key);
+        return true;
+    }
+
+    public void store(String key, Path output) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, key, ".tmp");
+        Files.copy(output, temporary, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temporary, directory.resolve(key + RESULT_SUFFIX),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        evict();
+    }
+
+    private void evict() throws IOException {
+        List<Path> results;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            results = files
+                    .filter(file -> file.getFileName().toString().endsWith(RESULT_SUFFIX))
+                    .sorted(Comparator.comparing(ResultCache::lastModified).reversed())
+                    .toList();
+        }
+
+        long totalSize = 0;
+
+        for (Path result : results) {
+            totalSize += Files.size(result);
+
+            if (totalSize > maxSizeInBytes) {
+                Files.deleteIfExists(result);
+                LOGGER.info("The cache entry {} is evicted.", result.getFileName());
+            }
+        }
+    }
+
+    private static String hash(Path input) throws IOException {
+        CRC32C crc32c = new CRC32C();
+        CRC32 crc32 = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc32c.update(buffer.duplicate());
+                crc32.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return HexFormat.of().toHexDigits(crc32c.getValue() << 32 | crc32.getValue());
+    }
+
+    private static String digest(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Properties loadFingerprints() throws IOException {
+        Properties fingerprints = new Properties();
+        Path file = directory.resolve(FINGERPRINTS_FILE);
+
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                fingerprints.load(in);
+            }
+        }
+
+        return fingerprints;
+    }
+
+    private void storeFingerprints(Properties fingerprints) throws IOException {
+        Path temporary = Files.createTempFile(directory, FINGERPRINTS_FILE, ".tmp");
+
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            fingerprints.store(out, null);
+        }
+
+        Files.move(temporary, directory.resolve(FINGERPRINTS_FILE),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
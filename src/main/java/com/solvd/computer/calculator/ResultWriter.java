@@ -0,0 +1,237 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The ResultWriter class streams counted entries into a file through a single
+ * reusable direct buffer, so the result is never assembled on the heap. The
+ * entries can be ordered by count or lexicographically, in both cases only an
+ * array of indices is sorted.
+ */
+public final class ResultWriter {
+    private final static int BUFFER_SIZE = 1 << 20;
+    private final static byte[] BINARY_MAGIC = {'W', 'C', 'R', '1'};
+    private final static int MAX_VARINT_SIZE = 10;
+    private final static int MAX_LONG_DIGITS = 20;
+
+    private final Format format;
+    private final Order order;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final byte[] digits = new byte[MAX_LONG_DIGITS];
+    private FileChannel channel;
+
+    public ResultWriter(Format format, Order order) {
+        this.format = format;
+        this.order = order;
+    }
+
+    public void write(Path output, LongCounter counter, KeyDecoder decoder) throws IOException {
+        long[] keys = new long[counter.size()];
+        long[] counts = new long[counter.size()];
+        counter.copyTo(keys, counts);
+        write(output, keys, counts, decoder);
+    }
+
+    public void write(Path output, long[] keys, long[] counts, KeyDecoder decoder)
+            throws IOException {
+        int size = keys.length;
+        String[] words = null;
+        int[] indices = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+
+        switch (order) {
+            case COUNT -> IndexSorter.sort(indices, (first, second) -> {
+                int byCount = Long.compare(counts[second], counts[first]);
+                return byCount != 0 ? byCount : Long.compare(keys[first], keys[second]);
+            });
+            case LEXICOGRAPHIC -> {
+                String[] decoded = new String[size];
+
+                for (int i = 0; i < size; i++) {
+                    decoded[i] = decoder.decode(keys[i]);
+                }
+
+                IndexSorter.sort(indices, (first, second) ->
+                        decoded[first].compareTo(decoded[second]));
+                words = decoded;
+            }
+            case NONE -> {
+            }
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel fileChannel = FileChannel.open(output, StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel = fileChannel;
+            buffer.clear();
+
+            if (format == Format.BINARY) {
+                buffer.put(BINARY_MAGIC);
+                putVarint(size);
+            }
+
+            for (int index : indices) {
+                String word = words != null ? words[index] : decoder.decode(keys[index]);
+                writeEntry(word, counts[index]);
+            }
+
+            flush();
+        } finally {
+            channel = null;
+        }
+    }
+
+    private void writeEntry(String word, long count) throws IOException {
+        switch (format) {
+            case TEXT -> {
+                putString(word);
+                ensureRemaining(2 + MAX_LONG_DIGITS + 1);
+                buffer.put((byte) ':').put((byte) ' ');
+                putDecimal(count);
+                buffer.put((byte) '\n');
+            }
+            case TSV -> {
+                putString(word);
+                ensureRemaining(1 + MAX_LONG_DIGITS + 1);
+                buffer.put((byte) '\t');
+                putDecimal(count);
+                buffer.put((byte) '\n');
+            }
+            case BINARY -> {
+                ensureRemaining(MAX_VARINT_SIZE);
+                putVarint(utf8Length(word));
+                putString(word);
+                ensureRemaining(MAX_VARINT_SIZE);
+                putVarint(count);
+            }
+        }
+    }
+
+    private void putString(String word) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(word);
+        encoder.reset();
+
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+
+            if (result.isOverflow()) {
+                flush();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void putDecimal(long value) {
+        int position = digits.length;
+
+        do {
+            digits[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+
+        buffer.put(digits, position, digits.length - position);
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    private static int utf8Length(String word) {
+        int length = 0;
+
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < word.length()
+                    && Character.isLowSurrogate(word.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    public enum Format {
+        TEXT,
+        TSV,
+        BINARY
+    }
+
+    public enum Order {
+        NONE,
+        COUNT,
+        LEXICOGRAPHIC
+    }
+
+    @FunctionalInterface
+    public interface KeyDecoder {
+        String decode(long key);
+    }
+}
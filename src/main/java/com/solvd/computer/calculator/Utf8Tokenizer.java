@@ -0,0 +1,266 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The Utf8Tokenizer class splits UTF-8 bytes into words without decoding them
+ * to UTF-16. Letters, digits and combining marks of any script make up words,
+ * whitespace separates them and all other characters, like punctuation, are
+ * dropped, so "don't" is counted as "dont". Malformed bytes separate words.
+ * Case folding uses a lookup table precomputed for the Basic Multilingual
+ * Plane. Every word is passed to the sink as its ID in the vocabulary.
+ */
+public final class Utf8Tokenizer {
+    private final static byte IGNORED = 0;
+    private final static byte WORD = 1;
+    private final static byte SEPARATOR = 2;
+    private final static int BMP_SIZE = Character.MAX_VALUE + 1;
+    private final static byte[] CLASSES = new byte[BMP_SIZE];
+    private final static char[] FOLDED = new char[BMP_SIZE];
+    private final static int INITIAL_WORD_SIZE = 64;
+
+    private final Vocabulary vocabulary;
+    private final boolean caseFolding;
+    private final IntConsumer sink;
+    private byte[] word = new byte[INITIAL_WORD_SIZE];
+    private int wordLength = 0;
+    private final byte[] pending = new byte[4];
+    private int pendingLength = 0;
+
+    static {
+        for (int c = 0; c < BMP_SIZE; c++) {
+            CLASSES[c] = classify(c);
+            FOLDED[c] = (char) fold(c);
+        }
+    }
+
+    public Utf8Tokenizer(Vocabulary vocabulary, boolean caseFolding, IntConsumer sink) {
+        this.vocabulary = vocabulary;
+        this.caseFolding = caseFolding;
+        this.sink = sink;
+    }
+
+    public void feed(ByteBuffer input) {
+        int index = input.position();
+        int limit = input.limit();
+
+        if (pendingLength > 0) {
+            int needed = sequenceLength(pending[0]) - pendingLength;
+            int available = Math.min(needed, limit - index);
+            input.get(index, pending, pendingLength, available);
+            pendingLength += available;
+            index += available;
+
+            if (available < needed) {
+                input.position(limit);
+                return;
+            }
+
+            int length = pendingLength;
+            pendingLength = 0;
+            int codePoint = decode(ByteBuffer.wrap(pending), 0, length);
+
+            if (codePoint < 0) {
+                // The bytes taken from this input may start valid sequences.
+                endWord();
+                feed(input.position(index - available));
+                return;
+            }
+
+            accept(codePoint, ByteBuffer.wrap(pending), 0, length);
+        }
+
+        while (index < limit) {
+            byte lead = input.get(index);
+
+            if (lead >= 0) {
+                switch (CLASSES[lead]) {
+                    case WORD -> append(caseFolding ? (byte) FOLDED[lead] : lead);
+                    case SEPARATOR -> endWord();
+                    default -> {
+                    }
+                }
+
+                index++;
+                continue;
+            }
+
+            int length = sequenceLength(lead);
+
+            if (length < 0) {
+                endWord();
+                index++;
+                continue;
+            }
+
+            if (index + length > limit) {
+                pendingLength = limit - index;
+                input.get(index, pending, 0, pendingLength);
+                break;
+            }
+
+            int codePoint = decode(input, index, length);
+
+            if (codePoint < 0) {
+                endWord();
+                index++;
+                continue;
+            }
+
+            accept(codePoint, input, index, length);
+            index += length;
+        }
+
+        input.position(limit);
+    }
+
+    public void finish() {
+        pendingLength = 0;
+        endWord();
+    }
+
+    private void accept(int codePoint, ByteBuffer input, int index, int length) {
+        byte characterClass = codePoint < BMP_SIZE
+                ? CLASSES[codePoint]
+                : classify(codePoint);
+
+        if (characterClass == SEPARATOR) {
+            endWord();
+        } else if (characterClass == WORD) {
+            int folded = !caseFolding
+                    ? codePoint
+                    : codePoint < BMP_SIZE ? FOLDED[codePoint] : fold(codePoint);
+
+            if (folded == codePoint) {
+                ensureWordCapacity(length);
+                input.get(index, word, wordLength, length);
+                wordLength += length;
+            } else {
+                appendCodePoint(folded);
+            }
+        }
+    }
+
+    private void append(byte value) {
+        ensureWordCapacity(1);
+        word[wordLength++] = value;
+    }
+
+    private void appendCodePoint(int codePoint) {
+        ensureWordCapacity(4);
+
+        if (codePoint < 0x80) {
+            word[wordLength++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            word[wordLength++] = (byte) (0xc0 | codePoint >> 6);
+            word[wordLength++] = (byte) (0x80 | codePoint & 0x3f);
+        } else if (codePoint < 0x10000) {
+            word[wordLength++] = (byte) (0xe0 | codePoint >> 12);
+            word[wordLength++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+            word[wordLength++] = (byte) (0x80 | codePoint & 0x3f);
+        } else {
+            word[wordLength++] = (byte) (0xf0 | codePoint >> 18);
+            word[wordLength++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+            word[wordLength++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+            word[wordLength++] = (byte) (0x80 | codePoint & 0x3f);
+        }
+    }
+
+    private void ensureWordCapacity(int length) {
+        if (wordLength + length > word.length) {
+            word = Arrays.copyOf(word, Math.max(word.length * 2, wordLength + length));
+        }
+    }
+
+    private void endWord() {
+        if (wordLength > 0) {
+            sink.accept(vocabulary.id(word, 0, wordLength));
+            wordLength = 0;
+        }
+    }
+
+    private static int sequenceLength(byte lead) {
+        if ((lead & 0xe0) == 0xc0) {
+            return 2;
+        } else if ((lead & 0xf0) == 0xe0) {
+            return 3;
+        } else if ((lead & 0xf8) == 0xf0) {
+            return 4;
+        }
+
+        return -1;
+    }
+
+    private static int decode(ByteBuffer input, int index, int length) {
+        int lead = input.get(index);
+        int codePoint = switch (length) {
+            case 2 -> lead & 0x1f;
+            case 3 -> lead & 0x0f;
+            default -> lead & 0x07;
+        };
+
+        for (int i = 1; i < length; i++) {
+            byte next = input.get(index + i);
+
+            if ((next & 0xc0) != 0x80) {
+                return -1;
+            }
+
+            codePoint = codePoint << 6 | next & 0x3f;
+        }
+
+        boolean overlong = length == 2 && codePoint < 0x80
+                || length == 3 && codePoint < 0x800
+                || length == 4 && codePoint < 0x10000;
+
+        if (overlong || codePoint > Character.MAX_CODE_POINT
+                || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            return -1;
+        }
+
+        return codePoint;
+    }
+
+    private static byte classify(int codePoint) {
+        if (Character.isLetterOrDigit(codePoint)) {
+            return WORD;
+        }
+
+        int type = Character.getType(codePoint);
+
+        if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK) {
+            return WORD;
+        }
+
+        if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+            return SEPARATOR;
+        }
+
+        return IGNORED;
+    }
+
+    private static int fold(int codePoint) {
+        int folded = Character.toLowerCase(Character.toUpperCase(codePoint));
+        return (codePoint < BMP_SIZE) == (folded < BMP_SIZE) ? folded : codePoint;
+    }
+}
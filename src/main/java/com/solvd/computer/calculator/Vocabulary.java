@@ -0,0 +1,141 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.calculator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The Vocabulary class assigns dense integer IDs to words given as UTF-8
+ * bytes. The bytes of all words are kept in a single arena and are decoded to
+ * a String only when a word is asked for by its ID. A vocabulary is not
+ * thread-safe, every tokenizing thread fills its own one and the vocabularies
+ * are merged afterwards.
+ */
+public final class Vocabulary {
+    private final static int EMPTY = -1;
+    private final static int INITIAL_CAPACITY = 1024;
+    private final static int INITIAL_ARENA_SIZE = 1 << 16;
+
+    private byte[] arena = new byte[INITIAL_ARENA_SIZE];
+    private int arenaLength = 0;
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] table = newTable(INITIAL_CAPACITY * 2);
+    private int size = 0;
+
+    public int id(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+
+        while (table[slot] != EMPTY) {
+            int id = table[slot];
+
+            if (hashes[id] == hash && Arrays.equals(arena, start(id), ends[id],
+                                                    bytes, offset, offset + length)) {
+                return id;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return add(bytes, offset, length, hash, slot);
+    }
+
+    public String word(int id) {
+        return new String(arena, start(id), ends[id] - start(id), StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the words of this vocabulary to the target one and returns the
+     * mapping from the IDs of this vocabulary to the IDs of the target.
+     */
+    public int[] mergeInto(Vocabulary target) {
+        int[] mapping = new int[size];
+
+        for (int id = 0; id < size; id++) {
+            mapping[id] = target.id(arena, start(id), ends[id] - start(id));
+        }
+
+        return mapping;
+    }
+
+    private int add(byte[] bytes, int offset, int length, int hash, int slot) {
+        if (arenaLength + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + length));
+        }
+
+        if (size == ends.length) {
+            ends = Arrays.copyOf(ends, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+
+        System.arraycopy(bytes, offset, arena, arenaLength, length);
+        arenaLength += length;
+        int id = size++;
+        ends[id] = arenaLength;
+        hashes[id] = hash;
+        table[slot] = id;
+
+        if (size * 2 > table.length) {
+            rehash();
+        }
+
+        return id;
+    }
+
+    private void rehash() {
+        table = newTable(table.length * 2);
+        int mask = table.length - 1;
+
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+
+            table[slot] = id;
+        }
+    }
+
+    private int start(int id) {
+        return id == 0 ? 0 : ends[id - 1];
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -17,18 +17,96 @@
  */
 package com.solvd.computer.calculator;
 
-import org.apache.commons.io.FileUtils;
+import com.solvd.computer.jfr.WordCalculatorPhaseEvent;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.nio.file.Files;
+import java.util.stream.LongStream;
 
+/**
+ * The WordCalculator class counts the words of one or more UTF-8 text files,
+ * plain or gzip-compressed. Without a mode it counts single words,
+ * {@code --ngrams <n>} counts n-grams and {@code --cooccurrences <window>}
+ * counts the pairs of words that occur within the given window of each other.
+ * Words are tokenized directly from UTF-8 bytes, {@code --case-folding} folds
+ * their case. With {@code --cache-dir} results are cached, an unchanged input
+ * is not counted twice.
+ */
 public final class WordCalculator {
+    private final static Histogram COUNT_LATENCY =
+            MetricsRegistry.histogram("wordCalculator.count.latency");
+    private final static Histogram WRITE_LATENCY =
+            MetricsRegistry.histogram("wordCalculator.write.latency");
+
     public static void main(String[] args) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
-        Arrays.stream(FileUtils.readFileToString(new File("src/main/resources/text.txt"), StandardCharsets.UTF_8).replaceAll("[^a-zA-Z0-9 ]", "").split(" ")).collect(Collectors.groupingBy(String::valueOf)).forEach((k, v) -> stringBuilder.append(k).append(": ").append(v.size()).append("\n"));
-        FileUtils.writeStringToFile(new File("logs/result.txt"), stringBuilder.toString(), StandardCharsets.UTF_8);
+        CalculatorOptions options = CalculatorOptions.parse(args);
+        ResultCache cache = null;
+        String cacheKey = null;
+
+        if (options.isCacheEnabled()) {
+            cache = new ResultCache(options.getCacheDirectory(), options.getCacheSizeInBytes());
+            cacheKey = cache.key(options.getInputs(), options.describe());
+
+            if (cache.restore(cacheKey, options.getOutput())) {
+                return;
+            }
+        }
+
+        boolean keepSequence = options.getMode() != CalculatorOptions.Mode.WORDS;
+        Corpus corpus = Corpus.read(options.getInputs(), options.isCaseFolding(), keepSequence);
+        Vocabulary vocabulary = corpus.getVocabulary();
+        ResultWriter writer = new ResultWriter(options.getFormat(), options.getOrder());
+
+        LongCounter counter = null;
+        NGramCounter nGramCounter = new NGramCounter(vocabulary);
+
+        if (keepSequence) {
+            long start = System.nanoTime();
+            WordCalculatorPhaseEvent event = new WordCalculatorPhaseEvent();
+            event.begin();
+            counter = options.getMode() == CalculatorOptions.Mode.NGRAMS
+                    ? nGramCounter.countNGrams(corpus.getIds(), options.getSize())
+                    : nGramCounter.countCooccurrences(corpus.getIds(), options.getSize());
+            event.end();
+            COUNT_LATENCY.recordSince(start);
+
+            if (event.shouldCommit()) {
+                event.phase = WordCalculatorPhaseEvent.COUNT;
+                event.tokens = corpus.getIds().length;
+                event.entries = counter.size();
+                event.commit();
+            }
+        }
+
+        long start = System.nanoTime();
+        WordCalculatorPhaseEvent event = new WordCalculatorPhaseEvent();
+        event.begin();
+
+        switch (options.getMode()) {
+            case NGRAMS -> writer.write(options.getOutput(), counter,
+                                        key -> nGramCounter.decodeNGram(key, options.getSize()));
+            case COOCCURRENCES -> writer.write(options.getOutput(), counter,
+                                               nGramCounter::decodeCooccurrence);
+            default -> writer.write(options.getOutput(),
+                                    LongStream.range(0, vocabulary.size()).toArray(),
+                                    corpus.getCounts(), key -> vocabulary.word((int) key));
+        }
+
+        event.end();
+        WRITE_LATENCY.recordSince(start);
+
+        if (event.shouldCommit()) {
+            event.phase = WordCalculatorPhaseEvent.WRITE;
+            event.file = options.getOutput().toString();
+            event.bytes = Files.size(options.getOutput());
+            event.entries = counter != null ? counter.size() : vocabulary.size();
+            event.commit();
+        }
+
+        if (cache != null) {
+            cache.store(cacheKey, options.getOutput());
+        }
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The CatalogReader class reads laptops back from the binary catalog format
+ * written by CatalogWriter through a single reusable direct buffer. Every
+ * record is checked against its CRC32C before it is decoded, so a damaged
+ * file is reported instead of reaching the validation of the components.
+ */
+public final class CatalogReader implements Closeable {
+    private final RecordReader records;
+    private final LaptopCodec codec = new LaptopCodec();
+
+    public CatalogReader(ReadableByteChannel channel) throws IOException {
+        this.records = new RecordReader(channel, LaptopCodec.MAGIC, LaptopCodec.VERSION);
+    }
+
+    public static CatalogReader open(Path file) throws IOException {
+        return new CatalogReader(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Returns the next laptop or null at the end of the catalog.
+     */
+    public Laptop read() throws IOException {
+        ByteBuffer payload = records.next();
+
+        if (payload == null) {
+            return null;
+        }
+
+        Laptop laptop = codec.decode(payload);
+        records.verify(payload);
+        return laptop;
+    }
+
+    public long getCount() {
+        return records.getCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+    }
+}
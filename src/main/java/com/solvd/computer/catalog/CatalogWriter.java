@@ -0,0 +1,89 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The CatalogWriter class streams laptops into the binary catalog format
+ * through a single reusable direct buffer. The stream starts with the magic
+ * "LPC1" and the format version, every record then takes its length, the
+ * CRC32C of its payload and the payload written by LaptopCodec, all in
+ * little-endian order.
+ */
+public final class CatalogWriter implements Closeable {
+    private final RecordWriter records;
+    private final LaptopCodec codec = new LaptopCodec();
+
+    public CatalogWriter(WritableByteChannel channel) {
+        this.records = new RecordWriter(channel, LaptopCodec.MAGIC, LaptopCodec.VERSION);
+    }
+
+    public static CatalogWriter open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        return new CatalogWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    public void write(Laptop laptop) throws IOException {
+        ByteBuffer buffer = records.begin();
+
+        try {
+            codec.encode(laptop, buffer);
+        } catch (RuntimeException ex) {
+            records.abort();
+            throw ex;
+        }
+
+        records.end();
+    }
+
+    public void writeAll(Iterable<? extends Laptop> laptops) throws IOException {
+        for (Laptop laptop : laptops) {
+            write(laptop);
+        }
+    }
+
+    public long getCount() {
+        return records.getCount();
+    }
+
+    public void flush() throws IOException {
+        records.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.interfaces.IObserve;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The DurableCatalog class keeps laptops by their IDs and makes every change
+ * to them durable: adding and removing a laptop as well as every change made
+ * through the setters, which the catalog observes. Each change appends the
+ * whole current state of the laptop to the WriteAheadLog, so replaying the
+ * log in order restores the last state of every laptop. With synchronous
+ * commits a change returns once its record is forced to the disk, which the
+ * log does for many concurrent changes at once. A setter cannot report that
+ * its change failed to be logged without keeping the other observers of the
+ * laptop from seeing it, so the failure is kept and reported by the next
+ * add, remove, sync or close instead.
+ *
+ * When the current log segment grows beyond the snapshot threshold, the log
+ * is rotated and the laptops are written to a snapshot in the background.
+ * A snapshot is written to a temporary file and moved into place when
+ * complete, after which the older segments and snapshots are deleted.
+ * Opening the catalog loads the latest snapshot and replays the segments
+ * from the one it was taken at.
+ */
+public final class DurableCatalog implements Closeable {
+    public final static long DEFAULT_SNAPSHOT_THRESHOLD = 64L << 20;
+    final static int SNAPSHOT_MAGIC = 0x3153504c;
+    private final static Logger LOGGER = LogManager.getLogger(DurableCatalog.class);
+    private final static Pattern FILE_NAME = Pattern.compile("(wal|snapshot)-(\\d{16})\\.(log|lps)");
+    private final static Histogram RECOVERY_LATENCY =
+            MetricsRegistry.histogram("catalog.recovery.latency");
+    private final static Histogram SNAPSHOT_LATENCY =
+            MetricsRegistry.histogram("catalog.snapshot.latency");
+
+    private final Path directory;
+    private final boolean synchronousCommit;
+    private final long snapshotThreshold;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+    private final AtomicReference<Exception> observerFailure = new AtomicReference<>();
+    private final WriteAheadLog log;
+
+    private DurableCatalog(Path directory, boolean synchronousCommit, long snapshotThreshold)
+            throws IOException {
+        this.directory = directory;
+        this.synchronousCommit = synchronousCommit;
+        this.snapshotThreshold = snapshotThreshold;
+        long start = System.nanoTime();
+        this.log = new WriteAheadLog(directory, recover() + 1);
+        RECOVERY_LATENCY.recordSince(start);
+
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            entry.getValue().laptop().addObserver(entry.getValue().observer());
+        }
+    }
+
+    public static DurableCatalog open(Path directory) throws IOException {
+        return open(directory, true, DEFAULT_SNAPSHOT_THRESHOLD);
+    }
+
+    /**
+     * Opens the catalog in the directory, recovering the laptops from its
+     * files. Without synchronous commits a change returns as soon as it is
+     * appended to the log and becomes durable with the next batch.
+     */
+    public static DurableCatalog open(Path directory, boolean synchronousCommit,
+                                      long snapshotThreshold) throws IOException {
+        Files.createDirectories(directory);
+        return new DurableCatalog(directory, synchronousCommit, snapshotThreshold);
+    }
+
+    /**
+     * Adds the laptop and returns its ID. The catalog observes the laptop from
+     * now on, so the laptop should not be changed before this call returns.
+     */
+    public long add(Laptop laptop) throws IOException {
+        checkObserverFailure();
+        long id = nextId.getAndIncrement();
+        Entry entry = new Entry(laptop, observer(id));
+        entries.put(id, entry);
+        laptop.addObserver(entry.observer());
+        commit(log.upsert(id, laptop));
+        return id;
+    }
+
+    public Laptop get(long id) {
+        Entry entry = entries.get(id);
+        return entry == null ? null : entry.laptop();
+    }
+
+    public boolean remove(long id) throws IOException {
+        checkObserverFailure();
+        Entry entry = entries.remove(id);
+
+        if (entry == null) {
+            return false;
+        }
+
+        entry.laptop().removeObserver(entry.observer());
+        commit(log.remove(id));
+        return true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Collection<Laptop> laptops() {
+        return entries.values().stream().map(Entry::laptop).toList();
+    }
+
+    /**
+     * Waits until every change made so far is durable.
+     */
+    public void sync() throws IOException {
+        checkObserverFailure();
+        log.awaitDurable(log.getSequence());
+    }
+
+    /**
+     * Rotates the log and writes all laptops to a snapshot, after which the
+     * files it replaces are deleted. Changes may continue meanwhile: a laptop
+     * changed during the snapshot is also in the new segment, which is
+     * replayed over the snapshot.
+     */
+    public synchronized void snapshot() throws IOException {
+        long start = System.nanoTime();
+        long segment = log.rotate();
+        Path file = snapshotFile(segment);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (RecordWriter records = new RecordWriter(
+                FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                 StandardOpenOption.TRUNCATE_EXISTING),
+                SNAPSHOT_MAGIC, WriteAheadLog.VERSION)) {
+            LaptopCodec codec = new LaptopCodec();
+
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                ByteBuffer buffer = records.begin();
+                buffer.put(WriteAheadLog.UPSERT).putLong(entry.getKey());
+                codec.encode(entry.getValue().laptop(), buffer);
+                records.end();
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        // The older files may only go once the rename itself survives a crash.
+        WriteAheadLog.forceDirectory(directory);
+
+        for (Map.Entry<Long, Path> older : files("snapshot").headMap(segment).entrySet()) {
+            Files.deleteIfExists(older.getValue());
+        }
+
+        for (Map.Entry<Long, Path> older : files("wal").headMap(segment).entrySet()) {
+            Files.deleteIfExists(older.getValue());
+        }
+
+        SNAPSHOT_LATENCY.recordSince(start);
+    }
+
+    /**
+     * Stops observing the laptops and closes the log once every change made
+     * so far is durable.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Entry entry : entries.values()) {
+            entry.laptop().removeObserver(entry.observer());
+        }
+
+        log.close();
+        checkObserverFailure();
+    }
+
+    private IObserve observer(long id) {
+        return (computer, attribute, oldValue, newValue) -> {
+            try {
+                commit(log.upsert(id, (Laptop) computer));
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.error("The change of {} of laptop {} was not logged.", attribute, id, ex);
+                observerFailure.compareAndSet(null, ex);
+            }
+        };
+    }
+
+    private void checkObserverFailure() throws IOException {
+        Exception failure = observerFailure.get();
+
+        if (failure != null) {
+            throw new IOException("A change made through a setter was not logged", failure);
+        }
+    }
+
+    private void commit(long sequence) throws IOException {
+        if (synchronousCommit) {
+            log.awaitDurable(sequence);
+        }
+
+        if (log.getSegmentBytes() > snapshotThreshold && snapshotting.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("catalog-snapshot").daemon(true).start(() -> {
+                try {
+                    snapshot();
+                } catch (IOException | RuntimeException ex) {
+                    LOGGER.error("The catalog snapshot failed.", ex);
+                } finally {
+                    snapshotting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads the latest snapshot, replays the segments taken after it and
+     * returns the number of the last segment.
+     */
+    private long recover() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().endsWith(".lps.tmp")) {
+                    Files.delete(path);
+                }
+            }
+        }
+
+        TreeMap<Long, Path> snapshots = files("snapshot");
+        TreeMap<Long, Path> segments = files("wal");
+        long first = snapshots.isEmpty() ? 0 : snapshots.lastKey();
+        long[] maxId = {-1};
+
+        if (!snapshots.isEmpty()) {
+            long records = WriteAheadLog.replay(snapshots.lastEntry().getValue(), SNAPSHOT_MAGIC,
+                                                false, (id, laptop) -> {
+                        entries.put(id, new Entry(laptop, observer(id)));
+                        maxId[0] = Math.max(maxId[0], id);
+                    });
+            LOGGER.info("Loaded {} laptops from {}.", records,
+                        snapshots.lastEntry().getValue().getFileName());
+        }
+
+        List<Path> replayed = new ArrayList<>(segments.tailMap(first).values());
+
+        for (int i = 0; i < replayed.size(); i++) {
+            long records = WriteAheadLog.replay(replayed.get(i), WriteAheadLog.MAGIC,
+                                                i == replayed.size() - 1, (id, laptop) -> {
+                        if (laptop == null) {
+                            entries.remove(id);
+                        } else {
+                            entries.put(id, new Entry(laptop, observer(id)));
+                        }
+
+                        maxId[0] = Math.max(maxId[0], id);
+                    });
+            LOGGER.info("Replayed {} records from {}.", records, replayed.get(i).getFileName());
+        }
+
+        nextId.set(maxId[0] + 1);
+        return Math.max(first, segments.isEmpty() ? 0 : segments.lastKey());
+    }
+
+    private TreeMap<Long, Path> files(String kind) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+
+                if (matcher.matches() && matcher.group(1).equals(kind)) {
+                    files.put(Long.parseLong(matcher.group(2)), path);
+                }
+            }
+        }
+
+        return files;
+    }
+
+    private Path snapshotFile(long segment) {
+        return directory.resolve(String.format("snapshot-%016d.lps", segment));
+    }
+
+    private record Entry(Laptop laptop, IObserve observer) {
+    }
+}
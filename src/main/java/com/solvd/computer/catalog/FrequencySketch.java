@@ -0,0 +1,100 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+/**
+ * The FrequencySketch class estimates how often keys were used recently in a
+ * fixed amount of memory: a count-min sketch of four-bit counters, sixteen to
+ * a long, of which every key picks four. The smallest of them is the
+ * estimate, which may be too high but never too low. Once about ten uses per
+ * key of the capacity have been counted, every counter is halved, so the keys
+ * that stop being used are forgotten. Not thread safe.
+ */
+final class FrequencySketch {
+    private final static long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private final static long RESET_MASK = 0x7777777777777777L;
+    private final static int MAX_COUNT = 15;
+    private final static int SAMPLES_PER_KEY = 10;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int samples = 0;
+
+    /**
+     * Creates a sketch for about the given number of distinct keys.
+     */
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        this.table = new long[length];
+        this.sampleSize = SAMPLES_PER_KEY * length;
+    }
+
+    int frequency(int hash) {
+        int frequency = MAX_COUNT;
+
+        for (int i = 0; i < SEEDS.length; i++) {
+            long spread = spread(hash, i);
+            frequency = Math.min(frequency, (int) (table[index(spread)] >>> offset(spread))
+                                            & MAX_COUNT);
+        }
+
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+
+        for (int i = 0; i < SEEDS.length; i++) {
+            long spread = spread(hash, i);
+            int index = index(spread);
+            int offset = offset(spread);
+
+            if ((table[index] >>> offset & MAX_COUNT) < MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+
+        if (added && ++samples == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = table[i] >>> 1 & RESET_MASK;
+        }
+
+        samples /= 2;
+    }
+
+    private static long spread(int hash, int i) {
+        long spread = (hash + SEEDS[i]) * SEEDS[i];
+        return spread ^ spread >>> 32;
+    }
+
+    private int index(long spread) {
+        return (int) spread & table.length - 1;
+    }
+
+    private static int offset(long spread) {
+        return (int) (spread >>> 60) << 2;
+    }
+}
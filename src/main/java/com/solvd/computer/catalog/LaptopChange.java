@@ -0,0 +1,34 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+
+/**
+ * A change a writer makes to a laptop of a catalog through its setters.
+ */
+@FunctionalInterface
+public interface LaptopChange {
+    void apply(Laptop laptop) throws ZeroOrTooManyCharactersException, ZeroOrTooManyUSDException,
+            NoOneOrTooManyInchesException, NoOneOrTooManyCoresException, NoOneOrTooManyHzException;
+}
@@ -0,0 +1,293 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+import com.solvd.computer.enums.ComputerType;
+import com.solvd.computer.enums.Freshness;
+import com.solvd.computer.enums.Model;
+import com.solvd.computer.enums.Producer;
+import com.solvd.computer.enums.Target;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+
+import java.io.InvalidObjectException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The LaptopCodec class encodes a laptop into a record of the binary catalog
+ * format and back. Numbers are written with a fixed width, booleans are packed
+ * into a bit set and enums are written as ordinals, where 0 stands for null.
+ * Strings are dictionary-encoded: the first occurrence of a string is written
+ * as the marker 0 followed by its UTF-8 bytes and gets the next ID, every
+ * later occurrence is written as the ID + 1 only, both as varints. A codec
+ * therefore keeps the dictionary of one stream and must not be shared.
+ */
+public final class LaptopCodec {
+    public final static int MAGIC = 0x3143504c;
+    public final static int VERSION = 1;
+    public final static int MAX_RECORD_SIZE = 1 << 16;
+    private final static int MAX_STRING_SIZE = 1 << 12;
+    private final static ComputerType[] COMPUTER_TYPES = ComputerType.values();
+    private final static Freshness[] FRESHNESSES = Freshness.values();
+    private final static Model[] MODELS = Model.values();
+    private final static Producer[] PRODUCERS = Producer.values();
+    private final static Target[] TARGETS = Target.values();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> encoded = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private final byte[] scratch = new byte[MAX_STRING_SIZE];
+
+    /**
+     * Encodes the laptop at the position of the buffer. If it cannot be
+     * encoded, neither the buffer nor the dictionary keeps any of it.
+     */
+    public void encode(Laptop laptop, ByteBuffer buffer) {
+        int position = buffer.position();
+        int dictionarySize = encoded.size();
+
+        try {
+            write(laptop, buffer);
+        } catch (RuntimeException ex) {
+            buffer.position(position);
+
+            while (encoded.size() > dictionarySize) {
+                ids.remove(encoded.removeLast());
+            }
+
+            throw ex;
+        }
+    }
+
+    private void write(Laptop laptop, ByteBuffer buffer) {
+        CPU processor = laptop.getProcessor();
+        GPU graphics = laptop.getGraphics();
+        Display screen = laptop.getScreen();
+        RAM memory = laptop.getMemory();
+        Storage storage = laptop.getStorage();
+        Port ports = laptop.getPorts();
+        BigDecimal price = laptop.getPriceInUSD();
+        checkPrice(price);
+
+        putString(buffer, laptop.getProducer());
+        putString(buffer, laptop.getModel());
+        putString(buffer, laptop.getType());
+        putString(buffer, laptop.getOperatingSystem().getName());
+        buffer.putDouble(screen.getScreenSizeInInches());
+        putString(buffer, screen.getResolution());
+        putString(buffer, screen.getType());
+        putString(buffer, processor.getName());
+        buffer.putInt(processor.getNumOfCores());
+        buffer.putDouble(processor.getClockRateInGHz());
+        putString(buffer, graphics.getName());
+        buffer.putInt(graphics.getVideoMemorySizeInGBs());
+        buffer.putInt(graphics.getClockRateInMHz());
+        buffer.putInt(memory.getMemorySizeInGBs());
+        buffer.putInt(memory.getClockRateInMHz());
+        putString(buffer, memory.getType());
+        buffer.putInt(storage.getSizeInGBs());
+        putString(buffer, storage.getType());
+        buffer.put((byte) ports.getNumOfUSBTypeA())
+                .put((byte) ports.getNumOfMicroSD())
+                .put((byte) ports.getNumOfHDMI())
+                .put((byte) ports.getNumOfHeadMicCombo())
+                .put((byte) ports.getNumOfUSBTypeC());
+        buffer.putLong(price.unscaledValue().longValueExact());
+        buffer.put((byte) price.scale());
+        buffer.putShort((short) LaptopFlags.of(laptop));
+        buffer.putDouble(laptop.getWeightInGrams());
+        putString(buffer, laptop.getColor());
+        putOrdinal(buffer, laptop.getComputerType());
+        putOrdinal(buffer, laptop.getFreshness());
+        putOrdinal(buffer, laptop.getComputerModel());
+        putOrdinal(buffer, laptop.getComputerProducer());
+        putOrdinal(buffer, laptop.getTarget());
+    }
+
+    public Laptop decode(ByteBuffer buffer) throws StreamCorruptedException,
+            InvalidObjectException {
+        try {
+            String producer = getString(buffer);
+            String model = getString(buffer);
+            String type = getString(buffer);
+            OperatingSystem operatingSystem = new OperatingSystem(getString(buffer));
+            Display screen = new Display(buffer.getDouble(), getString(buffer),
+                                         getString(buffer));
+            String processorName = getString(buffer);
+            int numOfCores = buffer.getInt();
+            double clockRateInGHz = buffer.getDouble();
+            String graphicsName = getString(buffer);
+            int videoMemorySizeInGBs = buffer.getInt();
+            int graphicsClockRateInMHz = buffer.getInt();
+            RAM memory = new RAM(buffer.getInt(), buffer.getInt(), getString(buffer));
+            Storage storage = new Storage(buffer.getInt(), getString(buffer));
+            Port ports = new Port(buffer.get(), buffer.get(), buffer.get(), buffer.get(),
+                                  buffer.get());
+            BigDecimal price = BigDecimal.valueOf(buffer.getLong(), buffer.get());
+            int flags = buffer.getShort();
+            CPU processor = new CPU(processorName, numOfCores, clockRateInGHz,
+                                    (flags & LaptopFlags.TURBO_BOOST) != 0);
+            GPU graphics = new GPU(graphicsName, videoMemorySizeInGBs, graphicsClockRateInMHz,
+                                   (flags & LaptopFlags.INTEGRATED_GPU) != 0);
+            Laptop laptop = new Laptop(producer, model, type, operatingSystem, screen,
+                                       processor, graphics, memory, storage, ports, price,
+                                       (flags & LaptopFlags.TURNED_ON) != 0,
+                                       (flags & LaptopFlags.WIRELESS_NETWORKING) != 0,
+                                       (flags & LaptopFlags.CAMERA) != 0,
+                                       (flags & LaptopFlags.MICROPHONE) != 0,
+                                       (flags & LaptopFlags.SPEAKERS) != 0,
+                                       (flags & LaptopFlags.KEYBOARD) != 0,
+                                       (flags & LaptopFlags.TOUCHPAD) != 0,
+                                       (flags & LaptopFlags.TOUCHABLE_SCREEN) != 0,
+                                       buffer.getDouble(), getString(buffer));
+            laptop.setComputerType(getOrdinal(buffer, COMPUTER_TYPES));
+            laptop.setFreshness(getOrdinal(buffer, FRESHNESSES));
+            laptop.setComputerModel(getOrdinal(buffer, MODELS));
+            laptop.setComputerProducer(getOrdinal(buffer, PRODUCERS));
+            laptop.setTarget(getOrdinal(buffer, TARGETS));
+            return laptop;
+        } catch (BufferUnderflowException ex) {
+            StreamCorruptedException corrupted =
+                    new StreamCorruptedException("Truncated or corrupted laptop record");
+            corrupted.initCause(ex);
+            throw corrupted;
+        } catch (ZeroOrTooManyCharactersException | NoOneOrTooManyCoresException
+                 | NoOneOrTooManyHzException | NoOneOrTooManyInchesException
+                 | ZeroOrTooManyUSDException ex) {
+            InvalidObjectException invalid = new InvalidObjectException(ex.getMessage());
+            invalid.initCause(ex);
+            throw invalid;
+        }
+    }
+
+    /**
+     * Rejects a price whose unscaled value does not fit a long or whose scale
+     * does not fit a byte, before anything of the record is written.
+     */
+    private static void checkPrice(BigDecimal price) {
+        if (price.unscaledValue().bitLength() > Long.SIZE - 1
+                || price.scale() < Byte.MIN_VALUE || price.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("The price cannot be encoded: "
+                                               + price.toPlainString());
+        }
+    }
+
+    private void putString(ByteBuffer buffer, String value) {
+        Integer id = ids.get(value);
+
+        if (id != null) {
+            putVarint(buffer, id + 1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > MAX_STRING_SIZE) {
+            throw new IllegalArgumentException("The string is longer than "
+                                               + MAX_STRING_SIZE + " bytes: " + value);
+        }
+
+        ids.put(value, ids.size());
+        encoded.add(value);
+        putVarint(buffer, 0);
+        putVarint(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private String getString(ByteBuffer buffer) throws StreamCorruptedException {
+        int reference = getVarint(buffer);
+
+        if (reference > 0) {
+            if (reference > strings.size()) {
+                throw new StreamCorruptedException("Unknown string ID " + (reference - 1));
+            }
+
+            return strings.get(reference - 1);
+        }
+
+        int length = getVarint(buffer);
+
+        if (length > MAX_STRING_SIZE) {
+            throw new StreamCorruptedException("String of " + length + " bytes");
+        }
+
+        buffer.get(scratch, 0, length);
+        String value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    private static void putOrdinal(ByteBuffer buffer, Enum<?> value) {
+        buffer.put((byte) (value == null ? 0 : value.ordinal() + 1));
+    }
+
+    private static <E extends Enum<E>> E getOrdinal(ByteBuffer buffer, E[] values)
+            throws StreamCorruptedException {
+        int ordinal = buffer.get();
+
+        if (ordinal < 0 || ordinal > values.length) {
+            throw new StreamCorruptedException("Unknown ordinal " + (ordinal - 1) + " of "
+                                               + values[0].getDeclaringClass().getSimpleName());
+        }
+
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) throws StreamCorruptedException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new StreamCorruptedException("Malformed varint");
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+
+/**
+ * The LaptopFlags class packs the boolean properties of a laptop and its
+ * components into the bit set both catalog formats store.
+ */
+final class LaptopFlags {
+    final static int TURNED_ON = 1;
+    final static int WIRELESS_NETWORKING = 1 << 1;
+    final static int CAMERA = 1 << 2;
+    final static int MICROPHONE = 1 << 3;
+    final static int SPEAKERS = 1 << 4;
+    final static int KEYBOARD = 1 << 5;
+    final static int TOUCHPAD = 1 << 6;
+    final static int TOUCHABLE_SCREEN = 1 << 7;
+    final static int TURBO_BOOST = 1 << 8;
+    final static int INTEGRATED_GPU = 1 << 9;
+
+    private LaptopFlags() {}
+
+    static int of(Laptop laptop) {
+        int flags = 0;
+        flags |= laptop.getIsTurnedOn() ? TURNED_ON : 0;
+        flags |= laptop.getHasWirelessNetworking() ? WIRELESS_NETWORKING : 0;
+        flags |= laptop.getHasIntegratedCamera() ? CAMERA : 0;
+        flags |= laptop.getHasIntegratedMicrophone() ? MICROPHONE : 0;
+        flags |= laptop.getHasIntegratedSpeakers() ? SPEAKERS : 0;
+        flags |= laptop.getHasIntegratedKeyboard() ? KEYBOARD : 0;
+        flags |= laptop.getHasTouchpad() ? TOUCHPAD : 0;
+        flags |= laptop.getHasTouchableScreen() ? TOUCHABLE_SCREEN : 0;
+        flags |= laptop.getProcessor().getHasTurboBoost() ? TURBO_BOOST : 0;
+        flags |= laptop.getGraphics().getIntegrated() ? INTEGRATED_GPU : 0;
+        return flags;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.enums.ComputerAttribute;
+import com.solvd.computer.enums.ComputerType;
+import com.solvd.computer.enums.Producer;
+import com.solvd.computer.enums.Target;
+import com.solvd.computer.interfaces.IPredicate;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A filter over the attributes of laptops: a price band, the number of cores
+ * and the target, producer and type. A criterion left out accepts every
+ * laptop. Queries with the same criteria are equal, so a query can key a
+ * cache, and every query knows the attributes its result depends on.
+ */
+public final class LaptopQuery implements IPredicate<Laptop> {
+    private final BigDecimal minPriceInUSD;
+    private final BigDecimal maxPriceInUSD;
+    private final int minNumOfCores;
+    private final int maxNumOfCores;
+    private final Target target;
+    private final Producer computerProducer;
+    private final ComputerType computerType;
+    private final EnumSet<ComputerAttribute> attributes;
+
+    private LaptopQuery(Builder builder) {
+        this.minPriceInUSD = builder.minPriceInUSD;
+        this.maxPriceInUSD = builder.maxPriceInUSD;
+        this.minNumOfCores = builder.minNumOfCores;
+        this.maxNumOfCores = builder.maxNumOfCores;
+        this.target = builder.target;
+        this.computerProducer = builder.computerProducer;
+        this.computerType = builder.computerType;
+        this.attributes = EnumSet.noneOf(ComputerAttribute.class);
+
+        if (minPriceInUSD != null || maxPriceInUSD != null) {
+            attributes.add(ComputerAttribute.PRICE_IN_USD);
+        }
+
+        if (minNumOfCores > 0 || maxNumOfCores < Integer.MAX_VALUE) {
+            attributes.add(ComputerAttribute.PROCESSOR);
+        }
+
+        if (target != null) {
+            attributes.add(ComputerAttribute.TARGET);
+        }
+
+        if (computerProducer != null) {
+            attributes.add(ComputerAttribute.COMPUTER_PRODUCER);
+        }
+
+        if (computerType != null) {
+            attributes.add(ComputerAttribute.COMPUTER_TYPE);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the attributes whose setters may change the result of the
+     * query. The number of cores is covered by PROCESSOR, which changes when
+     * the laptop gets another CPU, not when the cores of its CPU are set.
+     */
+    public Set<ComputerAttribute> getAttributes() {
+        return EnumSet.copyOf(attributes);
+    }
+
+    boolean dependsOn(ComputerAttribute attribute) {
+        return attributes.contains(attribute);
+    }
+
+    @Override
+    public boolean predicate(Laptop laptop) {
+        if (minPriceInUSD != null || maxPriceInUSD != null) {
+            BigDecimal priceInUSD = laptop.getPriceInUSD();
+
+            if (priceInUSD == null
+                    || minPriceInUSD != null && priceInUSD.compareTo(minPriceInUSD) < 0
+                    || maxPriceInUSD != null && priceInUSD.compareTo(maxPriceInUSD) > 0) {
+                return false;
+            }
+        }
+
+        if (minNumOfCores > 0 || maxNumOfCores < Integer.MAX_VALUE) {
+            CPU processor = laptop.getProcessor();
+
+            if (processor == null || processor.getNumOfCores() < minNumOfCores
+                    || processor.getNumOfCores() > maxNumOfCores) {
+                return false;
+            }
+        }
+
+        return (target == null || target == laptop.getTarget())
+               && (computerProducer == null || computerProducer == laptop.getComputerProducer())
+               && (computerType == null || computerType == laptop.getComputerType());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+
+        if (!(object instanceof LaptopQuery query)) {
+            return false;
+        }
+
+        return minNumOfCores == query.minNumOfCores
+               && maxNumOfCores == query.maxNumOfCores
+               && Objects.equals(minPriceInUSD, query.minPriceInUSD)
+               && Objects.equals(maxPriceInUSD, query.maxPriceInUSD)
+               && target == query.target
+               && computerProducer == query.computerProducer
+               && computerType == query.computerType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minPriceInUSD, maxPriceInUSD, minNumOfCores, maxNumOfCores, target,
+                            computerProducer, computerType);
+    }
+
+    @Override
+    public String toString() {
+        return "LaptopQuery{priceInUSD=[" + minPriceInUSD + ", " + maxPriceInUSD
+               + "], numOfCores=[" + minNumOfCores + ", " + maxNumOfCores + "], target=" + target
+               + ", computerProducer=" + computerProducer + ", computerType=" + computerType + "}";
+    }
+
+    public static final class Builder {
+        private BigDecimal minPriceInUSD;
+        private BigDecimal maxPriceInUSD;
+        private int minNumOfCores = 0;
+        private int maxNumOfCores = Integer.MAX_VALUE;
+        private Target target;
+        private Producer computerProducer;
+        private ComputerType computerType;
+
+        private Builder() {}
+
+        /**
+         * Accepts the laptops priced from min to max USD, both included. A
+         * null bound leaves that side open.
+         */
+        public Builder priceInUSD(BigDecimal min, BigDecimal max) {
+            if (min != null && max != null && min.compareTo(max) > 0) {
+                throw new IllegalArgumentException(
+                        "The minimum price should not exceed the maximum.");
+            }
+
+            this.minPriceInUSD = min == null ? null : min.stripTrailingZeros();
+            this.maxPriceInUSD = max == null ? null : max.stripTrailingZeros();
+            return this;
+        }
+
+        public Builder numOfCores(int min, int max) {
+            if (min > max) {
+                throw new IllegalArgumentException(
+                        "The minimum cores should not exceed the maximum.");
+            }
+
+            this.minNumOfCores = min;
+            this.maxNumOfCores = max;
+            return this;
+        }
+
+        public Builder target(Target target) {
+            this.target = target;
+            return this;
+        }
+
+        public Builder computerProducer(Producer computerProducer) {
+            this.computerProducer = computerProducer;
+            return this;
+        }
+
+        public Builder computerType(ComputerType computerType) {
+            this.computerType = computerType;
+            return this;
+        }
+
+        public LaptopQuery build() {
+            return new LaptopQuery(this);
+        }
+    }
+}
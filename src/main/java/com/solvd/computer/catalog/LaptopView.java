@@ -0,0 +1,333 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+import com.solvd.computer.enums.ComputerType;
+import com.solvd.computer.enums.Freshness;
+import com.solvd.computer.enums.Model;
+import com.solvd.computer.enums.Producer;
+import com.solvd.computer.enums.Target;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+
+import java.io.InvalidObjectException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * The LaptopView class is a flyweight over one record of a MappedCatalog.
+ * Its getters follow those of Laptop and its components, flattened, and read
+ * the values straight from the mapped file, so no components are created
+ * unless toLaptop() is called. A view can be moved to any other record and
+ * is not thread-safe.
+ */
+public final class LaptopView {
+    private final static int PRODUCER = 0;
+    private final static int MODEL = 4;
+    private final static int TYPE = 8;
+    private final static int OPERATING_SYSTEM_NAME = 12;
+    private final static int RESOLUTION = 16;
+    private final static int SCREEN_TYPE = 20;
+    private final static int PROCESSOR_NAME = 24;
+    private final static int GRAPHICS_NAME = 28;
+    private final static int MEMORY_TYPE = 32;
+    private final static int STORAGE_TYPE = 36;
+    private final static int COLOR = 40;
+    private final static int NUM_OF_CORES = 44;
+    private final static int SCREEN_SIZE_IN_INCHES = 48;
+    private final static int CLOCK_RATE_IN_GHZ = 56;
+    private final static int WEIGHT_IN_GRAMS = 64;
+    private final static int PRICE_IN_CENTS = 72;
+    private final static int VIDEO_MEMORY_SIZE_IN_GBS = 80;
+    private final static int GRAPHICS_CLOCK_RATE_IN_MHZ = 84;
+    private final static int MEMORY_SIZE_IN_GBS = 88;
+    private final static int MEMORY_CLOCK_RATE_IN_MHZ = 92;
+    private final static int STORAGE_SIZE_IN_GBS = 96;
+    private final static int NUM_OF_USB_TYPE_A = 100;
+    private final static int NUM_OF_MICRO_SD = 101;
+    private final static int NUM_OF_HDMI = 102;
+    private final static int NUM_OF_HEAD_MIC_COMBO = 103;
+    private final static int NUM_OF_USB_TYPE_C = 104;
+    private final static int COMPUTER_TYPE = 105;
+    private final static int FRESHNESS = 106;
+    private final static int COMPUTER_MODEL = 107;
+    private final static int COMPUTER_PRODUCER = 108;
+    private final static int TARGET = 109;
+    private final static int FLAGS = 110;
+    private final static ComputerType[] COMPUTER_TYPES = ComputerType.values();
+    private final static Freshness[] FRESHNESSES = Freshness.values();
+    private final static Model[] MODELS = Model.values();
+    private final static Producer[] PRODUCERS = Producer.values();
+    private final static Target[] TARGETS = Target.values();
+
+    private final MappedCatalog catalog;
+    private ByteBuffer region;
+    private int base;
+    private long index = -1;
+
+    LaptopView(MappedCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public LaptopView moveTo(long index) {
+        this.region = catalog.region(index);
+        this.base = MappedCatalog.offset(index);
+        this.index = index;
+        return this;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public String getProducer() {
+        return string(PRODUCER);
+    }
+
+    public String getModel() {
+        return string(MODEL);
+    }
+
+    public String getType() {
+        return string(TYPE);
+    }
+
+    public String getOperatingSystemName() {
+        return string(OPERATING_SYSTEM_NAME);
+    }
+
+    public double getScreenSizeInInches() {
+        return region.getDouble(base + SCREEN_SIZE_IN_INCHES);
+    }
+
+    public String getResolution() {
+        return string(RESOLUTION);
+    }
+
+    public String getScreenType() {
+        return string(SCREEN_TYPE);
+    }
+
+    public String getProcessorName() {
+        return string(PROCESSOR_NAME);
+    }
+
+    public int getNumOfCores() {
+        return region.getInt(base + NUM_OF_CORES);
+    }
+
+    public double getClockRateInGHz() {
+        return region.getDouble(base + CLOCK_RATE_IN_GHZ);
+    }
+
+    public boolean getHasTurboBoost() {
+        return flag(LaptopFlags.TURBO_BOOST);
+    }
+
+    public String getGraphicsName() {
+        return string(GRAPHICS_NAME);
+    }
+
+    public int getVideoMemorySizeInGBs() {
+        return region.getInt(base + VIDEO_MEMORY_SIZE_IN_GBS);
+    }
+
+    public int getGraphicsClockRateInMHz() {
+        return region.getInt(base + GRAPHICS_CLOCK_RATE_IN_MHZ);
+    }
+
+    public boolean getIntegratedGraphics() {
+        return flag(LaptopFlags.INTEGRATED_GPU);
+    }
+
+    public int getMemorySizeInGBs() {
+        return region.getInt(base + MEMORY_SIZE_IN_GBS);
+    }
+
+    public int getMemoryClockRateInMHz() {
+        return region.getInt(base + MEMORY_CLOCK_RATE_IN_MHZ);
+    }
+
+    public String getMemoryType() {
+        return string(MEMORY_TYPE);
+    }
+
+    public int getStorageSizeInGBs() {
+        return region.getInt(base + STORAGE_SIZE_IN_GBS);
+    }
+
+    public String getStorageType() {
+        return string(STORAGE_TYPE);
+    }
+
+    public int getNumOfUSBTypeA() {
+        return region.get(base + NUM_OF_USB_TYPE_A);
+    }
+
+    public int getNumOfMicroSD() {
+        return region.get(base + NUM_OF_MICRO_SD);
+    }
+
+    public int getNumOfHDMI() {
+        return region.get(base + NUM_OF_HDMI);
+    }
+
+    public int getNumOfHeadMicCombo() {
+        return region.get(base + NUM_OF_HEAD_MIC_COMBO);
+    }
+
+    public int getNumOfUSBTypeC() {
+        return region.get(base + NUM_OF_USB_TYPE_C);
+    }
+
+    public long getPriceInCents() {
+        return region.getLong(base + PRICE_IN_CENTS);
+    }
+
+    /**
+     * Returns the price as a new BigDecimal, getPriceInCents() avoids the
+     * allocation.
+     */
+    public BigDecimal getPriceInUSD() {
+        return BigDecimal.valueOf(getPriceInCents(), 2);
+    }
+
+    public boolean getIsTurnedOn() {
+        return flag(LaptopFlags.TURNED_ON);
+    }
+
+    public boolean getHasWirelessNetworking() {
+        return flag(LaptopFlags.WIRELESS_NETWORKING);
+    }
+
+    public boolean getHasIntegratedCamera() {
+        return flag(LaptopFlags.CAMERA);
+    }
+
+    public boolean getHasIntegratedMicrophone() {
+        return flag(LaptopFlags.MICROPHONE);
+    }
+
+    public boolean getHasIntegratedSpeakers() {
+        return flag(LaptopFlags.SPEAKERS);
+    }
+
+    public boolean getHasIntegratedKeyboard() {
+        return flag(LaptopFlags.KEYBOARD);
+    }
+
+    public boolean getHasTouchpad() {
+        return flag(LaptopFlags.TOUCHPAD);
+    }
+
+    public boolean getHasTouchableScreen() {
+        return flag(LaptopFlags.TOUCHABLE_SCREEN);
+    }
+
+    public double getWeightInGrams() {
+        return region.getDouble(base + WEIGHT_IN_GRAMS);
+    }
+
+    public String getColor() {
+        return string(COLOR);
+    }
+
+    public ComputerType getComputerType() {
+        return constant(COMPUTER_TYPE, COMPUTER_TYPES);
+    }
+
+    public Freshness getFreshness() {
+        return constant(FRESHNESS, FRESHNESSES);
+    }
+
+    public Model getComputerModel() {
+        return constant(COMPUTER_MODEL, MODELS);
+    }
+
+    public Producer getComputerProducer() {
+        return constant(COMPUTER_PRODUCER, PRODUCERS);
+    }
+
+    public Target getTarget() {
+        return constant(TARGET, TARGETS);
+    }
+
+    /**
+     * Creates the laptop the current record was written from.
+     */
+    public Laptop toLaptop() throws InvalidObjectException {
+        try {
+            Laptop laptop = new Laptop(getProducer(), getModel(), getType(),
+                                       new OperatingSystem(getOperatingSystemName()),
+                                       new Display(getScreenSizeInInches(), getResolution(),
+                                                   getScreenType()),
+                                       new CPU(getProcessorName(), getNumOfCores(),
+                                               getClockRateInGHz(), getHasTurboBoost()),
+                                       new GPU(getGraphicsName(), getVideoMemorySizeInGBs(),
+                                               getGraphicsClockRateInMHz(),
+                                               getIntegratedGraphics()),
+                                       new RAM(getMemorySizeInGBs(), getMemoryClockRateInMHz(),
+                                               getMemoryType()),
+                                       new Storage(getStorageSizeInGBs(), getStorageType()),
+                                       new Port(getNumOfUSBTypeA(), getNumOfMicroSD(),
+                                                getNumOfHDMI(), getNumOfHeadMicCombo(),
+                                                getNumOfUSBTypeC()),
+                                       getPriceInUSD(), getIsTurnedOn(),
+                                       getHasWirelessNetworking(), getHasIntegratedCamera(),
+                                       getHasIntegratedMicrophone(), getHasIntegratedSpeakers(),
+                                       getHasIntegratedKeyboard(), getHasTouchpad(),
+                                       getHasTouchableScreen(), getWeightInGrams(), getColor());
+            laptop.setComputerType(getComputerType());
+            laptop.setFreshness(getFreshness());
+            laptop.setComputerModel(getComputerModel());
+            laptop.setComputerProducer(getComputerProducer());
+            laptop.setTarget(getTarget());
+            return laptop;
+        } catch (ZeroOrTooManyCharactersException | NoOneOrTooManyCoresException
+                 | NoOneOrTooManyHzException | NoOneOrTooManyInchesException
+                 | ZeroOrTooManyUSDException ex) {
+            InvalidObjectException invalid = new InvalidObjectException(ex.getMessage());
+            invalid.initCause(ex);
+            throw invalid;
+        }
+    }
+
+    private String string(int field) {
+        return catalog.string(region.getInt(base + field));
+    }
+
+    private boolean flag(int flag) {
+        return (region.getShort(base + FLAGS) & flag) != 0;
+    }
+
+    private <E extends Enum<E>> E constant(int field, E[] values) {
+        int ordinal = region.get(base + field);
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.interfaces.IConsume;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The MappedCatalog class opens a catalog file written by MappedCatalogWriter
+ * read-only and memory-mapped, so opening it costs the same for any number of
+ * laptops and the pages are shared through the page cache with every other
+ * process that maps the file. The file starts with a header of 64 bytes: the
+ * magic "LPM1", the version, the record size, the number of strings, the
+ * number of records and the offset of the string table. The fixed-size
+ * records follow, in which all strings are IDs in the string table at the end
+ * of the file. LaptopView reads the properties of a record directly from the
+ * mapping; only strings are decoded, once per distinct string.
+ */
+public final class MappedCatalog implements Closeable {
+    public final static int HEADER_SIZE = 64;
+    public final static int RECORD_SIZE = 112;
+    final static int MAGIC = 0x314d504c;
+    final static int VERSION = 1;
+    private final static int REGION_SHIFT = 24;
+    private final static long REGION_MASK = (1L << REGION_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final long size;
+    private final MappedByteBuffer[] regions;
+    private final ByteBuffer strings;
+    private final int stringCount;
+    private final int stringsStart;
+    private final String[] decoded;
+
+    private MappedCatalog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                        Math.min(HEADER_SIZE, channel.size()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a mapped laptop catalog");
+        }
+
+        int version = header.getInt();
+        int recordSize = header.getInt();
+
+        if (version != VERSION || recordSize != RECORD_SIZE) {
+            throw new StreamCorruptedException("Unsupported catalog version " + version
+                                               + " with records of " + recordSize + " bytes");
+        }
+
+        this.stringCount = header.getInt();
+        this.size = header.getLong();
+        long stringsOffset = header.getLong();
+
+        if (size < 0 || stringsOffset != HEADER_SIZE + size * RECORD_SIZE
+                || stringsOffset > channel.size()) {
+            throw new StreamCorruptedException("Inconsistent catalog header");
+        }
+
+        this.regions = new MappedByteBuffer[(int) ((size + REGION_MASK) >>> REGION_SHIFT)];
+
+        for (int i = 0; i < regions.length; i++) {
+            long first = (long) i << REGION_SHIFT;
+            long records = Math.min(size - first, 1L << REGION_SHIFT);
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                     HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+            regions[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        this.strings = channel.map(FileChannel.MapMode.READ_ONLY, stringsOffset,
+                                   channel.size() - stringsOffset)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        if (stringCount < 0 || Integer.BYTES * (stringCount + 2L) > strings.capacity()) {
+            throw new StreamCorruptedException("Inconsistent string table");
+        }
+
+        this.stringsStart = Integer.BYTES * (stringCount + 2);
+        this.decoded = new String[stringCount];
+    }
+
+    public static MappedCatalog open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+            return new MappedCatalog(channel);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns a new view positioned at the record with the given index.
+     */
+    public LaptopView view(long index) {
+        return new LaptopView(this).moveTo(index);
+    }
+
+    public Laptop get(long index) throws InvalidObjectException {
+        return view(index).toLaptop();
+    }
+
+    /**
+     * Passes every record in order to the consumer through a single view,
+     * which must therefore not be kept by the consumer.
+     */
+    public void forEach(IConsume<LaptopView> consumer) {
+        LaptopView view = new LaptopView(this);
+
+        for (long i = 0; i < size; i++) {
+            consumer.consume(view.moveTo(i));
+        }
+    }
+
+    /**
+     * Closes the file. The mappings stay valid until they are garbage
+     * collected, so views must not be used after the catalog is closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    ByteBuffer region(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + size);
+        }
+
+        return regions[(int) (index >>> REGION_SHIFT)];
+    }
+
+    static int offset(long index) {
+        return (int) (index & REGION_MASK) * RECORD_SIZE;
+    }
+
+    /**
+     * Returns the string with the given ID, decoding it on the first request.
+     * Concurrent first requests may decode the same string more than once,
+     * which is harmless since strings are immutable.
+     */
+    String string(int id) {
+        if (id < 0 || id >= stringCount) {
+            throw new IndexOutOfBoundsException("String " + id + " of " + stringCount);
+        }
+
+        String value = decoded[id];
+
+        if (value == null) {
+            int start = strings.getInt(Integer.BYTES * (id + 1));
+            int end = strings.getInt(Integer.BYTES * (id + 2));
+
+            if (start < 0 || start > end || end > strings.capacity() - stringsStart) {
+                throw new IndexOutOfBoundsException("String " + id + " lies outside the table");
+            }
+
+            byte[] bytes = new byte[end - start];
+            strings.get(stringsStart + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            decoded[id] = value;
+        }
+
+        return value;
+    }
+}
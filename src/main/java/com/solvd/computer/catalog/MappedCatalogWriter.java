@@ -0,0 +1,227 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The MappedCatalogWriter class writes laptops into the file format read by
+ * MappedCatalog. The records are streamed into the file as they come, while
+ * the distinct strings are collected and written as the string table behind
+ * the last record. The header is written last, so a file that was not closed
+ * is rejected by MappedCatalog.
+ */
+public final class MappedCatalogWriter implements Closeable {
+    private final static int BUFFER_SIZE = MappedCatalog.RECORD_SIZE << 13;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<byte[]> strings = new ArrayList<>();
+    private long position = MappedCatalog.HEADER_SIZE;
+    private long count = 0;
+
+    private MappedCatalogWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static MappedCatalogWriter open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        return new MappedCatalogWriter(FileChannel.open(file, StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Appends the laptop as the next record. The price must not have more
+     * than two decimal places, since it is stored in cents; a laptop whose
+     * price does not fit is rejected before anything is written.
+     */
+    public void write(Laptop laptop) throws IOException {
+        long priceInCents = cents(laptop.getPriceInUSD());
+
+        if (buffer.remaining() < MappedCatalog.RECORD_SIZE) {
+            flush();
+        }
+
+        CPU processor = laptop.getProcessor();
+        GPU graphics = laptop.getGraphics();
+        Display screen = laptop.getScreen();
+        RAM memory = laptop.getMemory();
+        Storage storage = laptop.getStorage();
+        Port ports = laptop.getPorts();
+        int record = buffer.position();
+
+        buffer.putInt(id(laptop.getProducer()))
+                .putInt(id(laptop.getModel()))
+                .putInt(id(laptop.getType()))
+                .putInt(id(laptop.getOperatingSystem().getName()))
+                .putInt(id(screen.getResolution()))
+                .putInt(id(screen.getType()))
+                .putInt(id(processor.getName()))
+                .putInt(id(graphics.getName()))
+                .putInt(id(memory.getType()))
+                .putInt(id(storage.getType()))
+                .putInt(id(laptop.getColor()))
+                .putInt(processor.getNumOfCores())
+                .putDouble(screen.getScreenSizeInInches())
+                .putDouble(processor.getClockRateInGHz())
+                .putDouble(laptop.getWeightInGrams())
+                .putLong(priceInCents)
+                .putInt(graphics.getVideoMemorySizeInGBs())
+                .putInt(graphics.getClockRateInMHz())
+                .putInt(memory.getMemorySizeInGBs())
+                .putInt(memory.getClockRateInMHz())
+                .putInt(storage.getSizeInGBs())
+                .put((byte) ports.getNumOfUSBTypeA())
+                .put((byte) ports.getNumOfMicroSD())
+                .put((byte) ports.getNumOfHDMI())
+                .put((byte) ports.getNumOfHeadMicCombo())
+                .put((byte) ports.getNumOfUSBTypeC())
+                .put(ordinal(laptop.getComputerType()))
+                .put(ordinal(laptop.getFreshness()))
+                .put(ordinal(laptop.getComputerModel()))
+                .put(ordinal(laptop.getComputerProducer()))
+                .put(ordinal(laptop.getTarget()))
+                .putShort((short) LaptopFlags.of(laptop));
+        buffer.position(record + MappedCatalog.RECORD_SIZE);
+        count++;
+    }
+
+    public void writeAll(Iterable<? extends Laptop> laptops) throws IOException {
+        for (Laptop laptop : laptops) {
+            write(laptop);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Writes the string table and the header and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            long stringsOffset = position;
+            int offset = 0;
+            buffer.putInt(strings.size());
+
+            for (byte[] string : strings) {
+                putFlushing(buffer.remaining() >= Integer.BYTES).putInt(offset);
+                offset += string.length;
+            }
+
+            putFlushing(buffer.remaining() >= Integer.BYTES).putInt(offset);
+
+            for (byte[] string : strings) {
+                putFlushing(buffer.remaining() >= string.length).put(string);
+            }
+
+            flush();
+            buffer.putInt(MappedCatalog.MAGIC)
+                    .putInt(MappedCatalog.VERSION)
+                    .putInt(MappedCatalog.RECORD_SIZE)
+                    .putInt(strings.size())
+                    .putLong(count)
+                    .putLong(stringsOffset);
+
+            while (buffer.position() < MappedCatalog.HEADER_SIZE) {
+                buffer.put((byte) 0);
+            }
+
+            buffer.flip();
+            channel.write(buffer, 0);
+            buffer.clear();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static long cents(BigDecimal price) {
+        try {
+            return price.movePointRight(2).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("The price cannot be stored in cents: "
+                                               + price.toPlainString(), ex);
+        }
+    }
+
+    private int id(String value) {
+        Integer id = ids.get(value);
+
+        if (id == null) {
+            id = strings.size();
+            ids.put(value, id);
+            strings.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return id;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return (byte) (value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private ByteBuffer putFlushing(boolean fits) throws IOException {
+        if (!fits) {
+            flush();
+        }
+
+        return buffer;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+
+        buffer.clear();
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.enums.ComputerAttribute;
+import com.solvd.computer.interfaces.IObserve;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * The QueryCache class keeps the IDs of the laptops a StripedCatalog returns
+ * for recent queries, bounded both by the number of results and by their
+ * total weight, one per ID.
+ *
+ * What is kept is decided as in W-TinyLFU: a new result enters a small window
+ * kept in LRU order, and when it leaves the window it only stays if it was
+ * asked for more often than the least recently used result of the main
+ * space, whose frequencies are estimated by a FrequencySketch. The main space
+ * keeps the results asked for again in a protected part and the rest on
+ * probation, so one scan of new queries cannot wash out the popular ones.
+ *
+ * The cache observes every laptop added through it. When a setter changes an
+ * attribute, only the results of the queries depending on that attribute are
+ * checked and only those the laptop joins or leaves are dropped. A result
+ * computed while a relevant attribute changed is returned but not kept.
+ * Laptops must be added to and removed from the catalog through the cache
+ * and only changed through their setters.
+ *
+ * Only the setters of the laptop itself are observed, not those of its
+ * components. A query on the number of cores depends on the processor, so
+ * changing the cores of a laptop's CPU through CPU.setNumOfCores leaves its
+ * results stale: give the laptop a new CPU through setProcessor, or call
+ * invalidateAll after changing a component in place.
+ */
+public final class QueryCache {
+    private final static int STRUCTURE = ComputerAttribute.values().length;
+    private final static ComputerAttribute[] ATTRIBUTES = ComputerAttribute.values();
+    private final static int WINDOW_PERCENT = 1;
+    private final static int PROTECTED_PERCENT = 80;
+    private final static Counter HITS = MetricsRegistry.counter("catalog.query.cache.hits");
+    private final static Counter MISSES = MetricsRegistry.counter("catalog.query.cache.misses");
+    private final static Counter EVICTIONS =
+            MetricsRegistry.counter("catalog.query.cache.evictions");
+    private final static Counter INVALIDATIONS =
+            MetricsRegistry.counter("catalog.query.cache.invalidations");
+    private final static Histogram MISS_LATENCY =
+            MetricsRegistry.histogram("catalog.query.cache.miss.latency");
+
+    private final StripedCatalog catalog;
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final int windowMaximumSize;
+    private final long windowMaximumWeight;
+    private final long protectedMaximumWeight;
+    private final Map<LaptopQuery, Node> entries = new ConcurrentHashMap<>();
+    private final Map<ComputerAttribute, Set<Node>> dependents =
+            new EnumMap<>(ComputerAttribute.class);
+    private final Map<Long, IObserve> observers = new ConcurrentHashMap<>();
+    private final AtomicLongArray changes = new AtomicLongArray(STRUCTURE + 1);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protectedOrder = new AccessOrder();
+
+    /**
+     * Creates a cache over an empty catalog that keeps at most maximumSize
+     * results of at most maximumWeight IDs in all.
+     */
+    public QueryCache(StripedCatalog catalog, int maximumSize, long maximumWeight) {
+        if (maximumSize <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("The maximum size and weight must be positive");
+        }
+
+        if (catalog.size() != 0) {
+            throw new IllegalArgumentException("The catalog must be empty");
+        }
+
+        this.catalog = catalog;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.windowMaximumSize = Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+        this.windowMaximumWeight = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+        this.protectedMaximumWeight = (maximumWeight - windowMaximumWeight) * PROTECTED_PERCENT
+                                      / 100;
+        this.sketch = new FrequencySketch(maximumSize);
+
+        for (ComputerAttribute attribute : ATTRIBUTES) {
+            dependents.put(attribute, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Adds the laptop to the catalog, observes its setters and drops the
+     * results it joins.
+     */
+    public long add(Laptop laptop) {
+        long id = catalog.add(laptop);
+        IObserve observer = (computer, attribute, oldValue, newValue) ->
+                changed(id, laptop, attribute);
+        observers.put(id, observer);
+        laptop.addObserver(observer);
+        changes.incrementAndGet(STRUCTURE);
+
+        for (Node node : entries.values()) {
+            if (affects(node, id, laptop)) {
+                invalidate(node);
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * Removes the laptop from the catalog and drops the results it was in.
+     */
+    public boolean remove(long id) {
+        Laptop laptop = catalog.read(id, Function.identity());
+
+        if (laptop == null || !catalog.remove(id)) {
+            return false;
+        }
+
+        IObserve observer = observers.remove(id);
+
+        if (observer != null) {
+            laptop.removeObserver(observer);
+        }
+
+        changes.incrementAndGet(STRUCTURE);
+
+        for (Node node : entries.values()) {
+            if (Arrays.binarySearch(node.ids, id) >= 0) {
+                invalidate(node);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the IDs of the laptops the query accepts in ascending order,
+     * from the cache if it has them and from the catalog otherwise.
+     */
+    public long[] find(LaptopQuery query) {
+        Node node = entries.get(query);
+
+        if (node != null) {
+            hits.increment();
+            HITS.increment();
+
+            if (evictionLock.tryLock()) {
+                try {
+                    access(node);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+
+            return node.ids.clone();
+        }
+
+        long start = System.nanoTime();
+        misses.increment();
+        MISSES.increment();
+        long[] versions = versions(query);
+        long[] ids = catalog.find(query);
+        Node created = new Node(query, ids);
+
+        if (created.weight <= maximumWeight) {
+            install(created);
+
+            if (!Arrays.equals(versions, versions(query))) {
+                invalidate(created);
+            }
+        }
+
+        MISS_LATENCY.recordSince(start);
+        return ids.clone();
+    }
+
+    /**
+     * Drops every result.
+     */
+    public void invalidateAll() {
+        for (Node node : entries.values()) {
+            invalidate(node);
+        }
+    }
+
+    public Stats getStats() {
+        evictionLock.lock();
+
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(),
+                             window.size + probation.size + protectedOrder.size,
+                             window.weight + probation.weight + protectedOrder.weight);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Called by the setters of the laptop with the ID, after the attribute
+     * has changed.
+     */
+    private void changed(long id, Laptop laptop, ComputerAttribute attribute) {
+        changes.incrementAndGet(attribute.ordinal());
+
+        for (Node node : dependents.get(attribute)) {
+            if (affects(node, id, laptop)) {
+                invalidate(node);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the laptop joined or left the result.
+     */
+    private static boolean affects(Node node, long id, Laptop laptop) {
+        return Arrays.binarySearch(node.ids, id) >= 0 != node.query.predicate(laptop);
+    }
+
+    /**
+     * Returns the number of changes made so far to the attributes the query
+     * depends on and to the laptops of the catalog.
+     */
+    private long[] versions(LaptopQuery query) {
+        long[] versions = new long[STRUCTURE + 1];
+
+        for (ComputerAttribute attribute : ATTRIBUTES) {
+            if (query.dependsOn(attribute)) {
+                versions[attribute.ordinal()] = changes.get(attribute.ordinal());
+            }
+        }
+
+        versions[STRUCTURE] = changes.get(STRUCTURE);
+        return versions;
+    }
+
+    private void install(Node node) {
+        evictionLock.lock();
+
+        try {
+            sketch.increment(node.hash);
+            Node old = entries.put(node.query, node);
+
+            if (old != null) {
+                unlink(old);
+            }
+
+            window.addLast(node);
+
+            for (ComputerAttribute attribute : ATTRIBUTES) {
+                if (node.query.dependsOn(attribute)) {
+                    dependents.get(attribute).add(node);
+                }
+            }
+
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void invalidate(Node node) {
+        if (!entries.remove(node.query, node)) {
+            return;
+        }
+
+        evictionLock.lock();
+
+        try {
+            unlink(node);
+        } finally {
+            evictionLock.unlock();
+        }
+
+        invalidations.increment();
+        INVALIDATIONS.increment();
+    }
+
+    /**
+     * Counts the use of the result and moves it to the most recently used
+     * end of its part, promoting it from probation to the protected part.
+     * Called with the eviction lock held.
+     */
+    private void access(Node node) {
+        sketch.increment(node.hash);
+
+        if (node.order == probation) {
+            probation.remove(node);
+            protectedOrder.addLast(node);
+
+            while (protectedOrder.weight > protectedMaximumWeight && protectedOrder.size > 1) {
+                Node demoted = protectedOrder.first();
+                protectedOrder.remove(demoted);
+                probation.addLast(demoted);
+            }
+        } else if (node.order != null) {
+            node.order.moveToLast(node);
+        }
+    }
+
+    /**
+     * Moves the results that overflow the window to probation and evicts
+     * until the cache fits its bounds. A result that has just left the window
+     * is evicted instead of the least recently used result on probation
+     * unless it was asked for more often. Called with the eviction lock held.
+     */
+    private void evict() {
+        while ((window.weight > windowMaximumWeight || window.size > windowMaximumSize)
+               && window.size > 1) {
+            Node candidate = window.first();
+            window.remove(candidate);
+            probation.addLast(candidate);
+        }
+
+        while (window.size + probation.size + protectedOrder.size > maximumSize
+               || window.weight + probation.weight + protectedOrder.weight > maximumWeight) {
+            Node victim = probation.first();
+            Node candidate = probation.last();
+
+            if (victim == null) {
+                victim = protectedOrder.first() != null ? protectedOrder.first() : window.first();
+            } else if (victim != candidate
+                       && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                victim = candidate;
+            }
+
+            entries.remove(victim.query, victim);
+            unlink(victim);
+            evictions.increment();
+            EVICTIONS.increment();
+        }
+    }
+
+    /**
+     * Takes the result out of its part and out of the dependents. Called with
+     * the eviction lock held.
+     */
+    private void unlink(Node node) {
+        if (node.order == null) {
+            return;
+        }
+
+        node.order.remove(node);
+
+        for (ComputerAttribute attribute : ATTRIBUTES) {
+            if (node.query.dependsOn(attribute)) {
+                dependents.get(attribute).remove(node);
+            }
+        }
+    }
+
+    /**
+     * The hits, misses, evictions and invalidations so far and the number and
+     * weight of the results kept.
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size,
+                        long weight) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    /**
+     * A kept result, linked into one of the parts in access order.
+     */
+    private final static class Node {
+        private final LaptopQuery query;
+        private final long[] ids;
+        private final long weight;
+        private final int hash;
+        private AccessOrder order;
+        private Node previous;
+        private Node next;
+
+        private Node(LaptopQuery query, long[] ids) {
+            this.query = query;
+            this.ids = ids;
+            this.weight = Math.max(1, ids.length);
+            this.hash = query.hashCode();
+        }
+    }
+
+    /**
+     * The results of a part from the least to the most recently used, with
+     * their number and weight.
+     */
+    private final static class AccessOrder {
+        private Node first;
+        private Node last;
+        private int size = 0;
+        private long weight = 0;
+
+        private Node first() {
+            return first;
+        }
+
+        private Node last() {
+            return last;
+        }
+
+        private void addLast(Node node) {
+            node.order = this;
+            node.previous = last;
+            node.next = null;
+
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+
+            last = node;
+            size++;
+            weight += node.weight;
+        }
+
+        private void remove(Node node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+
+            node.order = null;
+            node.previous = null;
+            node.next = null;
+            size--;
+            weight -= node.weight;
+        }
+
+        private void moveToLast(Node node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.CRC32C;
+
+/**
+ * The RecordReader class reads back the records framed by RecordWriter
+ * through a single reusable direct buffer. Every record is checked against
+ * its CRC32C before its payload is handed out, so a damaged file is reported
+ * instead of reaching the validation of the components.
+ */
+final class RecordReader implements Closeable {
+    private final static int BUFFER_SIZE = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+    private boolean endOfStream = false;
+    private long count = 0;
+    private long validLength = RecordWriter.HEADER_SIZE;
+
+    RecordReader(ReadableByteChannel channel, int magic, int version) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+
+        if (!fill(RecordWriter.HEADER_SIZE)) {
+            throw new EOFException("Missing header");
+        }
+
+        int actualMagic = buffer.getInt();
+        int actualVersion = buffer.getInt();
+
+        if (actualMagic != magic) {
+            throw new StreamCorruptedException("Unexpected magic " + Integer.toHexString(actualMagic));
+        }
+
+        if (actualVersion != version) {
+            throw new StreamCorruptedException("Unsupported version " + actualVersion);
+        }
+    }
+
+    /**
+     * Returns the payload of the next record or null at the end of the file.
+     * The payload stays valid until the next call.
+     */
+    ByteBuffer next() throws IOException {
+        if (!fill(RecordWriter.RECORD_HEADER_SIZE)) {
+            if (buffer.hasRemaining()) {
+                throw new EOFException("Truncated record header after " + count + " records");
+            }
+
+            return null;
+        }
+
+        int length = buffer.getInt();
+        int expected = buffer.getInt();
+
+        if (length < 0 || length > LaptopCodec.MAX_RECORD_SIZE) {
+            throw new StreamCorruptedException("Record " + count + " of " + length + " bytes");
+        }
+
+        if (!fill(length)) {
+            throw new EOFException("Truncated record " + count);
+        }
+
+        ByteBuffer payload = buffer.slice(buffer.position(), length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        checksum.reset();
+        checksum.update(payload.duplicate());
+
+        if ((int) checksum.getValue() != expected) {
+            throw new StreamCorruptedException("Checksum mismatch in record " + count);
+        }
+
+        buffer.position(buffer.position() + length);
+        validLength += RecordWriter.RECORD_HEADER_SIZE + length;
+        count++;
+        return payload;
+    }
+
+    /**
+     * Checks that the payload returned last was decoded completely.
+     */
+    void verify(ByteBuffer payload) throws StreamCorruptedException {
+        if (payload.hasRemaining()) {
+            throw new StreamCorruptedException("Record " + (count - 1) + " has "
+                                               + payload.remaining() + " unread bytes");
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the length of the header and the intact records read so far.
+     */
+    long getValidLength() {
+        return validLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+
+        buffer.compact();
+
+        while (buffer.position() < bytes && !endOfStream) {
+            endOfStream = channel.read(buffer) < 0;
+        }
+
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32C;
+
+/**
+ * The RecordWriter class frames the records of the streamed catalog files:
+ * a header of the magic and the version, then records of their length, the
+ * CRC32C of their payload and the payload, all in little-endian order. The
+ * records are collected in a single reusable direct buffer.
+ */
+final class RecordWriter implements Closeable {
+    final static int HEADER_SIZE = 8;
+    final static int RECORD_HEADER_SIZE = 8;
+    private final static int BUFFER_SIZE = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+    private int start = -1;
+    private long count = 0;
+
+    RecordWriter(WritableByteChannel channel, int magic, int version) {
+        this.channel = channel;
+        buffer.putInt(magic).putInt(version);
+    }
+
+    /**
+     * Starts a record and returns the buffer its payload of at most
+     * LaptopCodec.MAX_RECORD_SIZE bytes is to be put into.
+     */
+    ByteBuffer begin() throws IOException {
+        if (buffer.remaining() < RECORD_HEADER_SIZE + LaptopCodec.MAX_RECORD_SIZE) {
+            flush();
+        }
+
+        start = reserve(buffer);
+        return buffer;
+    }
+
+    void end() {
+        seal(buffer, start, checksum);
+        start = -1;
+        count++;
+    }
+
+    /**
+     * Drops the record begun last, for a payload that could not be put.
+     */
+    void abort() {
+        buffer.position(start);
+        start = -1;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Skips the header of a record in the buffer and returns its position.
+     */
+    static int reserve(ByteBuffer buffer) {
+        int position = buffer.position();
+        buffer.position(position + RECORD_HEADER_SIZE);
+        return position;
+    }
+
+    /**
+     * Fills in the header of the record that starts at the given position and
+     * ends at the position of the buffer.
+     */
+    static void seal(ByteBuffer buffer, int start, CRC32C checksum) {
+        int length = buffer.position() - start - RECORD_HEADER_SIZE;
+        checksum.reset();
+        checksum.update(buffer.slice(start + RECORD_HEADER_SIZE, length));
+        buffer.putInt(start, length).putInt(start + Integer.BYTES, (int) checksum.getValue());
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+import com.solvd.computer.interfaces.IPredicate;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * The StripedCatalog class splits the laptops into independent stripes by
+ * their IDs, each guarded by its own StampedLock, so writers of laptops in
+ * different stripes never wait for each other. The IDs are given out in
+ * order and dealt round the stripes, so every stripe keeps its laptops in a
+ * dense array indexed by the rest of the ID.
+ *
+ * A laptop is read without locking at all when no writer of its stripe
+ * interferes, and under the read lock of the stripe otherwise. Queries over
+ * the whole catalog go through the stripes in parallel, each under its own
+ * read lock.
+ */
+public final class StripedCatalog {
+    private final static int STRIPES_PER_PROCESSOR = 4;
+    private final static int INITIAL_STRIPE_CAPACITY = 16;
+    private final static Counter OPTIMISTIC_FAILURES =
+            MetricsRegistry.counter("catalog.striped.optimistic.failures");
+
+    private final Stripe[] stripes;
+    private final int stripeBits;
+    private final AtomicLong nextId = new AtomicLong();
+
+    public StripedCatalog() {
+        this(STRIPES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a catalog of at least the given number of stripes, rounded up
+     * to a power of two.
+     */
+    public StripedCatalog(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("The number of stripes must be positive");
+        }
+
+        this.stripeBits = 32 - Integer.numberOfLeadingZeros(stripes - 1);
+        this.stripes = new Stripe[1 << stripeBits];
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Adds the laptop and returns its ID. The catalog owns the laptop from
+     * then on: it must only be changed through update.
+     */
+    public long add(Laptop laptop) {
+        long id = nextId.getAndIncrement();
+        Stripe stripe = stripe(id);
+        int slot = slot(id);
+        long stamp = stripe.lock.writeLock();
+
+        try {
+            if (slot >= stripe.laptops.length) {
+                stripe.laptops = Arrays.copyOf(stripe.laptops,
+                                               Math.max(slot + 1, 2 * stripe.laptops.length));
+            }
+
+            stripe.laptops[slot] = laptop;
+            stripe.size++;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+
+        return id;
+    }
+
+    /**
+     * Applies the change to the laptop under the write lock of its stripe, so
+     * no reader sees it half made. A change that fails keeps what it changed
+     * before the failure. Returns false if there is no such laptop.
+     */
+    public boolean update(long id, LaptopChange change) throws ZeroOrTooManyCharactersException,
+            ZeroOrTooManyUSDException, NoOneOrTooManyInchesException, NoOneOrTooManyCoresException,
+            NoOneOrTooManyHzException {
+        Stripe stripe = stripe(id);
+        long stamp = stripe.lock.writeLock();
+
+        try {
+            Laptop laptop = stripe.get(slot(id));
+
+            if (laptop == null) {
+                return false;
+            }
+
+            change.apply(laptop);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long id) {
+        Stripe stripe = stripe(id);
+        int slot = slot(id);
+        long stamp = stripe.lock.writeLock();
+
+        try {
+            if (stripe.get(slot) == null) {
+                return false;
+            }
+
+            stripe.laptops[slot] = null;
+            stripe.size--;
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns what the reader makes of the laptop or null if there is none.
+     * The reader is first run without a lock and run again under the read
+     * lock if a writer of the stripe got in the way, so it must have no side
+     * effects and must not keep the laptop.
+     */
+    public <R> R read(long id, Function<Laptop, R> reader) {
+        Stripe stripe = stripe(id);
+        int slot = slot(id);
+        long stamp = stripe.lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            try {
+                Laptop laptop = stripe.get(slot);
+                R result = laptop == null ? null : reader.apply(laptop);
+
+                if (stripe.lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException ex) {
+                if (stripe.lock.validate(stamp)) {
+                    throw ex;
+                }
+            }
+
+            OPTIMISTIC_FAILURES.increment();
+        }
+
+        stamp = stripe.lock.readLock();
+
+        try {
+            Laptop laptop = stripe.get(slot);
+            return laptop == null ? null : reader.apply(laptop);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns what the mapper makes of every laptop the filter accepts, the
+     * stripes being searched in parallel. As with read, the mapper must not
+     * keep the laptop.
+     */
+    public <R> List<R> select(IPredicate<Laptop> filter, Function<Laptop, R> mapper) {
+        return Arrays.stream(stripes)
+                .parallel()
+                .map(stripe -> stripe.select(filter, mapper))
+                .collect(ArrayList::new, List::addAll, List::addAll);
+    }
+
+    /**
+     * Returns the IDs of the laptops the filter accepts in ascending order,
+     * the stripes being searched in parallel.
+     */
+    public long[] find(IPredicate<Laptop> filter) {
+        return IntStream.range(0, stripes.length)
+                .parallel()
+                .mapToObj(index -> stripes[index].find(filter, index, stripeBits))
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Counts the laptops the filter accepts, the stripes being searched in
+     * parallel.
+     */
+    public long count(IPredicate<Laptop> filter) {
+        return Arrays.stream(stripes)
+                .parallel()
+                .mapToLong(stripe -> stripe.count(filter))
+                .sum();
+    }
+
+    public long size() {
+        long size = 0;
+
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+
+        return size;
+    }
+
+    private Stripe stripe(long id) {
+        return stripes[(int) id & stripes.length - 1];
+    }
+
+    private int slot(long id) {
+        return (int) (id >>> stripeBits);
+    }
+
+    /**
+     * The laptops whose IDs end in the same bits, at the rest of their IDs.
+     * The array is only replaced and changed under the write lock.
+     */
+    private final static class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private Laptop[] laptops = new Laptop[INITIAL_STRIPE_CAPACITY];
+        private int size = 0;
+
+        /**
+         * Returns the laptop at the slot. Reading the array while a writer
+         * replaces it is harmless, as the optimistic reader validates its
+         * stamp after.
+         */
+        private Laptop get(int slot) {
+            Laptop[] current = laptops;
+            return slot >= 0 && slot < current.length ? current[slot] : null;
+        }
+
+        private <R> List<R> select(IPredicate<Laptop> filter, Function<Laptop, R> mapper) {
+            List<R> selected = new ArrayList<>();
+            long stamp = lock.readLock();
+
+            try {
+                for (Laptop laptop : laptops) {
+                    if (laptop != null && filter.predicate(laptop)) {
+                        selected.add(mapper.apply(laptop));
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+
+            return selected;
+        }
+
+        private long[] find(IPredicate<Laptop> filter, int index, int stripeBits) {
+            LongStream.Builder found = LongStream.builder();
+            long stamp = lock.readLock();
+
+            try {
+                for (int slot = 0; slot < laptops.length; slot++) {
+                    if (laptops[slot] != null && filter.predicate(laptops[slot])) {
+                        found.add((long) slot << stripeBits | index);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+
+            return found.build().toArray();
+        }
+
+        private long count(IPredicate<Laptop> filter) {
+            long count = 0;
+            long stamp = lock.readLock();
+
+            try {
+                for (Laptop laptop : laptops) {
+                    if (laptop != null && filter.predicate(laptop)) {
+                        count++;
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+
+            return count;
+        }
+    }
+}
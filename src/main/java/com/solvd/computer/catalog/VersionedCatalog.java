@@ -0,0 +1,343 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.LaptopMapper;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+import com.solvd.computer.interfaces.IConsume;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The VersionedCatalog class keeps every laptop as a chain of immutable
+ * versions, newest first, each stamped with the time of the commit that made
+ * it. A reader opens a Snapshot, which sees every laptop as it was at the
+ * time the snapshot was opened however long it is kept open, without taking
+ * any lock that writers take. A writer changes a copy of the latest version
+ * through the setters of Laptop and commits it as a new version, so readers
+ * never see a change half made.
+ *
+ * A background collector unlinks the versions that no open snapshot can see
+ * any more: for every laptop it keeps the newest version and the versions
+ * that are newer than the oldest open snapshot, plus the one that snapshot
+ * sees.
+ */
+public final class VersionedCatalog implements Closeable {
+    public final static long DEFAULT_COLLECTION_INTERVAL_MILLIS = 100;
+    private final static Logger LOGGER = LogManager.getLogger(VersionedCatalog.class);
+    private final static Counter CONFLICTS = MetricsRegistry.counter("catalog.mvcc.conflicts");
+    private final static Counter COLLECTED =
+            MetricsRegistry.counter("catalog.mvcc.versions.collected");
+    private final static Histogram COLLECTION_LATENCY =
+            MetricsRegistry.histogram("catalog.mvcc.collection.latency");
+    private final static AtomicLong OPEN_SNAPSHOTS = new AtomicLong();
+
+    static {
+        MetricsRegistry.gauge("catalog.mvcc.snapshots.open", OPEN_SNAPSHOTS::get);
+    }
+
+    private final Map<Long, Version> heads = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final TreeMap<Long, Integer> openSnapshots = new TreeMap<>();
+    private final Thread collector;
+    private long clock = 0;
+    private volatile long committed = 0;
+    private volatile boolean closed = false;
+
+    public VersionedCatalog() {
+        this(DEFAULT_COLLECTION_INTERVAL_MILLIS);
+    }
+
+    public VersionedCatalog(long collectionIntervalMillis) {
+        this.collector = Thread.ofPlatform()
+                .name("catalog-mvcc-collector")
+                .daemon(true)
+                .start(() -> collectLoop(collectionIntervalMillis));
+    }
+
+    /**
+     * Adds a copy of the laptop and returns its ID. Later changes to the
+     * laptop itself do not reach the catalog.
+     */
+    public long add(Laptop laptop) {
+        long id = nextId.getAndIncrement();
+        LaptopMapper.Data data = LaptopMapper.toRecord(laptop);
+        commitLock.lock();
+
+        try {
+            commit(id, data, null);
+        } finally {
+            commitLock.unlock();
+        }
+
+        return id;
+    }
+
+    /**
+     * Applies the change to a copy of the latest version of the laptop and
+     * commits the copy as its new version. When another writer commits a
+     * version of the same laptop in the meantime the change is applied again
+     * to the newer version, so it may run more than once. Returns false if
+     * there is no such laptop.
+     */
+    public boolean update(long id, LaptopChange change) throws ZeroOrTooManyCharactersException,
+            ZeroOrTooManyUSDException, NoOneOrTooManyInchesException, NoOneOrTooManyCoresException,
+            NoOneOrTooManyHzException {
+        while (true) {
+            Version head = heads.get(id);
+
+            if (head == null || head.data == null) {
+                return false;
+            }
+
+            Laptop copy = LaptopMapper.fromRecord(head.data);
+            change.apply(copy);
+            LaptopMapper.Data data = LaptopMapper.toRecord(copy);
+            commitLock.lock();
+
+            try {
+                if (heads.get(id) == head) {
+                    commit(id, data, head);
+                    return true;
+                }
+            } finally {
+                commitLock.unlock();
+            }
+
+            CONFLICTS.increment();
+        }
+    }
+
+    public boolean remove(long id) {
+        commitLock.lock();
+
+        try {
+            Version head = heads.get(id);
+
+            if (head == null || head.data == null) {
+                return false;
+            }
+
+            commit(id, null, head);
+            return true;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the latest version of the laptop or null if there is none.
+     */
+    public LaptopMapper.Data get(long id) {
+        Version head = heads.get(id);
+        return head == null ? null : head.data;
+    }
+
+    /**
+     * Opens a snapshot of the versions committed so far. The versions it sees
+     * are kept until it is closed.
+     */
+    public Snapshot snapshot() {
+        synchronized (openSnapshots) {
+            long timestamp = committed;
+            openSnapshots.merge(timestamp, 1, Integer::sum);
+            OPEN_SNAPSHOTS.incrementAndGet();
+            return new Snapshot(timestamp);
+        }
+    }
+
+    public int getOpenSnapshots() {
+        synchronized (openSnapshots) {
+            return openSnapshots.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    /**
+     * Unlinks the versions no open snapshot can see and drops the laptops
+     * removed before the oldest one. Returns the number of versions
+     * collected.
+     */
+    public long collect() {
+        long start = System.nanoTime();
+        long horizon;
+
+        synchronized (openSnapshots) {
+            horizon = openSnapshots.isEmpty() ? committed : openSnapshots.firstKey();
+        }
+
+        long collected = 0;
+
+        for (Map.Entry<Long, Version> entry : heads.entrySet()) {
+            Version visible = entry.getValue();
+
+            while (visible != null && visible.timestamp > horizon) {
+                visible = visible.previous;
+            }
+
+            if (visible == null) {
+                continue;
+            }
+
+            for (Version old = visible.previous; old != null; old = old.previous) {
+                collected++;
+            }
+
+            visible.previous = null;
+
+            if (visible == entry.getValue() && visible.data == null
+                    && heads.remove(entry.getKey(), visible)) {
+                collected++;
+            }
+        }
+
+        COLLECTED.add(collected);
+        COLLECTION_LATENCY.recordSince(start);
+        return collected;
+    }
+
+    /**
+     * Stops the collector. The catalog can still be read and changed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        collector.interrupt();
+
+        try {
+            collector.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Makes the data the newest version of the laptop. A null data removes
+     * the laptop. Called with the commit lock held, so the versions are
+     * committed one at a time and a snapshot that sees a version also sees
+     * every version committed before it.
+     */
+    private void commit(long id, LaptopMapper.Data data, Version previous) {
+        Version version = new Version(data, ++clock, previous);
+        heads.put(id, version);
+        committed = version.timestamp;
+    }
+
+    private void collectLoop(long intervalMillis) {
+        while (!closed) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException ex) {
+                break;
+            }
+
+            try {
+                collect();
+            } catch (RuntimeException ex) {
+                LOGGER.error("Collecting the catalog versions failed.", ex);
+            }
+        }
+    }
+
+    /**
+     * The catalog as it was when the snapshot was opened. A snapshot must be
+     * closed, otherwise the versions it sees are never collected.
+     */
+    public final class Snapshot implements AutoCloseable {
+        private final long timestamp;
+        private boolean open = true;
+
+        private Snapshot(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Returns the version of the laptop the snapshot sees or null if the
+         * laptop did not exist at that time.
+         */
+        public LaptopMapper.Data get(long id) {
+            return visible(heads.get(id));
+        }
+
+        /**
+         * Passes every laptop the snapshot sees to the consumer.
+         */
+        public void forEach(IConsume<LaptopMapper.Data> consumer) {
+            for (Version head : heads.values()) {
+                LaptopMapper.Data data = visible(head);
+
+                if (data != null) {
+                    consumer.consume(data);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (openSnapshots) {
+                if (open) {
+                    open = false;
+                    openSnapshots.compute(timestamp, (key, count) -> count == 1 ? null : count - 1);
+                    OPEN_SNAPSHOTS.decrementAndGet();
+                }
+            }
+        }
+
+        private LaptopMapper.Data visible(Version version) {
+            while (version != null && version.timestamp > timestamp) {
+                version = version.previous;
+            }
+
+            return version == null ? null : version.data;
+        }
+    }
+
+    /**
+     * A version of a laptop, or its removal if the data is null.
+     */
+    private final static class Version {
+        private final LaptopMapper.Data data;
+        private final long timestamp;
+        private volatile Version previous;
+
+        private Version(LaptopMapper.Data data, long timestamp, Version previous) {
+            this.data = data;
+            this.timestamp = timestamp;
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.catalog;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * The WriteAheadLog class appends the changes of a DurableCatalog to segment
+ * files with group commit. Appending only encodes the record into the active
+ * in-memory buffer and returns its sequence number. A flusher thread swaps
+ * the active buffer with an empty one, writes it to the current segment and
+ * forces it to the disk once for the whole batch, so every appender that
+ * waits for durability while a force is running is served by the next one.
+ *
+ * A record holds its type, the ID of the laptop and, for an upsert, the whole
+ * laptop encoded by LaptopCodec, framed the way RecordWriter frames records.
+ * Every segment starts a new string dictionary, so it can be replayed on its
+ * own.
+ */
+public final class WriteAheadLog implements Closeable {
+    final static int MAGIC = 0x3157504c;
+    final static int VERSION = 1;
+    final static byte UPSERT = 1;
+    final static byte REMOVE = 2;
+    private final static Logger LOGGER = LogManager.getLogger(WriteAheadLog.class);
+    private final static int BUFFER_SIZE = 1 << 20;
+    private final static int MAX_RECORD_SIZE = RecordWriter.RECORD_HEADER_SIZE + 1 + Long.BYTES
+                                               + LaptopCodec.MAX_RECORD_SIZE;
+    private final static Histogram FORCE_LATENCY =
+            MetricsRegistry.histogram("catalog.wal.force.latency");
+    private final static Histogram BATCH_SIZE = MetricsRegistry.histogram("catalog.wal.batch.size");
+    private final static Counter RECORDS = MetricsRegistry.counter("catalog.wal.records");
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition taken = lock.newCondition();
+    private final Condition forced = lock.newCondition();
+    private final CRC32C checksum = new CRC32C();
+    private final Thread flusher;
+    private ByteBuffer active = allocate();
+    private ByteBuffer standby = allocate();
+    private LaptopCodec codec = new LaptopCodec();
+    private long segment;
+    private long segmentBytes = 0;
+    private long sequence = 0;
+    private long durable = 0;
+    private IOException failure;
+    private boolean closed = false;
+    private FileChannel channel;
+    private long channelSegment = -1;
+
+    public WriteAheadLog(Path directory, long segment) {
+        this.directory = directory;
+        this.segment = segment;
+        this.flusher = Thread.ofPlatform()
+                .name("catalog-wal")
+                .daemon(true)
+                .start(this::flushLoop);
+    }
+
+    public static Path segmentFile(Path directory, long segment) {
+        return directory.resolve(String.format("wal-%016d.log", segment));
+    }
+
+    /**
+     * Forces the entries of the directory to the disk, so that a file created
+     * or renamed in it is still there after a crash.
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Appends the current state of the laptop and returns the sequence number
+     * of the record.
+     */
+    public long upsert(long id, Laptop laptop) throws IOException {
+        return append(UPSERT, id, laptop);
+    }
+
+    public long remove(long id) throws IOException {
+        return append(REMOVE, id, null);
+    }
+
+    /**
+     * Waits until the record with the given sequence number and all records
+     * before it are forced to the disk.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+
+        try {
+            while (durable < sequence) {
+                checkFailure();
+                forced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSequence() {
+        lock.lock();
+
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes appended to the current segment.
+     */
+    public long getSegmentBytes() {
+        lock.lock();
+
+        try {
+            return segmentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes the records appended after the call go to a new segment and
+     * returns its number. The records appended before stay in the previous
+     * segments.
+     */
+    public long rotate() throws IOException {
+        lock.lock();
+
+        try {
+            checkFailure();
+
+            while (active.position() > 0) {
+                checkFailure();
+                appended.signal();
+                taken.awaitUninterruptibly();
+            }
+
+            segment++;
+            segmentBytes = 0;
+            codec = new LaptopCodec();
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the records appended so far to the disk, stops the flusher and
+     * closes the current segment.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+
+        try {
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.lock();
+
+        try {
+            if (failure != null) {
+                throw new IOException("The write-ahead log failed", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Passes the records of the file to the consumer in order, with a null
+     * laptop for a removal, and returns their number. A damaged or truncated
+     * record stops the replay with an exception, unless the file is to be
+     * repaired: then the file is truncated to its intact records, which is
+     * what a crash during a write leaves behind in the last segment.
+     */
+    static long replay(Path file, int magic, boolean repair, BiConsumer<Long, Laptop> consumer)
+            throws IOException {
+        if (repair && Files.size(file) < RecordWriter.HEADER_SIZE) {
+            LOGGER.warn("Deleting {} without a complete header.", file);
+            Files.delete(file);
+            return 0;
+        }
+
+        LaptopCodec codec = new LaptopCodec();
+
+        try (RecordReader records = new RecordReader(FileChannel.open(file,
+                                                                      StandardOpenOption.READ),
+                                                     magic, VERSION)) {
+            try {
+                ByteBuffer payload;
+
+                while ((payload = records.next()) != null) {
+                    byte type = payload.get();
+                    long id = payload.getLong();
+
+                    switch (type) {
+                        case UPSERT -> {
+                            Laptop laptop = codec.decode(payload);
+                            records.verify(payload);
+                            consumer.accept(id, laptop);
+                        }
+                        case REMOVE -> {
+                            records.verify(payload);
+                            consumer.accept(id, null);
+                        }
+                        default -> throw new StreamCorruptedException("Unknown record type "
+                                                                      + type);
+                    }
+                }
+            } catch (EOFException | ObjectStreamException | BufferUnderflowException ex) {
+                if (!repair) {
+                    throw ex;
+                }
+
+                LOGGER.warn("Truncating {} to its {} intact records: {}", file,
+                            records.getCount(), ex.getMessage());
+
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(records.getValidLength());
+                }
+            }
+
+            return records.getCount();
+        }
+    }
+
+    private long append(byte type, long id, Laptop laptop) throws IOException {
+        lock.lock();
+
+        try {
+            while (active.remaining() < MAX_RECORD_SIZE) {
+                checkFailure();
+                appended.signal();
+                taken.awaitUninterruptibly();
+            }
+
+            checkFailure();
+            int start = RecordWriter.reserve(active);
+            active.put(type).putLong(id);
+
+            if (laptop != null) {
+                try {
+                    codec.encode(laptop, active);
+                } catch (RuntimeException ex) {
+                    active.position(start);
+                    throw ex;
+                }
+            }
+
+            RecordWriter.seal(active, start, checksum);
+            segmentBytes += active.position() - start;
+            RECORDS.increment();
+            appended.signal();
+            return ++sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("The write-ahead log failed", failure);
+        }
+
+        if (closed) {
+            throw new IOException("The write-ahead log is closed");
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            while (true) {
+                ByteBuffer batch;
+                long batchSegment;
+                long batchEnd;
+                lock.lock();
+
+                try {
+                    while (active.position() == 0 && !closed) {
+                        appended.awaitUninterruptibly();
+                    }
+
+                    if (active.position() == 0) {
+                        break;
+                    }
+
+                    batch = active;
+                    active = standby;
+                    standby = null;
+                    batchSegment = segment;
+                    batchEnd = sequence;
+                    taken.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+
+                long start = System.nanoTime();
+                write(batch, batchSegment);
+                FORCE_LATENCY.recordSince(start);
+                lock.lock();
+
+                try {
+                    BATCH_SIZE.record(batchEnd - durable);
+                    batch.clear();
+                    standby = batch;
+                    durable = batchEnd;
+                    forced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.error("The write-ahead log stopped flushing.", ex);
+            lock.lock();
+
+            try {
+                failure = ex instanceof IOException io ? io : new IOException(ex);
+                forced.signalAll();
+                taken.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(ByteBuffer batch, long batchSegment) throws IOException {
+        if (batchSegment != channelSegment) {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+
+            channel = FileChannel.open(segmentFile(directory, batchSegment),
+                                       StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+            channelSegment = batchSegment;
+            channel.write(ByteBuffer.allocate(RecordWriter.HEADER_SIZE)
+                                  .order(ByteOrder.LITTLE_ENDIAN)
+                                  .putInt(MAGIC)
+                                  .putInt(VERSION)
+                                  .flip());
+            forceDirectory(directory);
+        }
+
+        batch.flip();
+
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+
+        channel.force(false);
+    }
+
+    private static ByteBuffer allocate() {
+        return ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
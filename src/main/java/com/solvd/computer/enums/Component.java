@@ -0,0 +1,43 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.enums;
+
+public enum Component {
+    CPU ("CPU"),
+    RAM ("RAM"),
+    PORTS ("Ports"),
+    STORAGE ("Storage"),
+    GPU ("GPU"),
+    DISPLAY ("Display"),
+    OPERATING_SYSTEM ("Operating system");
+
+    private final String component;
+
+    Component(String component) {
+        this.component = component;
+    }
+
+    public String getComponent() {
+        return component;
+    }
+
+    @Override
+    public String toString() {
+        return component;
+    }
+}
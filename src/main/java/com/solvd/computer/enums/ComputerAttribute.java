@@ -0,0 +1,62 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.enums;
+
+public enum ComputerAttribute {
+    PRODUCER ("Producer"),
+    MODEL ("Model"),
+    TYPE ("Type"),
+    OPERATING_SYSTEM ("Operating system"),
+    SCREEN ("Screen"),
+    PROCESSOR ("Processor"),
+    GRAPHICS ("Graphics"),
+    MEMORY ("Memory"),
+    STORAGE ("Storage"),
+    PORTS ("Ports"),
+    PRICE_IN_USD ("Price in USD"),
+    TURNED_ON ("Turned on"),
+    COMPUTER_TYPE ("Computer type"),
+    FRESHNESS ("Freshness"),
+    COMPUTER_MODEL ("Computer model"),
+    COMPUTER_PRODUCER ("Computer producer"),
+    TARGET ("Target"),
+    WIRELESS_NETWORKING ("Wireless networking"),
+    INTEGRATED_CAMERA ("Integrated camera"),
+    INTEGRATED_KEYBOARD ("Integrated keyboard"),
+    INTEGRATED_MICROPHONE ("Integrated microphone"),
+    INTEGRATED_SPEAKERS ("Integrated speakers"),
+    TOUCHPAD ("Touchpad"),
+    TOUCHABLE_SCREEN ("Touchable screen"),
+    WEIGHT_IN_GRAMS ("Weight in grams"),
+    COLOR ("Color");
+
+    private final String attribute;
+
+    ComputerAttribute(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    @Override
+    public String toString() {
+        return attribute;
+    }
+}
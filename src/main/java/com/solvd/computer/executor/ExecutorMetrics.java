@@ -0,0 +1,109 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.executor;
+
+import java.time.Duration;
+
+/**
+ * The ExecutorMetrics class is a snapshot of the metrics of a managed
+ * executor: how many tasks were submitted, completed, failed and rejected,
+ * how long the tasks waited in the queue and ran, and how deep the queue is.
+ */
+public final class ExecutorMetrics {
+    private final long submitted;
+    private final long completed;
+    private final long failed;
+    private final long rejected;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long totalRunNanos;
+    private final long maxRunNanos;
+    private final int queueDepth;
+    private final long maxQueueDepth;
+
+    ExecutorMetrics(long submitted, long completed, long failed, long rejected,
+                    long totalWaitNanos, long maxWaitNanos, long totalRunNanos,
+                    long maxRunNanos, int queueDepth, long maxQueueDepth) {
+        this.submitted = submitted;
+        this.completed = completed;
+        this.failed = failed;
+        this.rejected = rejected;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.totalRunNanos = totalRunNanos;
+        this.maxRunNanos = maxRunNanos;
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public Duration getAverageWait() {
+        long finished = completed + failed;
+        return Duration.ofNanos(finished == 0 ? 0 : totalWaitNanos / finished);
+    }
+
+    public Duration getMaxWait() {
+        return Duration.ofNanos(maxWaitNanos);
+    }
+
+    public Duration getAverageRun() {
+        long finished = completed + failed;
+        return Duration.ofNanos(finished == 0 ? 0 : totalRunNanos / finished);
+    }
+
+    public Duration getMaxRun() {
+        return Duration.ofNanos(maxRunNanos);
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "Submitted: " + submitted
+                + ", completed: " + completed
+                + ", failed: " + failed
+                + ", rejected: " + rejected
+                + ", average wait: " + getAverageWait().toNanos() / 1000 + " us"
+                + ", max wait: " + maxWaitNanos / 1000 + " us"
+                + ", average run: " + getAverageRun().toNanos() / 1000 + " us"
+                + ", max run: " + maxRunNanos / 1000 + " us"
+                + ", queue depth: " + queueDepth
+                + ", max queue depth: " + maxQueueDepth;
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.executor;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ManagedExecutor class runs background tasks on a fixed number of named
+ * worker threads, either platform or virtual ones, that take the tasks from a
+ * bounded queue. When the queue is full a task is handled by the rejection
+ * policy: it is rejected with an exception, discarded, with the future of a
+ * submitted task cancelled, run by the submitting thread or the submitting
+ * thread is blocked until the queue has room again.
+ * The executor measures how long every task waited in the queue and how long
+ * it ran, and closing it, which may be done more than once, waits for the
+ * tasks that were already submitted.
+ */
+public final class ManagedExecutor implements Executor, AutoCloseable {
+    private final static Logger LOGGER = LogManager.getLogger(ManagedExecutor.class);
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Duration shutdownTimeout;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+
+    private ManagedExecutor(Builder builder) {
+        ThreadFactory threadFactory = builder.threadMode == ThreadMode.VIRTUAL
+                ? Thread.ofVirtual().name(builder.name + "-", 0).factory()
+                : Thread.ofPlatform().name(builder.name + "-", 0).daemon(builder.daemon).factory();
+        this.name = builder.name;
+        this.shutdownTimeout = builder.shutdownTimeout;
+        this.executor = new ThreadPoolExecutor(builder.poolSize, builder.poolSize,
+                                               0L, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(builder.queueCapacity),
+                                               threadFactory,
+                                               handler(builder.rejectionPolicy));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submitted.increment();
+        executor.execute(timed(task));
+        maxQueueDepth.accumulate(executor.getQueue().size());
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        submitted.increment();
+        Future<T> future = executor.submit(timed(task));
+        maxQueueDepth.accumulate(executor.getQueue().size());
+        return future;
+    }
+
+    public Future<?> submit(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public ExecutorMetrics getMetrics() {
+        return new ExecutorMetrics(submitted.sum(), completed.sum(), failed.sum(),
+                                   rejected.sum(), totalWaitNanos.sum(), maxWaitNanos.get(),
+                                   totalRunNanos.sum(), maxRunNanos.get(),
+                                   executor.getQueue().size(), maxQueueDepth.get());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Stops taking new tasks and waits for the submitted ones to finish.
+     * Returns false if they did not finish in time and had to be interrupted.
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        executor.shutdown();
+
+        if (executor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+
+        LOGGER.warn("The {} executor did not finish its tasks in {} ms, {} tasks are dropped.",
+                    name, timeout.toMillis(), executor.shutdownNow().size());
+        return false;
+    }
+
+    @Override
+    public void close() {
+        try {
+            shutdown(shutdownTimeout);
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Runnable timed(Runnable task) {
+        long submittedAt = System.nanoTime();
+
+        return () -> {
+            long startedAt = System.nanoTime();
+            boolean succeeded = false;
+
+            try {
+                task.run();
+                succeeded = true;
+            } catch (RuntimeException ex) {
+                // Nobody waits for a plain task, and rethrowing would replace the worker.
+                LOGGER.error("A task of the {} executor failed.", name, ex);
+            } finally {
+                record(submittedAt, startedAt, succeeded);
+            }
+        };
+    }
+
+    private <T> Callable<T> timed(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+
+        return () -> {
+            long startedAt = System.nanoTime();
+            boolean succeeded = false;
+
+            try {
+                T result = task.call();
+                succeeded = true;
+                return result;
+            } finally {
+                record(submittedAt, startedAt, succeeded);
+            }
+        };
+    }
+
+    private void record(long submittedAt, long startedAt, boolean succeeded) {
+        long finishedAt = System.nanoTime();
+        totalWaitNanos.add(startedAt - submittedAt);
+        maxWaitNanos.accumulate(startedAt - submittedAt);
+        totalRunNanos.add(finishedAt - startedAt);
+        maxRunNanos.accumulate(finishedAt - startedAt);
+
+        if (succeeded) {
+            completed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    private RejectedExecutionHandler handler(RejectionPolicy policy) {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                rejected.increment();
+                throw new RejectedExecutionException("The " + name + " executor is shut down.");
+            }
+
+            switch (policy) {
+                case ABORT -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("The queue of the " + name
+                                                         + " executor is full.");
+                }
+                case DISCARD -> {
+                    rejected.increment();
+                    LOGGER.warn("A task of the {} executor is discarded, its queue is full.",
+                                name);
+
+                    // Nobody would ever complete the future of a discarded submit.
+                    if (task instanceof Future<?> future) {
+                        future.cancel(false);
+                    }
+                }
+                case CALLER_RUNS -> task.run();
+                case BLOCK -> {
+                    try {
+                        pool.getQueue().put(task);
+                    } catch (InterruptedException ex) {
+                        rejected.increment();
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for "
+                                                             + "the queue of the " + name
+                                                             + " executor.", ex);
+                    }
+
+                    if (pool.isShutdown() && pool.remove(task)) {
+                        rejected.increment();
+                        throw new RejectedExecutionException("The " + name
+                                                             + " executor is shut down.");
+                    }
+                }
+            }
+        };
+    }
+
+    public enum ThreadMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public enum RejectionPolicy {
+        ABORT,
+        DISCARD,
+        CALLER_RUNS,
+        BLOCK
+    }
+
+    public static final class Builder {
+        private String name = "worker";
+        private ThreadMode threadMode = ThreadMode.PLATFORM;
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.BLOCK;
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+        private boolean daemon = false;
+
+        private Builder() {}
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder threadMode(ThreadMode threadMode) {
+            this.threadMode = threadMode;
+            return this;
+        }
+
+        public Builder poolSize(int poolSize) {
+            if (poolSize < 1) {
+                throw new IllegalArgumentException("The pool size should be at least 1.");
+            }
+
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("The queue capacity should be at least 1.");
+            }
+
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder rejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
+        public Builder shutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+            return this;
+        }
+
+        public Builder daemon(boolean daemon) {
+            this.daemon = daemon;
+            return this;
+        }
+
+        public ManagedExecutor build() {
+            return new ManagedExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.factory;
+
+import com.solvd.computer.interfaces.IConsume;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ComponentFactory class creates the components of one class through
+ * their validating constructor, the public constructor with the most
+ * parameters. LambdaMetafactory turns the constructor into a creator that
+ * takes as many arguments as it has parameters, and the no-argument methods
+ * of the component into IConsume instances on their first use, so creating
+ * and using components costs about as much as direct calls, with no argument
+ * array. Unlike Constructor.newInstance, the arguments are not widened, they
+ * must be of the boxed parameter types. Exceptions thrown by the constructor
+ * are wrapped in InvocationTargetException, errors are not.
+ */
+public final class ComponentFactory<T> {
+    private final static MethodType CONSUME_TYPE = MethodType.methodType(IConsume.class);
+    private final static MethodType CONSUME_ERASED_TYPE =
+            MethodType.methodType(void.class, Object.class);
+    private final static List<Class<?>> CREATORS = List.of(Creator1.class, Creator2.class,
+                                                           Creator3.class, Creator4.class,
+                                                           Creator5.class);
+
+    private final Class<T> componentClass;
+    private final List<Class<?>> parameterTypes;
+    private final Class<?>[] argumentTypes;
+    private final Object creator;
+    private final Map<String, IConsume<T>> methods = new ConcurrentHashMap<>();
+    private final IConsume<T> use;
+
+    ComponentFactory(Class<T> componentClass) throws NoSuchMethodException,
+            IllegalAccessException {
+        Constructor<?> validating = Arrays
+                .stream(componentClass.getConstructors())
+                .max(Comparator.comparingInt(Constructor::getParameterCount))
+                .orElseThrow(() -> new NoSuchMethodException(
+                        componentClass.getName() + " has no public constructor."));
+
+        this.componentClass = componentClass;
+        this.parameterTypes = List.of(validating.getParameterTypes());
+        this.argumentTypes = parameterTypes
+                .stream()
+                .map(type -> MethodType.methodType(type).wrap().returnType())
+                .toArray(Class<?>[]::new);
+        this.creator = creator(validating);
+        this.use = method("use");
+    }
+
+    public Class<T> getComponentClass() {
+        return componentClass;
+    }
+
+    public List<Class<?>> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public T create(Object first) throws InvocationTargetException {
+        checkArguments(1);
+        checkArgument(0, first);
+
+        try {
+            return componentClass.cast(((Creator1) creator).create(first));
+        } catch (Exception ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    public T create(Object first, Object second) throws InvocationTargetException {
+        checkArguments(2);
+        checkArgument(0, first);
+        checkArgument(1, second);
+
+        try {
+            return componentClass.cast(((Creator2) creator).create(first, second));
+        } catch (Exception ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    public T create(Object first, Object second, Object third)
+            throws InvocationTargetException {
+        checkArguments(3);
+        checkArgument(0, first);
+        checkArgument(1, second);
+        checkArgument(2, third);
+
+        try {
+            return componentClass.cast(((Creator3) creator).create(first, second, third));
+        } catch (Exception ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    public T create(Object first, Object second, Object third, Object fourth)
+            throws InvocationTargetException {
+        checkArguments(4);
+        checkArgument(0, first);
+        checkArgument(1, second);
+        checkArgument(2, third);
+        checkArgument(3, fourth);
+
+        try {
+            return componentClass.cast(((Creator4) creator).create(first, second, third,
+                                                                    fourth));
+        } catch (Exception ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    public T create(Object first, Object second, Object third, Object fourth, Object fifth)
+            throws InvocationTargetException {
+        checkArguments(5);
+        checkArgument(0, first);
+        checkArgument(1, second);
+        checkArgument(2, third);
+        checkArgument(3, fourth);
+        checkArgument(4, fifth);
+
+        try {
+            return componentClass.cast(((Creator5) creator).create(first, second, third,
+                                                                    fourth, fifth));
+        } catch (Exception ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Creates a component from arguments that are only known at run time,
+     * such as the ones read from a file.
+     */
+    public T createFrom(Object[] arguments) throws InvocationTargetException {
+        checkArguments(arguments.length);
+
+        return switch (arguments.length) {
+            case 1 -> create(arguments[0]);
+            case 2 -> create(arguments[0], arguments[1]);
+            case 3 -> create(arguments[0], arguments[1], arguments[2]);
+            case 4 -> create(arguments[0], arguments[1], arguments[2], arguments[3]);
+            default -> create(arguments[0], arguments[1], arguments[2], arguments[3],
+                              arguments[4]);
+        };
+    }
+
+    public void use(T component) {
+        use.consume(component);
+    }
+
+    /**
+     * Returns the public no-argument method with the given name as an
+     * IConsume that calls it on the component it is given.
+     */
+    public IConsume<T> method(String name) throws NoSuchMethodException,
+            IllegalAccessException {
+        IConsume<T> method = methods.get(name);
+
+        if (method == null) {
+            method = generate(componentClass.getMethod(name));
+            IConsume<T> previous = methods.putIfAbsent(name, method);
+            method = previous != null ? previous : method;
+        }
+
+        return method;
+    }
+
+    /**
+     * Returns the CreatorN of the constructor, where N is the number of its
+     * parameters.
+     */
+    private Object creator(Constructor<?> validating) throws NoSuchMethodException,
+            IllegalAccessException {
+        int count = validating.getParameterCount();
+
+        if (count == 0 || count > CREATORS.size()) {
+            throw new NoSuchMethodException(componentClass.getName() + " takes " + count
+                                            + " arguments, a component takes 1 to "
+                                            + CREATORS.size() + ".");
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup, "create", MethodType.methodType(CREATORS.get(count - 1)),
+                    MethodType.genericMethodType(count), lookup.unreflectConstructor(validating),
+                    MethodType.methodType(componentClass, argumentTypes));
+            return site.getTarget().invoke();
+        } catch (LambdaConversionException ex) {
+            throw new IllegalAccessException(ex.getMessage());
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private IConsume<T> generate(Method method) throws NoSuchMethodException,
+            IllegalAccessException {
+        if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())) {
+            throw new NoSuchMethodException(componentClass.getName() + "." + method.getName()
+                                            + " is not an instance method without arguments.");
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle target = lookup.unreflect(method);
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup, "consume", CONSUME_TYPE, CONSUME_ERASED_TYPE, target,
+                    MethodType.methodType(void.class, componentClass));
+            return (IConsume<T>) site.getTarget().invokeExact();
+        } catch (LambdaConversionException ex) {
+            throw new IllegalAccessException(ex.getMessage());
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void checkArguments(int count) {
+        if (count != argumentTypes.length) {
+            throw new IllegalArgumentException(componentClass.getSimpleName() + " takes "
+                                               + argumentTypes.length + " arguments, not "
+                                               + count + ".");
+        }
+    }
+
+    private void checkArgument(int index, Object argument) {
+        if (argument == null
+                ? parameterTypes.get(index).isPrimitive()
+                : !argumentTypes[index].isInstance(argument)) {
+            throw new IllegalArgumentException("The argument " + argument
+                                               + " does not match the parameter "
+                                               + parameterTypes.get(index).getSimpleName()
+                                               + " " + (index + 1) + " of "
+                                               + componentClass.getSimpleName() + ".");
+        }
+    }
+
+    @FunctionalInterface
+    interface Creator1 {
+        Object create(Object first) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Creator2 {
+        Object create(Object first, Object second) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Creator3 {
+        Object create(Object first, Object second, Object third) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Creator4 {
+        Object create(Object first, Object second, Object third, Object fourth)
+                throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Creator5 {
+        Object create(Object first, Object second, Object third, Object fourth, Object fifth)
+                throws Exception;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.factory;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ComponentRegistry class keeps one ComponentFactory per component class,
+ * created on the first request, so the constructors and methods of a
+ * component are resolved only once however many components are built.
+ */
+public final class ComponentRegistry {
+    private final static Set<Class<?>> COMPONENTS = Set.of(CPU.class, GPU.class, RAM.class,
+                                                           Display.class, Storage.class,
+                                                           Port.class, OperatingSystem.class);
+    private final static Map<Class<?>, ComponentFactory<?>> FACTORIES =
+            new ConcurrentHashMap<>();
+
+    private ComponentRegistry() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T> ComponentFactory<T> getFactory(Class<T> componentClass)
+            throws NoSuchMethodException, IllegalAccessException {
+        if (!COMPONENTS.contains(componentClass)) {
+            throw new IllegalArgumentException(componentClass.getName()
+                                               + " is not a component.");
+        }
+
+        ComponentFactory<?> factory = FACTORIES.get(componentClass);
+
+        if (factory == null) {
+            factory = new ComponentFactory<>(componentClass);
+            ComponentFactory<?> previous = FACTORIES.putIfAbsent(componentClass, factory);
+            factory = previous != null ? previous : factory;
+        }
+
+        return (ComponentFactory<T>) factory;
+    }
+
+    public static ComponentFactory<?> getFactory(String className)
+            throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+        return getFactory(Class.forName(className));
+    }
+}
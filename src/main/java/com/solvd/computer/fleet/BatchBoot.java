@@ -0,0 +1,209 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.fleet;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Computer;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+import com.solvd.computer.jfr.LaptopTurnOnEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+/**
+ * The BatchBoot class turns on a whole batch of computers phase by phase. When
+ * the batch is created the components of its laptops are gathered into one
+ * array per component type, so a batch that is booted again and again pays
+ * for this only once. Booting uses all CPUs first, then all RAM and so on, in
+ * the same order as Laptop.turnOn() uses them, and marks the laptops as turned
+ * on at the end. Like Laptop.turnOn() every laptop gets its journal record,
+ * its JFR event and its turn-on latency, which is the time the whole batch
+ * took, since none of the laptops is on before the last phase. Every phase
+ * calls use() on a single class only, and the elements of a phase are spread
+ * over the common pool when the batch is booted in parallel. Computers that
+ * are not laptops are turned on one by one, because only their own turnOn()
+ * knows what booting them means. A batch uses the components its laptops had
+ * when it was created and must not be booted from several threads at once.
+ */
+public final class BatchBoot {
+    private final static int MIN_CHUNK_SIZE = 1024;
+
+    private final Computer[] others;
+    private final Laptop[] laptops;
+    private final boolean[] booting;
+    private final CPU[] processors;
+    private final RAM[] memories;
+    private final Port[] ports;
+    private final Storage[] storages;
+    private final GPU[] graphics;
+    private final Display[] screens;
+    private final OperatingSystem[] operatingSystems;
+
+    public BatchBoot(Collection<? extends Computer> computers) {
+        this.others = computers.stream()
+                .filter(computer -> !(computer instanceof Laptop))
+                .toArray(Computer[]::new);
+        this.laptops = computers.stream()
+                .filter(computer -> computer instanceof Laptop)
+                .toArray(Laptop[]::new);
+        int size = laptops.length;
+        this.booting = new boolean[size];
+        this.processors = new CPU[size];
+        this.memories = new RAM[size];
+        this.ports = new Port[size];
+        this.storages = new Storage[size];
+        this.graphics = new GPU[size];
+        this.screens = new Display[size];
+        this.operatingSystems = new OperatingSystem[size];
+
+        for (int i = 0; i < size; i++) {
+            Laptop laptop = laptops[i];
+            processors[i] = laptop.getProcessor();
+            memories[i] = laptop.getMemory();
+            ports[i] = laptop.getPorts();
+            storages[i] = laptop.getStorage();
+            graphics[i] = laptop.getGraphics();
+            screens[i] = laptop.getScreen();
+            operatingSystems[i] = laptop.getOperatingSystem();
+        }
+    }
+
+    public static void turnOn(Collection<? extends Computer> computers) {
+        new BatchBoot(computers).turnOn(true);
+    }
+
+    public void turnOn(boolean parallel) {
+        for (Computer computer : others) {
+            computer.turnOn();
+        }
+
+        long start = System.nanoTime();
+        LaptopTurnOnEvent[] events = TurnOnEvents.isEnabled()
+                ? new LaptopTurnOnEvent[laptops.length]
+                : null;
+
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (events != null) {
+                    events[i] = TurnOnEvents.begin(laptops[i]);
+                }
+
+                booting[i] = !laptops[i].getIsTurnedOn();
+
+                if (booting[i]) {
+                    EventJournal.record(Event.LAPTOP_STARTED, laptops[i]);
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    processors[i].use();
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    memories[i].use();
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    ports[i].use();
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    storages[i].use();
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    graphics[i].use();
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    screens[i].use();
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    operatingSystems[i].use();
+                }
+            }
+        });
+        forEachChunk(parallel, (from, to) -> {
+            long latency = System.nanoTime() - start;
+
+            for (int i = from; i < to; i++) {
+                if (booting[i]) {
+                    laptops[i].setIsTurnedOn(true);
+                }
+
+                if (events != null) {
+                    TurnOnEvents.commit(events[i], laptops[i]);
+                }
+
+                TurnOnEvents.recordLatency(latency);
+            }
+        });
+    }
+
+    private void forEachChunk(boolean parallel, Phase phase) {
+        int size = laptops.length;
+
+        if (!parallel || size <= MIN_CHUNK_SIZE) {
+            phase.run(0, size);
+            return;
+        }
+
+        int chunks = Math.min((size + MIN_CHUNK_SIZE - 1) / MIN_CHUNK_SIZE,
+                              Runtime.getRuntime().availableProcessors() * 4);
+        int chunkSize = (size + chunks - 1) / chunks;
+
+        IntStream.range(0, chunks)
+                .parallel()
+                .forEach(chunk -> phase.run(chunk * chunkSize,
+                                            Math.min(size, (chunk + 1) * chunkSize)));
+    }
+
+    @FunctionalInterface
+    private interface Phase {
+        void run(int from, int to);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.fleet;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * The FleetReport class summarizes a fleet simulation run: how many machines
+ * went through their lifecycle, how long the whole run took and the
+ * percentiles of the boot latencies of single machines.
+ */
+public final class FleetReport {
+    private final int machines;
+    private final Duration elapsed;
+    private final long[] sortedLatencies;
+
+    FleetReport(long[] latencies, Duration elapsed) {
+        this.machines = latencies.length;
+        this.elapsed = elapsed;
+        this.sortedLatencies = latencies.clone();
+        Arrays.sort(sortedLatencies);
+    }
+
+    public int getMachines() {
+        return machines;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getThroughputPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : machines * 1e9 / nanos;
+    }
+
+    public Duration getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+
+        if (machines == 0) {
+            return Duration.ZERO;
+        }
+
+        int index = (int) Math.ceil(percentile / 100 * machines) - 1;
+        return Duration.ofNanos(sortedLatencies[Math.max(0, index)]);
+    }
+
+    public Duration getMaxLatency() {
+        return getPercentile(100);
+    }
+
+    @Override
+    public String toString() {
+        return "Machines: " + machines
+                + ", elapsed: " + elapsed.toMillis() + " ms"
+                + ", throughput: " + String.format("%.1f", getThroughputPerSecond()) + " machines/s"
+                + ", boot latency p50: " + micros(getPercentile(50))
+                + ", p90: " + micros(getPercentile(90))
+                + ", p99: " + micros(getPercentile(99))
+                + ", p99.9: " + micros(getPercentile(99.9))
+                + ", max: " + micros(getMaxLatency());
+    }
+
+    private static String micros(Duration duration) {
+        return duration.toNanos() / 1000 + " us";
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.fleet;
+
+import com.solvd.computer.Computer;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.enums.Component;
+import com.solvd.computer.interfaces.ITurn;
+import com.solvd.computer.jfr.LaptopTurnOnEvent;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The FleetSimulator class runs the turnOn, reset and turnOff lifecycle of
+ * every computer of a fleet on its own virtual thread. Starting a component
+ * takes the time given by its latency model, which is waited for in sleep
+ * right before the component of a laptop is used, so a virtual thread does
+ * not hold a carrier thread while it boots.
+ * All machines are started within one executor scope that is not left before
+ * every machine has finished, and the first failure stops the machines that
+ * have not started yet.
+ */
+public final class FleetSimulator {
+    private final static Logger LOGGER = LogManager.getLogger(FleetSimulator.class);
+    private final static int DEFAULT_FLEET_SIZE = 10_000;
+
+    private final Map<Component, LatencyModel> latencies = new EnumMap<>(Component.class);
+    private final Semaphore permits;
+
+    public FleetSimulator(Map<Component, LatencyModel> latencies, int maxConcurrentMachines) {
+        if (maxConcurrentMachines < 1) {
+            throw new IllegalArgumentException("At least one machine must be able to boot.");
+        }
+
+        for (Component component : Component.values()) {
+            this.latencies.put(component, latencies.getOrDefault(component, LatencyModel.none()));
+        }
+
+        this.permits = new Semaphore(maxConcurrentMachines);
+    }
+
+    public FleetSimulator(Map<Component, LatencyModel> latencies) {
+        this(latencies, Integer.MAX_VALUE);
+    }
+
+    public static Map<Component, LatencyModel> defaultLatencies() {
+        Map<Component, LatencyModel> latencies = new EnumMap<>(Component.class);
+        latencies.put(Component.CPU, LatencyModel.logNormal(Duration.ofMillis(2), 0.25));
+        latencies.put(Component.RAM, LatencyModel.logNormal(Duration.ofMillis(5), 0.25));
+        latencies.put(Component.PORTS, LatencyModel.uniform(Duration.ofMillis(1),
+                                                            Duration.ofMillis(3)));
+        latencies.put(Component.STORAGE, LatencyModel.logNormal(Duration.ofMillis(20), 0.5));
+        latencies.put(Component.GPU, LatencyModel.logNormal(Duration.ofMillis(10), 0.25));
+        latencies.put(Component.DISPLAY, LatencyModel.fixed(Duration.ofMillis(3)));
+        latencies.put(Component.OPERATING_SYSTEM, LatencyModel.logNormal(Duration.ofMillis(50),
+                                                                         0.5));
+        return latencies;
+    }
+
+    public FleetReport simulate(List<? extends Computer> fleet) throws InterruptedException {
+        long[] bootLatencies = new long[fleet.size()];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < fleet.size() && failure.get() == null; i++) {
+                int index = i;
+                Computer computer = fleet.get(i);
+                permits.acquire();
+
+                executor.execute(() -> {
+                    try {
+                        if (failure.get() == null) {
+                            bootLatencies[index] = runLifecycle(computer);
+                        }
+                    } catch (Throwable ex) {
+                        failure.compareAndSet(null, ex);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Throwable cause = failure.get();
+
+        if (cause instanceof InterruptedException) {
+            throw (InterruptedException) cause;
+        } else if (cause != null) {
+            throw new IllegalStateException("The fleet simulation failed.", cause);
+        }
+
+        return new FleetReport(bootLatencies, elapsed);
+    }
+
+    private long runLifecycle(Computer computer) throws InterruptedException {
+        long start = System.nanoTime();
+
+        if (computer instanceof Laptop laptop) {
+            turnOn(laptop);
+        } else {
+            for (Component component : Component.values()) {
+                pause(component);
+            }
+
+            computer.turnOn();
+        }
+
+        computer.setIsTurnedOn(true);
+        long latency = System.nanoTime() - start;
+        computer.reset(computer.getIsTurnedOn());
+        ITurn.turnOff(computer.getIsTurnedOn());
+        computer.setIsTurnedOn(false);
+        return latency;
+    }
+
+    /**
+     * Turns the laptop on the way Laptop.turnOn() does, but waits for the
+     * latency of every component right before the component is used.
+     */
+    private void turnOn(Laptop laptop) throws InterruptedException {
+        long start = System.nanoTime();
+        LaptopTurnOnEvent event = TurnOnEvents.begin(laptop);
+
+        if (!laptop.getIsTurnedOn()) {
+            EventJournal.record(Event.LAPTOP_STARTED, laptop);
+            pause(Component.CPU);
+            laptop.getProcessor().use();
+            pause(Component.RAM);
+            laptop.getMemory().use();
+            pause(Component.PORTS);
+            laptop.getPorts().use();
+            pause(Component.STORAGE);
+            laptop.getStorage().use();
+            pause(Component.GPU);
+            laptop.getGraphics().use();
+            pause(Component.DISPLAY);
+            laptop.getScreen().use();
+            pause(Component.OPERATING_SYSTEM);
+            laptop.getOperatingSystem().use();
+            laptop.setIsTurnedOn(true);
+        }
+
+        TurnOnEvents.commit(event, laptop);
+        TurnOnEvents.recordLatency(System.nanoTime() - start);
+    }
+
+    private void pause(Component component) throws InterruptedException {
+        long nanos = latencies.get(component).sampleNanos();
+
+        if (nanos > 0) {
+            Thread.sleep(Duration.ofNanos(nanos));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FLEET_SIZE;
+        List<Laptop> fleet = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            fleet.add(new Laptop());
+        }
+
+        FleetReport report = new FleetSimulator(defaultLatencies()).simulate(fleet);
+        LOGGER.info(report);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.fleet;
+
+import com.solvd.computer.Computer;
+import com.solvd.computer.enums.Producer;
+import com.solvd.computer.enums.Target;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The PowerStateRegistry class keeps the power state of a fleet in a bitset,
+ * one bit per registered machine, next to one bitset per producer and one per
+ * target. A registered computer updates its bits through an observer whenever
+ * it is turned on or off or its producer or target change, so a query never
+ * looks at the machines themselves: it intersects the bitsets a word of 64
+ * machines at a time and counts the bits that are set. The bits are changed
+ * with atomic operations, so the machines may change their state from any
+ * thread while the registry is queried. A query only looks at the machines
+ * whose registration is complete, which are published in the order of their
+ * indexes.
+ */
+public final class PowerStateRegistry {
+    private final static Histogram QUERY_LATENCY =
+            MetricsRegistry.histogram("fleet.powerState.query.latency");
+
+    private final int capacity;
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger registered = new AtomicInteger();
+    private final AtomicReferenceArray<Computer> machines;
+    private final AtomicLongArray turnedOn;
+    private final Map<Producer, AtomicLongArray> producers = new EnumMap<>(Producer.class);
+    private final Map<Target, AtomicLongArray> targets = new EnumMap<>(Target.class);
+
+    public PowerStateRegistry(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity should not be negative.");
+        }
+
+        int words = (capacity + Long.SIZE - 1) / Long.SIZE;
+        this.capacity = capacity;
+        this.machines = new AtomicReferenceArray<>(capacity);
+        this.turnedOn = new AtomicLongArray(words);
+
+        for (Producer producer : Producer.values()) {
+            producers.put(producer, new AtomicLongArray(words));
+        }
+
+        for (Target target : Target.values()) {
+            targets.put(target, new AtomicLongArray(words));
+        }
+    }
+
+    /**
+     * Registers the computer and returns its index in the registry. A
+     * computer should be registered before other threads change it.
+     */
+    public int register(Computer computer) {
+        int index = claimed.getAndIncrement();
+
+        if (index >= capacity) {
+            claimed.decrementAndGet();
+            throw new IllegalStateException("The registry is full, its capacity is "
+                                            + capacity + " machines.");
+        }
+
+        try {
+            initialize(index, computer);
+        } finally {
+            // The slots below are claimed by other threads that may not have published them yet.
+            while (!registered.compareAndSet(index, index + 1)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        return index;
+    }
+
+    public int size() {
+        return registered.get();
+    }
+
+    public Computer getMachine(int index) {
+        return machines.get(index);
+    }
+
+    public boolean isTurnedOn(int index) {
+        return (turnedOn.get(index >>> 6) & 1L << index) != 0;
+    }
+
+    public long countTurnedOn() {
+        return count(null, null, true);
+    }
+
+    public long countTurnedOff() {
+        return count(null, null, false);
+    }
+
+    private void initialize(int index, Computer computer) {
+        machines.set(index, computer);
+        computer.addObserver((source, attribute, oldValue, newValue) -> {
+            switch (attribute) {
+                case TURNED_ON -> setBit(turnedOn, index, (Boolean) newValue);
+                case COMPUTER_PRODUCER -> {
+                    move(oldValue == null ? null : producers.get((Producer) oldValue),
+                         newValue == null ? null : producers.get((Producer) newValue), index);
+                }
+                case TARGET -> {
+                    move(oldValue == null ? null : targets.get((Target) oldValue),
+                         newValue == null ? null : targets.get((Target) newValue), index);
+                }
+                default -> {
+                }
+            }
+        });
+
+        setBit(turnedOn, index, computer.getIsTurnedOn());
+
+        if (computer.getComputerProducer() != null) {
+            setBit(producers.get(computer.getComputerProducer()), index, true);
+        }
+
+        if (computer.getTarget() != null) {
+            setBit(targets.get(computer.getTarget()), index, true);
+        }
+    }
+
+    /**
+     * Counts the machines in the given power state that belong to the
+     * producer and the target, where null stands for any producer or target.
+     */
+    public long count(Producer producer, Target target, boolean isTurnedOn) {
+        long start = System.nanoTime();
+        AtomicLongArray producerBits = producer == null ? null : producers.get(producer);
+        AtomicLongArray targetBits = target == null ? null : targets.get(target);
+        int size = size();
+        long count = 0;
+
+        for (int word = 0; word < words(size); word++) {
+            count += Long.bitCount(select(word, size, producerBits, targetBits, isTurnedOn));
+        }
+
+        QUERY_LATENCY.recordSince(start);
+        return count;
+    }
+
+    /**
+     * Returns the machines in the given power state that belong to the
+     * producer and the target, where null stands for any producer or target.
+     */
+    public List<Computer> find(Producer producer, Target target, boolean isTurnedOn) {
+        long start = System.nanoTime();
+        AtomicLongArray producerBits = producer == null ? null : producers.get(producer);
+        AtomicLongArray targetBits = target == null ? null : targets.get(target);
+        int size = size();
+        List<Computer> found = new ArrayList<>();
+
+        for (int word = 0; word < words(size); word++) {
+            long bits = select(word, size, producerBits, targetBits, isTurnedOn);
+
+            while (bits != 0) {
+                Computer machine = machines.get(word * Long.SIZE
+                                                + Long.numberOfTrailingZeros(bits));
+
+                if (machine != null) {
+                    found.add(machine);
+                }
+
+                bits &= bits - 1;
+            }
+        }
+
+        QUERY_LATENCY.recordSince(start);
+        return found;
+    }
+
+    private long select(int word, int size, AtomicLongArray producerBits,
+                        AtomicLongArray targetBits, boolean isTurnedOn) {
+        long bits = isTurnedOn ? turnedOn.get(word) : ~turnedOn.get(word);
+
+        if (producerBits != null) {
+            bits &= producerBits.get(word);
+        }
+
+        if (targetBits != null) {
+            bits &= targetBits.get(word);
+        }
+
+        int remaining = size - word * Long.SIZE;
+        return remaining >= Long.SIZE ? bits : bits & (1L << remaining) - 1;
+    }
+
+    private static int words(int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static void move(AtomicLongArray from, AtomicLongArray to, int index) {
+        if (from != null) {
+            setBit(from, index, false);
+        }
+
+        if (to != null) {
+            setBit(to, index, true);
+        }
+    }
+
+    private static void setBit(AtomicLongArray bits, int index, boolean value) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+
+        if (value) {
+            bits.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+        } else {
+            bits.getAndAccumulate(word, mask, (current, bit) -> current & ~bit);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.fleet;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.jfr.LaptopTurnOnEvent;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+
+/**
+ * The TurnOnEvents class emits the JFR event and the latency that
+ * Laptop.turnOn() emits, for the laptops that the fleet classes turn on
+ * component by component instead of calling turnOn().
+ */
+final class TurnOnEvents {
+    private final static Histogram TURN_ON_LATENCY =
+            MetricsRegistry.histogram("laptop.turnOn.latency");
+
+    private TurnOnEvents() {}
+
+    static boolean isEnabled() {
+        return new LaptopTurnOnEvent().isEnabled();
+    }
+
+    static LaptopTurnOnEvent begin(Laptop laptop) {
+        LaptopTurnOnEvent event = new LaptopTurnOnEvent();
+        event.begin();
+        event.alreadyTurnedOn = laptop.getIsTurnedOn();
+        return event;
+    }
+
+    static void commit(LaptopTurnOnEvent event, Laptop laptop) {
+        if (event.shouldCommit()) {
+            event.producer = laptop.getProducer();
+            event.model = laptop.getModel();
+            event.commit();
+        }
+    }
+
+    static void recordLatency(long nanos) {
+        TURN_ON_LATENCY.record(nanos);
+    }
+}
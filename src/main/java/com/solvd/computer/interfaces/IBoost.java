@@ -17,17 +17,24 @@
  */
 package com.solvd.computer.interfaces;
 
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public interface IBoost {
+    /**
+     * @deprecated The events of IBoost are recorded in the EventJournal, nothing
+     * is logged through this logger any more.
+     */
+    @Deprecated
     Logger LOGGER = LogManager.getLogger(IBoost.class);
 
     default void boostTurbo(boolean hasTurboBoost) {
         if (hasTurboBoost) {
-            LOGGER.info("The CPU turbo is boosted.");
+            EventJournal.record(Event.TURBO_BOOSTED, this);
         } else {
-            LOGGER.info("The CPU doesn't have turbo boost.");
+            EventJournal.record(Event.NO_TURBO_BOOST, this);
         }
     }
 }
@@ -18,10 +18,17 @@
 package com.solvd.computer.interfaces;
 
 import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public interface IDisplay {
+    /**
+     * @deprecated The events of IDisplay are recorded in the EventJournal, nothing
+     * is logged through this logger any more.
+     */
+    @Deprecated
     Logger LOGGER = LogManager.getLogger(IDisplay.class);
 
     default void touchTouchableScreen(boolean hasTouchableScreen,
@@ -29,7 +36,7 @@ public interface IDisplay {
         if (hasTouchableScreen) {
             operatingSystem.touchScreen();
         } else {
-            LOGGER.info("The screen is not touchable.");
+            EventJournal.record(Event.SCREEN_NOT_TOUCHABLE, this);
         }
     }
 }
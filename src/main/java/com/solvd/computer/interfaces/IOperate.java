@@ -17,15 +17,22 @@
  */
 package com.solvd.computer.interfaces;
 
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public interface IOperate {
+    /**
+     * @deprecated The events of IOperate are recorded in the EventJournal, nothing
+     * is logged through this logger any more.
+     */
+    @Deprecated
     Logger LOGGER = LogManager.getLogger(IOperate.class);
 
     void useTouchpad();
 
     default void touchScreen() {
-        LOGGER.info("The touchable screen is touched.");
+        EventJournal.record(Event.TOUCHABLE_SCREEN_TOUCHED, this);
     }
 }
@@ -17,13 +17,20 @@
  */
 package com.solvd.computer.interfaces;
 
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public interface ISubstitute {
+    /**
+     * @deprecated The events of ISubstitute are recorded in the EventJournal, nothing
+     * is logged through this logger any more.
+     */
+    @Deprecated
     Logger LOGGER = LogManager.getLogger(ISubstitute.class);
 
     default void useRAMAsGPUMemory() {
-        LOGGER.info("The part of the RAM is used as the GPU memory.");
+        EventJournal.record(Event.RAM_USED_AS_GPU_MEMORY, this);
     }
 }
@@ -17,17 +17,24 @@
  */
 package com.solvd.computer.interfaces;
 
+import com.solvd.computer.journal.Event;
+import com.solvd.computer.journal.EventJournal;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public interface ITurn {
+    /**
+     * @deprecated The events of ITurn are recorded in the EventJournal, nothing
+     * is logged through this logger any more.
+     */
+    @Deprecated
     Logger LOGGER = LogManager.getLogger(ITurn.class);
 
     static void turnOff(boolean isTurnedOn) {
         if (isTurnedOn) {
-            LOGGER.info("The computer is turned off.");
+            EventJournal.record(Event.COMPUTER_TURNED_OFF);
         } else {
-            LOGGER.info("The computer is not turned on.");
+            EventJournal.record(Event.COMPUTER_NOT_TURNED_ON);
         }
     }
 
@@ -35,9 +42,9 @@ public interface ITurn {
 
     default void reset(boolean isTurnedOn) {
         if (isTurnedOn) {
-            LOGGER.info("The computer is reset.");
+            EventJournal.record(Event.COMPUTER_RESET, this);
         } else {
-            LOGGER.info("The computer is not turned on.");
+            EventJournal.record(Event.COMPUTER_NOT_TURNED_ON, this);
         }
     }
 }
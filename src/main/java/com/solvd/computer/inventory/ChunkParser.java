@@ -0,0 +1,342 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ChunkParser class turns a chunk of an inventory file, which holds only
+ * whole records, into laptops. The values are converted straight from the
+ * bytes of the chunk: numbers without an intermediate string, enums by
+ * comparing the bytes with the names of the constants, and strings through a
+ * table of the strings already seen in the chunk, so repeated values such as
+ * producers and types share one instance. Every row that cannot become a
+ * laptop is rejected with its line and reason and the parsing goes on.
+ */
+abstract class ChunkParser {
+    private final static int STRING_TABLE_SIZE = 1024;
+    private final static int MAX_PROBES = 8;
+    private final static int MAX_CACHED_LENGTH = 128;
+    private final static int MAX_FAST_DIGITS = 18;
+    private final static long MAX_EXACT_MANTISSA = 1L << 53;
+    private final static double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    protected final byte[] data;
+    protected final int end;
+    protected final LaptopRow row = new LaptopRow();
+    protected int position;
+    protected int line = 0;
+    private final byte[][] keys = new byte[STRING_TABLE_SIZE][];
+    private final String[] strings = new String[STRING_TABLE_SIZE];
+    private int cachedStrings = 0;
+
+    ChunkParser(byte[] data, int start, int end) {
+        this.data = data;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses every record of the chunk. The lines of the rejections are
+     * counted from the start of the chunk.
+     */
+    final Result parse() {
+        List<Laptop> laptops = new ArrayList<>();
+        List<InventoryImporter.Rejection> rejections = new ArrayList<>();
+
+        while (position < end) {
+            int first = line;
+            row.clear();
+
+            try {
+                if (!parseRecord()) {
+                    continue;
+                }
+
+                String reason = row.validate();
+
+                if (reason == null) {
+                    laptops.add(row.toLaptop());
+                } else {
+                    rejections.add(new InventoryImporter.Rejection(first, reason));
+                }
+            } catch (IllegalArgumentException | ZeroOrTooManyCharactersException
+                     | ZeroOrTooManyUSDException | NoOneOrTooManyInchesException
+                     | NoOneOrTooManyCoresException | NoOneOrTooManyHzException ex) {
+                rejections.add(new InventoryImporter.Rejection(first, ex.getMessage()));
+            }
+        }
+
+        return new Result(laptops, rejections, line);
+    }
+
+    /**
+     * Parses the record at the position into the row and moves past it, also
+     * when the record is malformed. Returns false for a blank line.
+     */
+    protected abstract boolean parseRecord();
+
+    /**
+     * Converts the bytes of a value into the type of the field and puts it
+     * into the row.
+     */
+    protected final void set(InventoryField field, byte[] bytes, int from, int to) {
+        if (field.getKind() != InventoryField.Kind.STRING) {
+            while (from < to && isBlank(bytes[from])) {
+                from++;
+            }
+
+            while (to > from && isBlank(bytes[to - 1])) {
+                to--;
+            }
+        }
+
+        switch (field.getKind()) {
+            case STRING -> row.setObject(field, string(bytes, from, to));
+            case INT -> row.setInt(field, parseInt(field, bytes, from, to));
+            case DOUBLE -> row.setDouble(field, parseDouble(field, bytes, from, to));
+            case DECIMAL -> row.setObject(field, parseDecimal(field, bytes, from, to));
+            case BOOLEAN -> row.setInt(field, parseBoolean(field, bytes, from, to) ? 1 : 0);
+            case ENUM -> {
+                Enum<?> constant = field.constant(bytes, from, to);
+
+                if (constant == null) {
+                    throw invalid(field, bytes, from, to);
+                }
+
+                row.setObject(field, constant);
+            }
+        }
+    }
+
+    /**
+     * Returns the string of the bytes, the same instance for the same bytes
+     * while the table has room.
+     */
+    private String string(byte[] bytes, int from, int to) {
+        if (to - from > MAX_CACHED_LENGTH) {
+            return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        }
+
+        int hash = 1;
+
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+
+        int slot = (hash ^ hash >>> 16) & STRING_TABLE_SIZE - 1;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            byte[] key = keys[slot];
+
+            if (key == null) {
+                String string = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+
+                if (cachedStrings < STRING_TABLE_SIZE * 3 / 4) {
+                    keys[slot] = Arrays.copyOfRange(bytes, from, to);
+                    strings[slot] = string;
+                    cachedStrings++;
+                }
+
+                return string;
+            }
+
+            if (Arrays.equals(key, 0, key.length, bytes, from, to)) {
+                return strings[slot];
+            }
+
+            slot = slot + 1 & STRING_TABLE_SIZE - 1;
+        }
+
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private static int parseInt(InventoryField field, byte[] bytes, int from, int to) {
+        int i = from;
+        boolean negative = i < to && bytes[i] == '-';
+
+        if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+            i++;
+        }
+
+        if (i == to || to - i > 10) {
+            throw invalid(field, bytes, from, to);
+        }
+
+        long value = 0;
+
+        for (; i < to; i++) {
+            int digit = bytes[i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                throw invalid(field, bytes, from, to);
+            }
+
+            value = value * 10 + digit;
+        }
+
+        value = negative ? -value : value;
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw invalid(field, bytes, from, to);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Parses a plain decimal number of up to 18 digits by dividing its digits
+     * by a power of ten, which gives the same double as Double.parseDouble as
+     * long as both are exact doubles. Any other number goes through
+     * Double.parseDouble.
+     */
+    private static double parseDouble(InventoryField field, byte[] bytes, int from, int to) {
+        int i = from;
+        boolean negative = i < to && bytes[i] == '-';
+
+        if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+
+        for (; i < to; i++) {
+            byte b = bytes[i];
+
+            if (b >= '0' && b <= '9' && digits < MAX_FAST_DIGITS) {
+                mantissa = mantissa * 10 + b - '0';
+                digits++;
+                scale += point ? 1 : 0;
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+
+        if (i == to && digits > 0 && mantissa < MAX_EXACT_MANTISSA
+                && scale < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+        } catch (NumberFormatException ex) {
+            throw invalid(field, bytes, from, to);
+        }
+    }
+
+    private static BigDecimal parseDecimal(InventoryField field, byte[] bytes, int from, int to) {
+        int i = from;
+        boolean negative = i < to && bytes[i] == '-';
+
+        if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+            i++;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+
+        for (; i < to; i++) {
+            byte b = bytes[i];
+
+            if (b >= '0' && b <= '9' && digits < MAX_FAST_DIGITS) {
+                unscaled = unscaled * 10 + b - '0';
+                digits++;
+                scale += point ? 1 : 0;
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+
+        if (i == to && digits > 0) {
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+        }
+
+        try {
+            return new BigDecimal(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+        } catch (NumberFormatException ex) {
+            throw invalid(field, bytes, from, to);
+        }
+    }
+
+    private static boolean parseBoolean(InventoryField field, byte[] bytes, int from, int to) {
+        if (matches(bytes, from, to, "true")) {
+            return true;
+        }
+
+        if (matches(bytes, from, to, "false")) {
+            return false;
+        }
+
+        throw invalid(field, bytes, from, to);
+    }
+
+    private static boolean matches(byte[] bytes, int from, int to, String text) {
+        if (to - from != text.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            if ((bytes[from + i] | 0x20) != text.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    protected static IllegalArgumentException invalid(InventoryField field, byte[] bytes,
+                                                      int from, int to) {
+        return new IllegalArgumentException("Invalid " + field.getColumn() + ": "
+                                            + new String(bytes, from, to - from,
+                                                         StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The laptops and rejections of a chunk and the number of its lines.
+     */
+    record Result(List<Laptop> laptops, List<InventoryImporter.Rejection> rejections, int lines) {
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+/**
+ * The CsvChunkParser class parses chunks of a CSV inventory, whose columns are
+ * given by the header. A quoted value may hold commas, doubled quotes and
+ * line breaks and is unescaped in place, the chunk being owned by the parser.
+ * Empty values are missing values and columns the inventory does not know
+ * are skipped.
+ */
+final class CsvChunkParser extends ChunkParser {
+    private final InventoryField[] columns;
+    private final int[] starts;
+    private final int[] ends;
+
+    CsvChunkParser(byte[] data, int start, int end, InventoryField[] columns) {
+        super(data, start, end);
+        this.columns = columns;
+        this.starts = new int[columns.length];
+        this.ends = new int[columns.length];
+    }
+
+    /**
+     * Returns the fields of the columns named by the header line, with null
+     * for an unknown column.
+     */
+    static InventoryField[] columns(byte[] bytes, int from, int to) {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+
+        int count = 1;
+
+        for (int i = from; i < to; i++) {
+            count += bytes[i] == ',' ? 1 : 0;
+        }
+
+        InventoryField[] columns = new InventoryField[count];
+        InventoryField expected = InventoryField.PRODUCER;
+        int start = from;
+
+        for (int column = 0; column < count; column++) {
+            int stop = start;
+
+            while (stop < to && bytes[stop] != ',') {
+                stop++;
+            }
+
+            columns[column] = InventoryField.find(bytes, start, stop, expected);
+            expected = columns[column] == null ? null : columns[column].next();
+            start = stop + 1;
+        }
+
+        return columns;
+    }
+
+    /**
+     * Returns the position after the last line break of the bytes that is
+     * not inside a quoted value, or the start if there is none. As in
+     * parseRecord, only a quote at the start of a value opens a quoted value,
+     * and a value that goes on after its closing quote makes the rest of the
+     * record malformed up to the next line break.
+     */
+    static int lastRecordEnd(byte[] bytes, int from, int to) {
+        int recordEnd = from;
+        boolean valueStart = true;
+        boolean quoted = false;
+        boolean closed = false;
+        boolean malformed = false;
+
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+
+            if (quoted) {
+                if (b == '"') {
+                    if (i + 1 < to && bytes[i + 1] == '"') {
+                        i++;
+                    } else {
+                        quoted = false;
+                        closed = true;
+                    }
+                }
+            } else if (b == '\n') {
+                recordEnd = i + 1;
+                valueStart = true;
+                closed = false;
+                malformed = false;
+            } else if (malformed) {
+                // Skip the rest of the malformed record.
+            } else if (closed) {
+                closed = false;
+                valueStart = b == ',';
+                malformed = !valueStart;
+            } else if (valueStart && b == '"') {
+                quoted = true;
+                valueStart = false;
+            } else {
+                valueStart = b == ',';
+            }
+        }
+
+        return recordEnd;
+    }
+
+    @Override
+    protected boolean parseRecord() {
+        if (data[position] == '\n' || data[position] == '\r' && position + 1 < end
+                                      && data[position + 1] == '\n') {
+            position += data[position] == '\n' ? 1 : 2;
+            line++;
+            return false;
+        }
+
+        int column = 0;
+        String error = null;
+
+        while (true) {
+            int start = position;
+            int stop;
+
+            if (data[position] == '"') {
+                int write = start;
+                position++;
+
+                while (true) {
+                    if (position >= end) {
+                        throw new IllegalArgumentException("Unterminated quoted value");
+                    }
+
+                    byte b = data[position++];
+
+                    if (b == '"') {
+                        if (position < end && data[position] == '"') {
+                            position++;
+                        } else {
+                            break;
+                        }
+                    } else if (b == '\n') {
+                        line++;
+                    }
+
+                    data[write++] = b;
+                }
+
+                stop = write;
+            } else {
+                while (position < end && data[position] != ',' && data[position] != '\n') {
+                    position++;
+                }
+
+                stop = position;
+            }
+
+            if (column < columns.length) {
+                starts[column] = start;
+                ends[column] = stop;
+            }
+
+            column++;
+
+            if (position >= end) {
+                break;
+            }
+
+            byte b = data[position++];
+
+            if (b == '\n' || b == '\r' && position < end && data[position] == '\n') {
+                position += b == '\r' ? 1 : 0;
+                line++;
+                break;
+            }
+
+            if (b != ',') {
+                while (position < end && data[position++] != '\n') {
+                    // Skip the rest of the malformed record.
+                }
+
+                line++;
+                error = "Unexpected character after a quoted value";
+                break;
+            }
+        }
+
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+
+        if (column != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values, found "
+                                               + column);
+        }
+
+        for (int i = 0; i < columns.length; i++) {
+            int stop = ends[i];
+
+            if (stop > starts[i] && data[stop - 1] == '\r' && i == columns.length - 1) {
+                stop--;
+            }
+
+            if (columns[i] != null && stop > starts[i]) {
+                set(columns[i], data, starts[i], stop);
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Computer;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+import com.solvd.computer.enums.ComputerType;
+import com.solvd.computer.enums.Freshness;
+import com.solvd.computer.enums.Model;
+import com.solvd.computer.enums.Producer;
+import com.solvd.computer.enums.Target;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The columns of an inventory, named the way InventoryFormat writes them, with
+ * the limits the constructors of the components check. Strings are limited by
+ * their length and numbers by their range, where a minimum of zero is
+ * exclusive for doubles, as in the constructors.
+ */
+enum InventoryField {
+    PRODUCER("producer", Kind.STRING, 1, Computer.getMaxProducerNameLength()),
+    MODEL("model", Kind.STRING, 1, Computer.getMaxModelNameLength()),
+    TYPE("type", Kind.STRING, 1, Computer.getMaxTypeNameLength()),
+    OPERATING_SYSTEM_NAME("operatingSystem.name", Kind.STRING, 1,
+                          OperatingSystem.getMaxNameLength()),
+    SCREEN_SIZE("screen.screenSizeInInches", Kind.DOUBLE, 0,
+                Display.getMaxScreenSizeInInches()),
+    SCREEN_RESOLUTION("screen.resolution", Kind.STRING, 1, Display.getMaxResolutionNameLength()),
+    SCREEN_TYPE("screen.type", Kind.STRING, 1, Display.getMaxTypeNameLength()),
+    PROCESSOR_NAME("processor.name", Kind.STRING, 1, CPU.getMaxNameLength()),
+    PROCESSOR_CORES("processor.numOfCores", Kind.INT, 1, CPU.getMaxNumOfCores()),
+    PROCESSOR_CLOCK_RATE("processor.clockRateInGHz", Kind.DOUBLE, 0, CPU.getMaxClockRateInGhz()),
+    PROCESSOR_TURBO_BOOST("processor.hasTurboBoost", Kind.BOOLEAN, 0, 1),
+    GRAPHICS_NAME("graphics.name", Kind.STRING, 1, GPU.getMaxNameLength()),
+    GRAPHICS_MEMORY_SIZE("graphics.videoMemorySizeInGBs", Kind.INT, 0,
+                         GPU.getMaxVideoMemorySizeInGBs()),
+    GRAPHICS_CLOCK_RATE("graphics.clockRateInMHz", Kind.INT, 1, GPU.getMaxClockRateInMHz()),
+    GRAPHICS_INTEGRATED("graphics.isIntegrated", Kind.BOOLEAN, 0, 1),
+    MEMORY_SIZE("memory.memorySizeInGBs", Kind.INT, 1, RAM.getMaxMemorySizeInGBs()),
+    MEMORY_CLOCK_RATE("memory.clockRateInMHz", Kind.INT, 1, RAM.getMaxClockRateInMHz()),
+    MEMORY_TYPE("memory.type", Kind.STRING, 1, RAM.getMaxTypeNameLength()),
+    STORAGE_SIZE("storage.sizeInGBs", Kind.INT, 1, Storage.getMaxSizeInGBs()),
+    STORAGE_TYPE("storage.type", Kind.STRING, 1, Storage.getMaxTypeNameLength()),
+    USB_TYPE_A_PORTS("ports.numOfUSBTypeA", Kind.INT, 0, Port.getMaxNumOfUSBTypeA()),
+    MICRO_SD_PORTS("ports.numOfMicroSD", Kind.INT, 0, Port.getMaxNumOfMicroSD()),
+    HDMI_PORTS("ports.numOfHDMI", Kind.INT, 0, Port.getMaxNumOfHDMI()),
+    HEAD_MIC_COMBO_PORTS("ports.numOfHeadMicCombo", Kind.INT, 0, Port.getMaxNumOfHeadMicCombo()),
+    USB_TYPE_C_PORTS("ports.numOfUSBTypeC", Kind.INT, 0, Port.getMaxNumOfUSBTypeC()),
+    PRICE("priceInUSD", Kind.DECIMAL, 0, Computer.getMaxPriceInUSD().doubleValue()),
+    TURNED_ON("isTurnedOn", Kind.BOOLEAN, 0, 1),
+    WIRELESS_NETWORKING("hasWirelessNetworking", Kind.BOOLEAN, 0, 1),
+    INTEGRATED_CAMERA("hasIntegratedCamera", Kind.BOOLEAN, 0, 1),
+    INTEGRATED_MICROPHONE("hasIntegratedMicrophone", Kind.BOOLEAN, 0, 1),
+    INTEGRATED_SPEAKERS("hasIntegratedSpeakers", Kind.BOOLEAN, 0, 1),
+    INTEGRATED_KEYBOARD("hasIntegratedKeyboard", Kind.BOOLEAN, 0, 1),
+    TOUCHPAD("hasTouchpad", Kind.BOOLEAN, 0, 1),
+    TOUCHABLE_SCREEN("hasTouchableScreen", Kind.BOOLEAN, 0, 1),
+    WEIGHT("weightInGrams", Kind.DOUBLE, 0, Laptop.getMaxWeightInGrams()),
+    COLOR("color", Kind.STRING, 1, Laptop.getMaxColorNameLength()),
+    COMPUTER_TYPE("computerType", ComputerType.values()),
+    FRESHNESS("freshness", Freshness.values()),
+    COMPUTER_MODEL("computerModel", Model.values()),
+    COMPUTER_PRODUCER("computerProducer", Producer.values()),
+    TARGET("target", Target.values());
+
+    private final static InventoryField[] FIELDS = values();
+
+    private final String column;
+    private final byte[] name;
+    private final Kind kind;
+    private final double minimum;
+    private final double maximum;
+    private final Enum<?>[] constants;
+    private final byte[][] constantNames;
+
+    InventoryField(String column, Kind kind, double minimum, double maximum) {
+        this.column = column;
+        this.name = column.getBytes(StandardCharsets.UTF_8);
+        this.kind = kind;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.constants = null;
+        this.constantNames = null;
+    }
+
+    InventoryField(String column, Enum<?>[] constants) {
+        this.column = column;
+        this.name = column.getBytes(StandardCharsets.UTF_8);
+        this.kind = Kind.ENUM;
+        this.minimum = 0;
+        this.maximum = 0;
+        this.constants = constants;
+        this.constantNames = Arrays.stream(constants)
+                .map(constant -> constant.name().getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+    }
+
+    String getColumn() {
+        return column;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    double getMinimum() {
+        return minimum;
+    }
+
+    double getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the enum constant named by the bytes or null if there is none.
+     */
+    Enum<?> constant(byte[] bytes, int from, int to) {
+        for (int i = 0; i < constants.length; i++) {
+            if (Arrays.equals(constantNames[i], 0, constantNames[i].length, bytes, from, to)) {
+                return constants[i];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the field the bytes name or null for an unknown column. The
+     * expected field is checked first, as the columns usually come in order.
+     */
+    static InventoryField find(byte[] bytes, int from, int to, InventoryField expected) {
+        if (expected != null && expected.matches(bytes, from, to)) {
+            return expected;
+        }
+
+        for (InventoryField field : FIELDS) {
+            if (field.matches(bytes, from, to)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the field that follows this one in the order InventoryFormat
+     * writes them, or null after the last one.
+     */
+    InventoryField next() {
+        return ordinal() + 1 < FIELDS.length ? FIELDS[ordinal() + 1] : null;
+    }
+
+    private boolean matches(byte[] bytes, int from, int to) {
+        return Arrays.equals(name, 0, name.length, bytes, from, to);
+    }
+
+    enum Kind {
+        STRING,
+        INT,
+        DOUBLE,
+        DECIMAL,
+        BOOLEAN,
+        ENUM
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The text formats of a laptop inventory. Both are written from the maps of
+ * LaptopMapper: CSV flattens nested maps into columns named like
+ * processor.numOfCores and starts with a header line, JSON lines keeps one
+ * nested object per line.
+ */
+public enum InventoryFormat {
+    CSV {
+        @Override
+        public String header(Map<String, Object> laptop) {
+            List<String> columns = new ArrayList<>();
+            flatten("", laptop, (column, value) -> columns.add(column));
+            return String.join(",", columns) + "\n";
+        }
+
+        @Override
+        public void append(StringBuilder out, Map<String, Object> laptop) {
+            List<Object> values = new ArrayList<>();
+            flatten("", laptop, (column, value) -> values.add(value));
+            boolean first = true;
+
+            for (Object value : values) {
+                if (!first) {
+                    out.append(',');
+                }
+
+                first = false;
+                appendCsv(out, value);
+            }
+
+            out.append('\n');
+        }
+    },
+    JSON_LINES {
+        @Override
+        public String header(Map<String, Object> laptop) {
+            return "";
+        }
+
+        @Override
+        public void append(StringBuilder out, Map<String, Object> laptop) {
+            appendJson(out, laptop);
+            out.append('\n');
+        }
+    };
+
+    public abstract String header(Map<String, Object> laptop);
+
+    public abstract void append(StringBuilder out, Map<String, Object> laptop);
+
+    @SuppressWarnings("unchecked")
+    private static void flatten(String prefix, Map<String, Object> map,
+                                ColumnConsumer consumer) {
+        map.forEach((key, value) -> {
+            if (value instanceof Map<?, ?> nested) {
+                flatten(prefix + key + ".", (Map<String, Object>) nested, consumer);
+            } else {
+                consumer.accept(prefix + key, value);
+            }
+        });
+    }
+
+    private static void appendCsv(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+
+        String text = enumName(value);
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0
+                && text.indexOf('\r') < 0) {
+            out.append(text);
+            return;
+        }
+
+        out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendJson(StringBuilder out, Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Number) {
+            out.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) map).entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+
+                first = false;
+                appendJsonString(out, entry.getKey());
+                out.append(':');
+                appendJson(out, entry.getValue());
+            }
+
+            out.append('}');
+        } else {
+            appendJsonString(out, enumName(value));
+        }
+    }
+
+    private static void appendJsonString(StringBuilder out, String text) {
+        out.append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+
+        out.append('"');
+    }
+
+    /**
+     * Enums are written by name, their toString gives the display name that
+     * cannot be read back with valueOf.
+     */
+    private static String enumName(Object value) {
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    @FunctionalInterface
+    private interface ColumnConsumer {
+        void accept(String column, Object value);
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.CPUBuilder;
+import com.solvd.computer.Computer;
+import com.solvd.computer.Display;
+import com.solvd.computer.DisplayBuilder;
+import com.solvd.computer.GPU;
+import com.solvd.computer.GPUBuilder;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.LaptopBuilder;
+import com.solvd.computer.LaptopMapper;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.RAMBuilder;
+import com.solvd.computer.Storage;
+import com.solvd.computer.StorageBuilder;
+import com.solvd.computer.enums.ComputerType;
+import com.solvd.computer.enums.Freshness;
+import com.solvd.computer.enums.Model;
+import com.solvd.computer.enums.Producer;
+import com.solvd.computer.enums.Target;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * The InventoryGenerator class generates any number of valid laptops for load
+ * tests. The laptop with a given index depends only on the seed and the
+ * index, so the laptops can be generated in parallel and in any order and
+ * the same seed always gives the same inventory. The attributes follow the
+ * target of the laptop: gaming laptops get more cores, memory and discrete
+ * graphics, budget ones the opposite, and all values are kept within the
+ * validation limits of the components.
+ */
+public final class InventoryGenerator {
+    private final static Logger LOGGER = LogManager.getLogger(InventoryGenerator.class);
+    private final static long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final static int CHUNK_SIZE = 8192;
+    private final static int CHUNKS_PER_THREAD = 2;
+    private final static Producer[] PRODUCERS = {Producer.DELL, Producer.LENOVO, Producer.SONY};
+    private final static double[] PRODUCER_WEIGHTS = {0.40, 0.40, 0.20};
+    private final static Model[] MODELS = {Model.LATITUDE_7400_2_in_1, Model.THINK_PAD,
+                                           Model.VAIO};
+    private final static Target[] TARGETS = {Target.BUSINESS, Target.UNIVERSAL, Target.BUDGET,
+                                             Target.GAME};
+    private final static double[] TARGET_WEIGHTS = {0.35, 0.30, 0.20, 0.15};
+    private final static List<String> OPERATING_SYSTEMS = fitting(
+            List.of("Windows 11 Pro", "Windows 11 Home", "Windows 10 Pro", "Ubuntu 24.04 LTS"),
+            OperatingSystem.getMaxNameLength());
+    private final static double[] SCREEN_SIZES = {13.3, 14.0, 15.6, 16.0, 17.3};
+    private final static List<String> RESOLUTIONS = fitting(
+            List.of("1920x1080", "1920x1200", "2560x1440", "2560x1600", "3840x2160"),
+            Display.getMaxResolutionNameLength());
+    private final static List<String> SCREEN_TYPES = fitting(
+            List.of("LCD", "IPS LCD", "OLED", "LCD touch screen"),
+            Display.getMaxTypeNameLength());
+    private final static List<String> COLORS = fitting(
+            List.of("gray", "black", "silver", "white", "blue"),
+            Laptop.getMaxColorNameLength());
+
+    private final long seed;
+
+    public InventoryGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public Laptop laptop(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index + 1) * GOLDEN_GAMMA);
+        int producer = pick(random, PRODUCER_WEIGHTS);
+        Target target = TARGETS[pick(random, TARGET_WEIGHTS)];
+        int tier = switch (target) {
+            case BUDGET -> 0;
+            case UNIVERSAL -> 1;
+            case BUSINESS -> 2;
+            case GAME -> 3;
+        };
+
+        try {
+            CPU processor = processor(random, tier);
+            GPU graphics = graphics(random, tier);
+            RAM memory = memory(random, tier);
+            Storage storage = storage(random, tier);
+            Display screen = screen(random, tier);
+            double weightInGrams = Math.min(Laptop.getMaxWeightInGrams(),
+                                            Math.round(screen.getScreenSizeInInches() * 90
+                                                       + tier * 150
+                                                       + random.nextDouble(-150, 150)));
+            int ramCost = memory.getMemorySizeInGBs() * 4 + storage.getSizeInGBs() / 8;
+            BigDecimal price = BigDecimal
+                    .valueOf((250 + tier * 450 + ramCost)
+                             * Math.exp(random.nextGaussian() * 0.2))
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .max(new BigDecimal("0.01"))
+                    .min(Computer.getMaxPriceInUSD());
+
+            return new LaptopBuilder()
+                    .producer(PRODUCERS[producer].getProducer())
+                    .model(MODELS[producer].getModel())
+                    .type(ComputerType.LAPTOP.getComputerType())
+                    .operatingSystem(new OperatingSystem(pick(random, OPERATING_SYSTEMS)))
+                    .screen(screen)
+                    .processor(processor)
+                    .graphics(graphics)
+                    .memory(memory)
+                    .storage(storage)
+                    .ports(ports(random))
+                    .priceInUSD(price)
+                    .isTurnedOn(false)
+                    .hasWirelessNetworking(random.nextDouble() < 0.98)
+                    .hasIntegratedCamera(random.nextDouble() < 0.95)
+                    .hasIntegratedMicrophone(random.nextDouble() < 0.95)
+                    .hasIntegratedSpeakers(random.nextDouble() < 0.97)
+                    .hasIntegratedKeyboard(true)
+                    .hasTouchpad(random.nextDouble() < 0.99)
+                    .hasTouchableScreen(screen.getType().contains("touch"))
+                    .weightInGrams(weightInGrams)
+                    .color(pick(random, COLORS))
+                    .computerType(weightInGrams < 1400 ? ComputerType.ULTRABOOK
+                                                       : ComputerType.LAPTOP)
+                    .freshness(random.nextDouble() < 0.7 ? Freshness.NEW
+                                                         : Freshness.NOT_NEW_MODEL)
+                    .computerModel(MODELS[producer])
+                    .computerProducer(PRODUCERS[producer])
+                    .target(target)
+                    .build();
+        } catch (ZeroOrTooManyCharactersException | NoOneOrTooManyCoresException | NoOneOrTooManyHzException
+                 | NoOneOrTooManyInchesException | ZeroOrTooManyUSDException ex) {
+            throw new IllegalStateException("Generated an invalid laptop at index " + index, ex);
+        }
+    }
+
+    /**
+     * Returns the laptops with the indices from 0 to count - 1 in order,
+     * generated in parallel.
+     */
+    public Stream<Laptop> stream(long count) {
+        return LongStream.range(0, count).parallel().mapToObj(this::laptop);
+    }
+
+    public List<Laptop> list(int count) {
+        return stream(count).toList();
+    }
+
+    /**
+     * Writes the laptops with the indices from 0 to count - 1 to the file.
+     * Chunks of laptops are generated and formatted in parallel and written
+     * in order, a few chunks per thread at a time.
+     */
+    public void write(Path file, long count, InventoryFormat format) throws IOException {
+        long chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int batchSize = Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD;
+        Path parent = file.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20)) {
+            out.write(format.header(LaptopMapper.toMap(laptop(0))).getBytes(StandardCharsets.UTF_8));
+
+            for (long batch = 0; batch < chunks; batch += batchSize) {
+                long first = batch;
+                List<byte[]> blocks = IntStream
+                        .range(0, (int) Math.min(batchSize, chunks - batch))
+                        .parallel()
+                        .mapToObj(i -> format(first + i, count, format))
+                        .toList();
+
+                for (byte[] block : blocks) {
+                    out.write(block);
+                }
+            }
+        }
+    }
+
+    private byte[] format(long chunk, long count, InventoryFormat format) {
+        StringBuilder out = new StringBuilder(CHUNK_SIZE * 512);
+        long end = Math.min(count, (chunk + 1) * CHUNK_SIZE);
+
+        for (long index = chunk * CHUNK_SIZE; index < end; index++) {
+            format.append(out, LaptopMapper.toMap(laptop(index)));
+        }
+
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static CPU processor(SplittableRandom random, int tier)
+            throws ZeroOrTooManyCharactersException, NoOneOrTooManyCoresException, NoOneOrTooManyHzException {
+        int[] cores = {2, 4, 6, 8, 12, 16, 24};
+        int numOfCores = Math.min(CPU.getMaxNumOfCores(),
+                                  cores[Math.min(cores.length - 1,
+                                                 tier + random.nextInt(4))]);
+        double clockRate = Math.clamp(Math.round((2.0 + tier * 0.5
+                                                  + random.nextGaussian() * 0.4) * 20) / 20.0,
+                                      0.8, CPU.getMaxClockRateInGhz());
+        String family = tier == 3 ? "Core i9" : tier == 0 ? "Core i3" : "Core i" + (3 + tier * 2);
+        return new CPUBuilder()
+                .name("Intel(R) " + family + " " + numOfCores + "-core @ " + clockRate + " GHz")
+                .numOfCores(numOfCores)
+                .clockRateInGHz(clockRate)
+                .hasTurboBoost(tier > 0 || random.nextBoolean())
+                .build();
+    }
+
+    private static GPU graphics(SplittableRandom random, int tier)
+            throws ZeroOrTooManyCharactersException, NoOneOrTooManyHzException {
+        boolean integrated = tier < 3 && random.nextDouble() < 0.8 - tier * 0.2;
+
+        if (integrated) {
+            return new GPUBuilder()
+                    .name("Intel(R) UHD Graphics 620")
+                    .videoMemorySizeInGBs(0)
+                    .clockRateInMHz(Math.min(GPU.getMaxClockRateInMHz(),
+                                             1000 + random.nextInt(300)))
+                    .isIntegrated(true)
+                    .build();
+        }
+
+        int[] memory = {4, 6, 8, 12, 16};
+        return new GPUBuilder()
+                .name("NVIDIA GeForce RTX " + (tier + 2) + "0" + (5 + random.nextInt(5)) + "0")
+                .videoMemorySizeInGBs(Math.min(GPU.getMaxVideoMemorySizeInGBs(),
+                                               memory[Math.min(memory.length - 1,
+                                                               tier + random.nextInt(2))]))
+                .clockRateInMHz(Math.min(GPU.getMaxClockRateInMHz(),
+                                         1400 + tier * 200 + random.nextInt(600)))
+                .isIntegrated(false)
+                .build();
+    }
+
+    private static RAM memory(SplittableRandom random, int tier)
+            throws NoOneOrTooManyHzException, ZeroOrTooManyCharactersException {
+        int[] sizes = {4, 8, 16, 32, 64};
+        int[] clockRates = {2133, 2666, 3200, 4800, 5600};
+        int generation = Math.min(clockRates.length - 1, tier + random.nextInt(2));
+        return new RAMBuilder()
+                .memorySizeInGBs(Math.min(RAM.getMaxMemorySizeInGBs(),
+                                          sizes[Math.min(sizes.length - 1,
+                                                         tier + random.nextInt(2))]))
+                .clockRateInMHz(Math.min(RAM.getMaxClockRateInMHz(), clockRates[generation]))
+                .type(generation >= 3 ? "DDR5 RAM" : "DDR4 RAM")
+                .build();
+    }
+
+    private static Storage storage(SplittableRandom random, int tier)
+            throws ZeroOrTooManyCharactersException {
+        int[] sizes = {128, 256, 512, 1024, 2048, 4096};
+        return new StorageBuilder()
+                .sizeInGBs(Math.min(Storage.getMaxSizeInGBs(),
+                                    sizes[Math.min(sizes.length - 1,
+                                                   tier + random.nextInt(3))]))
+                .type(tier == 0 && random.nextDouble() < 0.3 ? "HDD" : "SSD")
+                .build();
+    }
+
+    private static Display screen(SplittableRandom random, int tier)
+            throws NoOneOrTooManyInchesException, ZeroOrTooManyCharactersException {
+        return new DisplayBuilder()
+                .screenSizeInInches(Math.min(Display.getMaxScreenSizeInInches(),
+                                             SCREEN_SIZES[random.nextInt(SCREEN_SIZES.length)]))
+                .resolution(RESOLUTIONS.get(Math.min(RESOLUTIONS.size() - 1,
+                                                     tier + random.nextInt(2))))
+                .type(pick(random, SCREEN_TYPES))
+                .build();
+    }
+
+    private static Port ports(SplittableRandom random) {
+        return new Port(random.nextInt(Port.getMaxNumOfUSBTypeA() + 1),
+                        random.nextInt(Port.getMaxNumOfMicroSD() + 1),
+                        random.nextInt(Port.getMaxNumOfHDMI() + 1),
+                        random.nextInt(Port.getMaxNumOfHeadMicCombo() + 1),
+                        random.nextInt(Port.getMaxNumOfUSBTypeC() + 1));
+    }
+
+    private static int pick(SplittableRandom random, double[] weights) {
+        double value = random.nextDouble();
+
+        for (int i = 0; i < weights.length - 1; i++) {
+            value -= weights[i];
+
+            if (value < 0) {
+                return i;
+            }
+        }
+
+        return weights.length - 1;
+    }
+
+    private static String pick(SplittableRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static List<String> fitting(List<String> values, int maxLength) {
+        return values.stream().filter(value -> value.length() <= maxLength).toList();
+    }
+
+    /**
+     * Writes an inventory: number of laptops, seed, output file and format
+     * (CSV or JSON_LINES).
+     */
+    public static void main(String[] args) throws IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        Path file = Path.of(args.length > 2 ? args[2] : "logs/inventory.csv");
+        InventoryFormat format = args.length > 3
+                ? InventoryFormat.valueOf(args[3])
+                : InventoryFormat.CSV;
+        long start = System.nanoTime();
+        new InventoryGenerator(seed).write(file, count, format);
+        LOGGER.info("{} laptops written to {} in {} ms.", count, file,
+                    (System.nanoTime() - start) / 1000000);
+    }
+}
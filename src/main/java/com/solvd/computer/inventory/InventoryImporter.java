@@ -0,0 +1,272 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+import com.solvd.computer.Laptop;
+import com.solvd.computer.interfaces.IConsume;
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.Histogram;
+import com.solvd.computer.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The InventoryImporter class reads laptops from a CSV or JSON lines inventory
+ * of any size in bounded memory. The file is read in chunks of whole records,
+ * the rest of a record that does not fit moving on to the next chunk. The
+ * chunks are parsed in parallel on the common pool, but only a fixed number
+ * of them is read ahead, so at most that many chunks and their laptops are
+ * held at a time. The laptops are passed on in batches of a chunk in the
+ * order of the file.
+ */
+public final class InventoryImporter {
+    public final static int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private final static Logger LOGGER = LogManager.getLogger(InventoryImporter.class);
+    private final static byte[] BYTE_ORDER_MARK = {(byte) 0xef, (byte) 0xbb, (byte) 0xbf};
+    private final static int MAX_LOGGED_REJECTIONS = 10;
+    private final static Counter IMPORTED = MetricsRegistry.counter("inventory.import.laptops");
+    private final static Counter REJECTED = MetricsRegistry.counter("inventory.import.rejected");
+    private final static Histogram CHUNK_LATENCY =
+            MetricsRegistry.histogram("inventory.import.chunk.latency");
+
+    private final InventoryFormat format;
+    private final int chunkSize;
+    private final int chunksAhead;
+
+    public InventoryImporter(InventoryFormat format) {
+        this(format, DEFAULT_CHUNK_SIZE, 2 * ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Creates an importer that reads chunks of the given size, which limits
+     * the length of a record, and parses at most chunksAhead of them at a
+     * time.
+     */
+    public InventoryImporter(InventoryFormat format, int chunkSize, int chunksAhead) {
+        if (chunkSize <= 0 || chunksAhead <= 0) {
+            throw new IllegalArgumentException("The chunk size and chunks ahead must be positive");
+        }
+
+        this.format = format;
+        this.chunkSize = chunkSize;
+        this.chunksAhead = chunksAhead;
+    }
+
+    /**
+     * Reads the laptops of the file, passing them to batches and the rows that
+     * cannot become laptops to rejections, both on the calling thread and in
+     * the order of the file, and returns the number of laptops read.
+     */
+    public long read(Path file, IConsume<List<Laptop>> batches, IConsume<Rejection> rejections)
+            throws IOException {
+        ArrayDeque<byte[]> free = new ArrayDeque<>();
+        ArrayDeque<Pending> pending = new ArrayDeque<>();
+        long[] totals = {0, 1};
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            byte[] buffer = new byte[chunkSize];
+            int length = fill(channel, buffer, 0);
+            int start = Arrays.equals(buffer, 0, Math.min(length, BYTE_ORDER_MARK.length),
+                                      BYTE_ORDER_MARK, 0, BYTE_ORDER_MARK.length)
+                    ? BYTE_ORDER_MARK.length
+                    : 0;
+            InventoryField[] columns = null;
+
+            if (format == InventoryFormat.CSV) {
+                int headerEnd = start;
+
+                while (headerEnd < length && buffer[headerEnd] != '\n') {
+                    headerEnd++;
+                }
+
+                if (headerEnd == length && length == buffer.length) {
+                    throw new IOException("The header of " + file + " is longer than "
+                                          + chunkSize + " bytes");
+                }
+
+                columns = CsvChunkParser.columns(buffer, start, headerEnd);
+                checkColumns(file, columns);
+                start = Math.min(length, headerEnd + 1);
+                totals[1]++;
+            }
+
+            while (true) {
+                boolean last = length < buffer.length;
+                int recordEnd = last
+                        ? length
+                        : columns != null
+                                ? CsvChunkParser.lastRecordEnd(buffer, start, length)
+                                : JsonChunkParser.lastRecordEnd(buffer, start, length);
+
+                if (recordEnd == start && !last) {
+                    throw new IOException("A record of " + file + " is longer than "
+                                          + chunkSize + " bytes");
+                }
+
+                while (pending.size() >= chunksAhead) {
+                    complete(pending, free, batches, rejections, totals);
+                }
+
+                byte[] next = last ? null : free.isEmpty() ? new byte[chunkSize] : free.poll();
+                int carried = length - recordEnd;
+
+                if (next != null) {
+                    System.arraycopy(buffer, recordEnd, next, 0, carried);
+                }
+
+                if (recordEnd > start) {
+                    pending.add(new Pending(buffer, parse(buffer, start, recordEnd, columns)));
+                } else {
+                    free.add(buffer);
+                }
+
+                if (last) {
+                    break;
+                }
+
+                buffer = next;
+                start = 0;
+                length = fill(channel, buffer, carried);
+            }
+
+            while (!pending.isEmpty()) {
+                complete(pending, free, batches, rejections, totals);
+            }
+        }
+
+        return totals[0];
+    }
+
+    private static CompletableFuture<ChunkParser.Result> parse(byte[] data, int start, int end,
+                                                               InventoryField[] columns) {
+        return CompletableFuture.supplyAsync(() -> {
+            long started = System.nanoTime();
+            ChunkParser parser = columns != null
+                    ? new CsvChunkParser(data, start, end, columns)
+                    : new JsonChunkParser(data, start, end);
+            ChunkParser.Result result = parser.parse();
+            CHUNK_LATENCY.recordSince(started);
+            return result;
+        }, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Waits for the oldest chunk, passes on its laptops and rejections and
+     * frees its buffer. The totals are the laptops read and the first line of
+     * the chunk.
+     */
+    private static void complete(ArrayDeque<Pending> pending, ArrayDeque<byte[]> free,
+                                 IConsume<List<Laptop>> batches, IConsume<Rejection> rejections,
+                                 long[] totals) {
+        Pending oldest = pending.poll();
+        ChunkParser.Result result;
+
+        try {
+            result = oldest.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw ex;
+        }
+
+        free.add(oldest.buffer());
+
+        if (!result.laptops().isEmpty()) {
+            batches.consume(result.laptops());
+        }
+
+        for (Rejection rejection : result.rejections()) {
+            rejections.consume(new Rejection(totals[1] + rejection.line(), rejection.reason()));
+        }
+
+        IMPORTED.add(result.laptops().size());
+        REJECTED.add(result.rejections().size());
+        totals[0] += result.laptops().size();
+        totals[1] += result.lines();
+    }
+
+    private static int fill(FileChannel channel, byte[] buffer, int offset) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(buffer, offset, buffer.length - offset);
+
+        while (target.hasRemaining() && channel.read(target) >= 0) {
+            // Read until the buffer is full or the file ends.
+        }
+
+        return target.position();
+    }
+
+    private static void checkColumns(Path file, InventoryField[] columns) throws IOException {
+        List<String> missing = new ArrayList<>();
+
+        for (InventoryField field : InventoryField.values()) {
+            if (field.getKind() != InventoryField.Kind.ENUM
+                    && !Arrays.asList(columns).contains(field)) {
+                missing.add(field.getColumn());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IOException("The header of " + file + " misses " + missing);
+        }
+    }
+
+    /**
+     * A row that could not become a laptop: its line in the file and why.
+     */
+    public record Rejection(long line, String reason) {
+    }
+
+    private record Pending(byte[] buffer, CompletableFuture<ChunkParser.Result> result) {
+    }
+
+    /**
+     * Imports an inventory and reports how long it took: input file and
+     * format (CSV or JSON_LINES).
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args.length > 0 ? args[0] : "logs/inventory.csv");
+        InventoryFormat format = args.length > 1
+                ? InventoryFormat.valueOf(args[1])
+                : InventoryFormat.CSV;
+        long[] rejected = {0};
+        long start = System.nanoTime();
+        long imported = new InventoryImporter(format).read(file, batch -> {
+        }, rejection -> {
+            if (rejected[0]++ < MAX_LOGGED_REJECTIONS) {
+                LOGGER.warn("Line {} rejected: {}", rejection.line(), rejection.reason());
+            }
+        });
+        LOGGER.info("{} laptops imported and {} rows rejected from {} in {} ms.", imported,
+                    rejected[0], file, (System.nanoTime() - start) / 1000000);
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+import java.util.Arrays;
+
+/**
+ * The JsonChunkParser class parses chunks of a JSON lines inventory, one
+ * object per line. Nested objects name their members by their path, like the
+ * CSV columns, so processor.numOfCores is the numOfCores member of the
+ * processor object. Strings without escapes are converted straight from the
+ * chunk, any value may be given as a string and members the inventory does
+ * not know are skipped.
+ */
+final class JsonChunkParser extends ChunkParser {
+    private final static int MAX_DEPTH = 8;
+    private final static byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private byte[] path = new byte[64];
+    private byte[] scratch = new byte[256];
+    private byte[] valueBytes;
+    private int valueFrom;
+    private int valueTo;
+    private InventoryField expected;
+    private int skippedArrays = 0;
+
+    JsonChunkParser(byte[] data, int start, int end) {
+        super(data, start, end);
+    }
+
+    /**
+     * Returns the position after the last line break of the bytes, or the
+     * start if there is none. JSON strings cannot hold raw line breaks.
+     */
+    static int lastRecordEnd(byte[] bytes, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+
+        return from;
+    }
+
+    @Override
+    protected boolean parseRecord() {
+        skipBlanks();
+
+        if (position >= end || data[position] == '\n') {
+            position++;
+            line++;
+            return false;
+        }
+
+        try {
+            expected = InventoryField.PRODUCER;
+            parseObject(0, 0);
+            skipBlanks();
+
+            if (position < end && data[position] != '\n') {
+                throw unexpected();
+            }
+        } catch (IllegalArgumentException ex) {
+            while (position < end && data[position] != '\n') {
+                position++;
+            }
+
+            throw ex;
+        } finally {
+            position++;
+            line++;
+        }
+
+        return true;
+    }
+
+    private void parseObject(int prefixLength, int depth) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalArgumentException("Objects nested deeper than " + MAX_DEPTH);
+        }
+
+        expect('{');
+        skipBlanks();
+
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+
+        while (true) {
+            skipBlanks();
+            expect('"');
+            readString();
+            int pathLength = prefixLength + valueTo - valueFrom;
+            ensurePath(pathLength + 1);
+            System.arraycopy(valueBytes, valueFrom, path, prefixLength, valueTo - valueFrom);
+            skipBlanks();
+            expect(':');
+            skipBlanks();
+
+            switch (peek()) {
+                case '{' -> {
+                    path[pathLength] = '.';
+                    parseObject(pathLength + 1, depth + 1);
+                }
+                case '[' -> skipArray(depth + 1);
+                case '"' -> {
+                    position++;
+                    readString();
+                    setLeaf(pathLength);
+                }
+                default -> {
+                    valueBytes = data;
+                    valueFrom = position;
+
+                    while (position < end && !isDelimiter(data[position])) {
+                        position++;
+                    }
+
+                    valueTo = position;
+
+                    if (valueTo == valueFrom) {
+                        throw unexpected();
+                    }
+
+                    if (!Arrays.equals(data, valueFrom, valueTo, NULL, 0, NULL.length)) {
+                        setLeaf(pathLength);
+                    }
+                }
+            }
+
+            skipBlanks();
+            byte b = next();
+
+            if (b == '}') {
+                return;
+            }
+
+            if (b != ',') {
+                position--;
+                throw unexpected();
+            }
+        }
+    }
+
+    private void setLeaf(int pathLength) {
+        if (skippedArrays > 0) {
+            return;
+        }
+
+        InventoryField field = InventoryField.find(path, 0, pathLength, expected);
+
+        if (field != null) {
+            set(field, valueBytes, valueFrom, valueTo);
+            expected = field.next();
+        }
+    }
+
+    /**
+     * Reads the string after its opening quote into valueBytes, valueFrom and
+     * valueTo: the chunk itself unless the string has escapes.
+     */
+    private void readString() {
+        int from = position;
+
+        while (position < end) {
+            byte b = data[position];
+
+            if (b == '"') {
+                valueBytes = data;
+                valueFrom = from;
+                valueTo = position++;
+                return;
+            }
+
+            if (b == '\\') {
+                readEscapedString(from);
+                return;
+            }
+
+            if (b == '\n') {
+                break;
+            }
+
+            position++;
+        }
+
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    private void readEscapedString(int from) {
+        int length = position - from;
+        ensureScratch(length + 4);
+        System.arraycopy(data, from, scratch, 0, length);
+
+        while (true) {
+            if (position >= end || data[position] == '\n') {
+                throw new IllegalArgumentException("Unterminated string");
+            }
+
+            byte b = data[position++];
+
+            if (b == '"') {
+                break;
+            }
+
+            ensureScratch(length + 4);
+
+            if (b != '\\') {
+                scratch[length++] = b;
+                continue;
+            }
+
+            byte escape = next();
+
+            switch (escape) {
+                case '"', '\\', '/' -> scratch[length++] = escape;
+                case 'b' -> scratch[length++] = '\b';
+                case 'f' -> scratch[length++] = '\f';
+                case 'n' -> scratch[length++] = '\n';
+                case 'r' -> scratch[length++] = '\r';
+                case 't' -> scratch[length++] = '\t';
+                case 'u' -> {
+                    int c = hex();
+
+                    if (Character.isHighSurrogate((char) c) && position + 1 < end
+                            && data[position] == '\\' && data[position + 1] == 'u') {
+                        position += 2;
+                        c = Character.toCodePoint((char) c, (char) hex());
+                    }
+
+                    length = encode(c, length);
+                }
+                default -> throw new IllegalArgumentException("Invalid escape \\"
+                                                              + (char) escape);
+            }
+        }
+
+        valueBytes = scratch;
+        valueFrom = 0;
+        valueTo = length;
+    }
+
+    private int hex() {
+        if (position + 4 > end) {
+            throw new IllegalArgumentException("Truncated unicode escape");
+        }
+
+        int value = 0;
+
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(data[position++], 16);
+
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid unicode escape");
+            }
+
+            value = value << 4 | digit;
+        }
+
+        return value;
+    }
+
+    private int encode(int codePoint, int length) {
+        if (codePoint < 0x80) {
+            scratch[length++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            scratch[length++] = (byte) (0xc0 | codePoint >> 6);
+            scratch[length++] = (byte) (0x80 | codePoint & 0x3f);
+        } else if (codePoint < 0x10000) {
+            scratch[length++] = (byte) (0xe0 | codePoint >> 12);
+            scratch[length++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+            scratch[length++] = (byte) (0x80 | codePoint & 0x3f);
+        } else {
+            scratch[length++] = (byte) (0xf0 | codePoint >> 18);
+            scratch[length++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+            scratch[length++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+            scratch[length++] = (byte) (0x80 | codePoint & 0x3f);
+        }
+
+        return length;
+    }
+
+    private void skipArray(int depth) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalArgumentException("Arrays nested deeper than " + MAX_DEPTH);
+        }
+
+        expect('[');
+
+        while (true) {
+            skipBlanks();
+
+            switch (peek()) {
+                case ']' -> {
+                    position++;
+                    return;
+                }
+                case ',' -> position++;
+                case '[' -> skipArray(depth + 1);
+                case '{' -> {
+                    skippedArrays++;
+
+                    try {
+                        parseObject(0, depth + 1);
+                    } finally {
+                        skippedArrays--;
+                    }
+                }
+                case '"' -> {
+                    position++;
+                    readString();
+                }
+                default -> {
+                    int start = position;
+
+                    while (position < end && !isDelimiter(data[position])) {
+                        position++;
+                    }
+
+                    if (position == start) {
+                        throw unexpected();
+                    }
+                }
+            }
+        }
+    }
+
+    private void skipBlanks() {
+        while (position < end && (data[position] == ' ' || data[position] == '\t'
+                                  || data[position] == '\r')) {
+            position++;
+        }
+    }
+
+    private byte peek() {
+        if (position >= end || data[position] == '\n') {
+            throw new IllegalArgumentException("Unexpected end of line");
+        }
+
+        return data[position];
+    }
+
+    private byte next() {
+        byte b = peek();
+        position++;
+        return b;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw unexpected();
+        }
+
+        position++;
+    }
+
+    private IllegalArgumentException unexpected() {
+        return new IllegalArgumentException("Unexpected character '" + (char) data[position]
+                                            + "' at column " + column());
+    }
+
+    private int column() {
+        int start = position;
+
+        while (start > 0 && data[start - 1] != '\n') {
+            start--;
+        }
+
+        return position - start + 1;
+    }
+
+    private void ensurePath(int length) {
+        if (path.length < length) {
+            path = Arrays.copyOf(path, Math.max(length, path.length * 2));
+        }
+    }
+
+    private void ensureScratch(int length) {
+        if (scratch.length < length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+        }
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\r'
+               || b == '\n';
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.inventory;
+
+import com.solvd.computer.CPUBuilder;
+import com.solvd.computer.Computer;
+import com.solvd.computer.DisplayBuilder;
+import com.solvd.computer.GPUBuilder;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.LaptopBuilder;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAMBuilder;
+import com.solvd.computer.StorageBuilder;
+import com.solvd.computer.enums.ComputerType;
+import com.solvd.computer.enums.Freshness;
+import com.solvd.computer.enums.Model;
+import com.solvd.computer.enums.Producer;
+import com.solvd.computer.enums.Target;
+import com.solvd.computer.exceptions.NoOneOrTooManyCoresException;
+import com.solvd.computer.exceptions.NoOneOrTooManyHzException;
+import com.solvd.computer.exceptions.NoOneOrTooManyInchesException;
+import com.solvd.computer.exceptions.ZeroOrTooManyCharactersException;
+import com.solvd.computer.exceptions.ZeroOrTooManyUSDException;
+import com.solvd.computer.inventory.InventoryField.Kind;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * The LaptopRow class holds the values of one parsed row, reused for every row
+ * of a chunk. A row is validated against the limits of the components before
+ * the laptop is built, so an invalid row is rejected with a reason instead of
+ * reaching the constructors, some of which end the program.
+ */
+final class LaptopRow {
+    private final static InventoryField[] FIELDS = InventoryField.values();
+
+    private final Object[] objects = new Object[FIELDS.length];
+    private final int[] ints = new int[FIELDS.length];
+    private final double[] doubles = new double[FIELDS.length];
+    private final boolean[] present = new boolean[FIELDS.length];
+
+    void clear() {
+        Arrays.fill(present, false);
+        Arrays.fill(objects, null);
+    }
+
+    void setObject(InventoryField field, Object value) {
+        objects[field.ordinal()] = value;
+        present[field.ordinal()] = true;
+    }
+
+    void setInt(InventoryField field, int value) {
+        ints[field.ordinal()] = value;
+        present[field.ordinal()] = true;
+    }
+
+    void setDouble(InventoryField field, double value) {
+        doubles[field.ordinal()] = value;
+        present[field.ordinal()] = true;
+    }
+
+    /**
+     * Returns why the row cannot become a laptop or null if it can. The enum
+     * columns are optional, all others are required.
+     */
+    String validate() {
+        for (InventoryField field : FIELDS) {
+            int i = field.ordinal();
+
+            if (!present[i]) {
+                if (field.getKind() == Kind.ENUM) {
+                    continue;
+                }
+
+                return "Missing " + field.getColumn();
+            }
+
+            boolean valid = switch (field.getKind()) {
+                case STRING -> {
+                    int length = ((String) objects[i]).length();
+                    yield length >= field.getMinimum() && length <= field.getMaximum();
+                }
+                case INT -> ints[i] >= field.getMinimum() && ints[i] <= field.getMaximum();
+                case DOUBLE -> doubles[i] > field.getMinimum() && doubles[i] <= field.getMaximum();
+                case DECIMAL -> {
+                    BigDecimal price = (BigDecimal) objects[i];
+                    yield price.signum() != 0 && price.compareTo(Computer.getMaxPriceInUSD()) <= 0;
+                }
+                case BOOLEAN, ENUM -> true;
+            };
+
+            if (!valid) {
+                return switch (field.getKind()) {
+                    case STRING -> field.getColumn() + " must have from " + (int) field.getMinimum()
+                                   + " to " + (int) field.getMaximum() + " characters";
+                    case INT -> field.getColumn() + " " + ints[i] + " is not from "
+                                + (int) field.getMinimum() + " to " + (int) field.getMaximum();
+                    case DOUBLE -> field.getColumn() + " " + doubles[i] + " is not above "
+                                   + field.getMinimum() + " and up to " + field.getMaximum();
+                    default -> field.getColumn() + " " + objects[i] + " is zero or above "
+                               + Computer.getMaxPriceInUSD();
+                };
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Builds the laptop of a row that passed validation.
+     */
+    Laptop toLaptop() throws ZeroOrTooManyCharactersException, ZeroOrTooManyUSDException,
+            NoOneOrTooManyInchesException, NoOneOrTooManyCoresException, NoOneOrTooManyHzException {
+        LaptopBuilder builder = new LaptopBuilder()
+                .producer(string(InventoryField.PRODUCER))
+                .model(string(InventoryField.MODEL))
+                .type(string(InventoryField.TYPE))
+                .operatingSystem(new OperatingSystem(string(InventoryField.OPERATING_SYSTEM_NAME)))
+                .screen(new DisplayBuilder()
+                                .screenSizeInInches(number(InventoryField.SCREEN_SIZE))
+                                .resolution(string(InventoryField.SCREEN_RESOLUTION))
+                                .type(string(InventoryField.SCREEN_TYPE))
+                                .build())
+                .processor(new CPUBuilder()
+                                   .name(string(InventoryField.PROCESSOR_NAME))
+                                   .numOfCores(integer(InventoryField.PROCESSOR_CORES))
+                                   .clockRateInGHz(number(InventoryField.PROCESSOR_CLOCK_RATE))
+                                   .hasTurboBoost(bool(InventoryField.PROCESSOR_TURBO_BOOST))
+                                   .build())
+                .graphics(new GPUBuilder()
+                                  .name(string(InventoryField.GRAPHICS_NAME))
+                                  .videoMemorySizeInGBs(
+                                          integer(InventoryField.GRAPHICS_MEMORY_SIZE))
+                                  .clockRateInMHz(integer(InventoryField.GRAPHICS_CLOCK_RATE))
+                                  .isIntegrated(bool(InventoryField.GRAPHICS_INTEGRATED))
+                                  .build())
+                .memory(new RAMBuilder()
+                                .memorySizeInGBs(integer(InventoryField.MEMORY_SIZE))
+                                .clockRateInMHz(integer(InventoryField.MEMORY_CLOCK_RATE))
+                                .type(string(InventoryField.MEMORY_TYPE))
+                                .build())
+                .storage(new StorageBuilder()
+                                 .sizeInGBs(integer(InventoryField.STORAGE_SIZE))
+                                 .type(string(InventoryField.STORAGE_TYPE))
+                                 .build())
+                .ports(new Port(integer(InventoryField.USB_TYPE_A_PORTS),
+                                integer(InventoryField.MICRO_SD_PORTS),
+                                integer(InventoryField.HDMI_PORTS),
+                                integer(InventoryField.HEAD_MIC_COMBO_PORTS),
+                                integer(InventoryField.USB_TYPE_C_PORTS)))
+                .priceInUSD((BigDecimal) object(InventoryField.PRICE))
+                .isTurnedOn(bool(InventoryField.TURNED_ON))
+                .hasWirelessNetworking(bool(InventoryField.WIRELESS_NETWORKING))
+                .hasIntegratedCamera(bool(InventoryField.INTEGRATED_CAMERA))
+                .hasIntegratedMicrophone(bool(InventoryField.INTEGRATED_MICROPHONE))
+                .hasIntegratedSpeakers(bool(InventoryField.INTEGRATED_SPEAKERS))
+                .hasIntegratedKeyboard(bool(InventoryField.INTEGRATED_KEYBOARD))
+                .hasTouchpad(bool(InventoryField.TOUCHPAD))
+                .hasTouchableScreen(bool(InventoryField.TOUCHABLE_SCREEN))
+                .weightInGrams(number(InventoryField.WEIGHT))
+                .color(string(InventoryField.COLOR));
+
+        if (present[InventoryField.COMPUTER_TYPE.ordinal()]) {
+            builder.computerType((ComputerType) object(InventoryField.COMPUTER_TYPE));
+        }
+
+        if (present[InventoryField.FRESHNESS.ordinal()]) {
+            builder.freshness((Freshness) object(InventoryField.FRESHNESS));
+        }
+
+        if (present[InventoryField.COMPUTER_MODEL.ordinal()]) {
+            builder.computerModel((Model) object(InventoryField.COMPUTER_MODEL));
+        }
+
+        if (present[InventoryField.COMPUTER_PRODUCER.ordinal()]) {
+            builder.computerProducer((Producer) object(InventoryField.COMPUTER_PRODUCER));
+        }
+
+        if (present[InventoryField.TARGET.ordinal()]) {
+            builder.target((Target) object(InventoryField.TARGET));
+        }
+
+        return builder.build();
+    }
+
+    private Object object(InventoryField field) {
+        return objects[field.ordinal()];
+    }
+
+    private String string(InventoryField field) {
+        return (String) objects[field.ordinal()];
+    }
+
+    private int integer(InventoryField field) {
+        return ints[field.ordinal()];
+    }
+
+    private double number(InventoryField field) {
+        return doubles[field.ordinal()];
+    }
+
+    private boolean bool(InventoryField field) {
+        return ints[field.ordinal()] != 0;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+
+@Name("com.solvd.computer.LinkedListOperation")
+@Label("CustomLinkedList Operation")
+@Category({"Computer", "Collections"})
+@Description("An operation on a CustomLinkedList whose size is at least the threshold.")
+@Enabled(false)
+@StackTrace(false)
+public final class LinkedListOperationEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Size")
+    public int size;
+
+    @Label("Minimum Size")
+    @Name("minSize")
+    @SettingDefinition
+    protected boolean minSize(SizeThresholdSetting setting) {
+        return setting.isReached(size);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.MetadataDefinition;
+import jdk.jfr.Name;
+import jdk.jfr.SettingControl;
+
+import java.util.Set;
+
+/**
+ * The SizeThresholdSetting class is a JFR setting that lets an event through
+ * only when the size it reports is at least the threshold. When several
+ * recordings set different thresholds the smallest one is used, so every
+ * recording gets the events it asked for.
+ */
+@MetadataDefinition
+@Name("com.solvd.computer.SizeThreshold")
+@Label("Size Threshold")
+@Description("Record the event only if the size is at least the given number of elements.")
+public final class SizeThresholdSetting extends SettingControl {
+    private final static String DEFAULT_VALUE = "10000";
+
+    private volatile long threshold = Long.parseLong(DEFAULT_VALUE);
+
+    @Override
+    public String combine(Set<String> values) {
+        if (values.isEmpty()) {
+            return DEFAULT_VALUE;
+        }
+
+        long min = Long.MAX_VALUE;
+
+        for (String value : values) {
+            min = Math.min(min, Long.parseLong(value));
+        }
+
+        return Long.toString(min);
+    }
+
+    @Override
+    public void setValue(String value) {
+        threshold = Long.parseLong(value);
+    }
+
+    @Override
+    public String getValue() {
+        return Long.toString(threshold);
+    }
+
+    public boolean isReached(long size) {
+        return size >= threshold;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.jfr;
+
+import com.solvd.computer.metrics.Counter;
+import com.solvd.computer.metrics.MetricsRegistry;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.solvd.computer.ValidationFailure")
+@Label("Validation Failure")
+@Category({"Computer", "Domain"})
+@Description("A constructor or a setter of a component rejects a value.")
+@StackTrace(true)
+@Enabled(false)
+public final class ValidationFailureEvent extends Event {
+    private final static Counter FAILURES = MetricsRegistry.counter("validation.failures");
+    private final static ClassValue<Counter> COMPONENT_FAILURES = new ClassValue<>() {
+        @Override
+        protected Counter computeValue(Class<?> component) {
+            return MetricsRegistry.counter("validation.failures." + component.getSimpleName());
+        }
+    };
+
+    @Label("Component")
+    public Class<?> component;
+
+    @Label("Message")
+    public String message;
+
+    /**
+     * Emits the event if it is enabled and counts the failure in the metrics
+     * registry in any case, through counters looked up once per component
+     * class.
+     */
+    public static void emit(Class<?> component, String message) {
+        FAILURES.increment();
+        COMPONENT_FAILURES.get(component).increment();
+        ValidationFailureEvent event = new ValidationFailureEvent();
+
+        if (event.isEnabled()) {
+            event.component = component;
+            event.message = message;
+            event.commit();
+        }
+    }
+}
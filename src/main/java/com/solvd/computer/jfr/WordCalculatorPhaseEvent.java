@@ -0,0 +1,58 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.solvd.computer.WordCalculatorPhase")
+@Label("WordCalculator Phase")
+@Category({"Computer", "WordCalculator"})
+@Description("A phase of a WordCalculator run: read, tokenize, count or write.")
+@Enabled(false)
+@StackTrace(false)
+public final class WordCalculatorPhaseEvent extends Event {
+    public final static String READ = "read";
+    public final static String TOKENIZE = "tokenize";
+    public final static String COUNT = "count";
+    public final static String WRITE = "write";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("File")
+    @Description("The input file that is read or tokenized, or the output file that is written.")
+    public String file;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Tokens")
+    public long tokens;
+
+    @Label("Entries")
+    @Description("Distinct words or keys counted or written.")
+    public long entries;
+}
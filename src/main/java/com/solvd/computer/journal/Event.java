@@ -0,0 +1,83 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.journal;
+
+import com.solvd.computer.CPU;
+import com.solvd.computer.Display;
+import com.solvd.computer.GPU;
+import com.solvd.computer.Laptop;
+import com.solvd.computer.OperatingSystem;
+import com.solvd.computer.Port;
+import com.solvd.computer.RAM;
+import com.solvd.computer.Storage;
+import com.solvd.computer.interfaces.IBoost;
+import com.solvd.computer.interfaces.IDisplay;
+import com.solvd.computer.interfaces.IOperate;
+import com.solvd.computer.interfaces.ISubstitute;
+import com.solvd.computer.interfaces.ITurn;
+
+public enum Event {
+    LAPTOP_STARTED (Laptop.class, "The laptop is started."),
+    CPU_USED (CPU.class, "The CPU is used."),
+    RAM_USED (RAM.class, "The RAM is used."),
+    PORTS_USED (Port.class, "The ports are used."),
+    STORAGE_USED (Storage.class, "The storage is used."),
+    GPU_USED (GPU.class, "The GPU is used."),
+    DISPLAY_USED (Display.class, "The display is used."),
+    OPERATING_SYSTEM_USED (OperatingSystem.class, "The operating system is used."),
+    TOUCHPAD_USED (OperatingSystem.class, "The touchpad is used."),
+    TURBO_BOOSTED (IBoost.class, "The CPU turbo is boosted."),
+    NO_TURBO_BOOST (IBoost.class, "The CPU doesn't have turbo boost."),
+    SCREEN_NOT_TOUCHABLE (IDisplay.class, "The screen is not touchable."),
+    TOUCHABLE_SCREEN_TOUCHED (IOperate.class, "The touchable screen is touched."),
+    RAM_USED_AS_GPU_MEMORY (ISubstitute.class, "The part of the RAM is used as the GPU memory."),
+    COMPUTER_TURNED_OFF (ITurn.class, "The computer is turned off."),
+    COMPUTER_RESET (ITurn.class, "The computer is reset."),
+    COMPUTER_NOT_TURNED_ON (ITurn.class, "The computer is not turned on.");
+
+    private final static Event[] EVENTS = values();
+
+    private final Class<?> source;
+    private final String message;
+
+    Event(Class<?> source, String message) {
+        this.source = source;
+        this.message = message;
+    }
+
+    public static Event of(int code) {
+        return EVENTS[code];
+    }
+
+    public int getCode() {
+        return ordinal();
+    }
+
+    public Class<?> getSource() {
+        return source;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
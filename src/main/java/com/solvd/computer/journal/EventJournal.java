@@ -0,0 +1,242 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.journal;
+
+import com.solvd.computer.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The EventJournal class takes events of the domain classes into a
+ * preallocated ring buffer of fixed-size records: the event code, the ID of
+ * the component and a timestamp. The ID is the identity hash code of the
+ * component, which tells the components apart in the log but is not unique:
+ * two live components may share it. Recording claims a slot with a single
+ * compare-and-set, writes the record into parallel primitive arrays and
+ * publishes it, so it neither allocates nor blocks. When the buffer is full
+ * the event is dropped and counted instead. A background drainer thread hands
+ * the records over to a sink that formats them as log messages or writes them
+ * to a memory-mapped file.
+ *
+ * The shared journal is configured by the system properties
+ * computer.journal.sink (log or file), computer.journal.file and
+ * computer.journal.capacity, and it is drained completely when the JVM exits.
+ */
+public final class EventJournal {
+    private final static Logger LOGGER = LogManager.getLogger(EventJournal.class);
+    private final static int DEFAULT_CAPACITY = 1 << 16;
+    private final static int DRAIN_BATCH_SIZE = 1024;
+    private final static long IDLE_PARK_NANOS = 1_000_000;
+    private final static String DEFAULT_FILE = "logs/events.bin";
+    private static volatile EventJournal shared;
+
+    private final int capacity;
+    private final int mask;
+    private final long[] timestamps;
+    private final int[] codes;
+    private final int[] components;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final EventSink sink;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public EventJournal(int capacity, EventSink sink) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity should be a power of two.");
+        }
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.codes = new int[capacity];
+        this.components = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.sink = sink;
+        this.drainer = Thread.ofPlatform()
+                .name("event-journal")
+                .daemon(true)
+                .start(this::drainLoop);
+    }
+
+    public static EventJournal getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Records the event of the component in the shared journal under its
+     * identity hash code, which different components may have in common.
+     */
+    public static void record(Event event, Object component) {
+        Holder.INSTANCE.tryRecord(event, System.identityHashCode(component));
+    }
+
+    /**
+     * Records the event that has no component, like turning off a computer
+     * through the static ITurn.turnOff, in the shared journal.
+     */
+    public static void record(Event event) {
+        Holder.INSTANCE.tryRecord(event, 0);
+    }
+
+    public boolean tryRecord(Event event, int componentId) {
+        long sequence;
+
+        do {
+            sequence = claimed.get();
+
+            if (sequence - consumed.get() >= capacity) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        timestamps[slot] = System.nanoTime();
+        codes[slot] = event.ordinal();
+        components[slot] = componentId;
+        published.setRelease(slot, sequence + 1);
+        return true;
+    }
+
+    public long getRecorded() {
+        return claimed.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until every event recorded before the call is handed to the sink.
+     */
+    public void flush() {
+        long target = claimed.get();
+
+        while (consumed.get() < target && drainer.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Stops the drainer, hands the remaining events to the sink and closes it.
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join();
+    }
+
+    private void drainLoop() {
+        boolean flushed = true;
+
+        try {
+            while (running) {
+                if (drain() > 0) {
+                    flushed = false;
+                } else {
+                    if (!flushed) {
+                        sink.flush();
+                        flushed = true;
+                    }
+
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+
+            while (drain() > 0) {
+                // Drain what was recorded before the journal was closed.
+            }
+
+            sink.close();
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.error("The event journal stopped draining.", ex);
+        }
+    }
+
+    private int drain() throws IOException {
+        long sequence = consumed.get();
+        int count = 0;
+
+        while (count < DRAIN_BATCH_SIZE) {
+            int slot = (int) sequence & mask;
+
+            if (published.getAcquire(slot) != sequence + 1) {
+                break;
+            }
+
+            sink.accept(sequence, timestamps[slot], Event.of(codes[slot]), components[slot]);
+            sequence++;
+            count++;
+        }
+
+        if (count > 0) {
+            consumed.set(sequence);
+        }
+
+        return count;
+    }
+
+    private static EventJournal create() {
+        int capacity = Integer.getInteger("computer.journal.capacity", DEFAULT_CAPACITY);
+        EventSink sink = new LoggingEventSink();
+
+        if ("file".equals(System.getProperty("computer.journal.sink"))) {
+            try {
+                sink = new MappedFileEventSink(Path.of(System.getProperty("computer.journal.file",
+                                                                          DEFAULT_FILE)));
+            } catch (IOException ex) {
+                LOGGER.error("The event file cannot be created, the events are logged instead.",
+                             ex);
+            }
+        }
+
+        EventJournal journal = new EventJournal(capacity, sink);
+        MetricsRegistry.gauge("eventJournal.recorded", journal::getRecorded);
+        MetricsRegistry.gauge("eventJournal.dropped", journal::getDropped);
+        MetricsRegistry.gauge("eventJournal.backlog",
+                              () -> journal.claimed.get() - journal.consumed.get());
+        shared = journal;
+        return journal;
+    }
+
+    /**
+     * Drains and closes the shared journal if it was ever used. Called by
+     * JournalShutdownCallbackRegistry before log4j stops.
+     */
+    static void closeShared() throws InterruptedException {
+        EventJournal journal = shared;
+
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private static final class Holder {
+        private final static EventJournal INSTANCE = create();
+    }
+}
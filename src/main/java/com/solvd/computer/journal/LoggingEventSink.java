@@ -0,0 +1,44 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.journal;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The LoggingEventSink class formats the journal records as log messages of
+ * the classes that recorded them, so the log looks as it did when the domain
+ * classes logged on their own, apart from the ID of the component.
+ */
+public final class LoggingEventSink implements EventSink {
+    private final Map<Event, Logger> loggers = new EnumMap<>(Event.class);
+
+    public LoggingEventSink() {
+        for (Event event : Event.values()) {
+            loggers.put(event, LogManager.getLogger(event.getSource()));
+        }
+    }
+
+    @Override
+    public void accept(long sequence, long timestampNanos, Event event, int componentId) {
+        loggers.get(event).info("{} [component {}]", event, Integer.toHexString(componentId));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The MappedFileEventSink class writes the journal records to a file as they
+ * are, through a memory-mapped region that is moved further along the file
+ * whenever it is full. The file starts with the magic "EVJ1", the wall clock
+ * time and the System.nanoTime() value at its creation in nanoseconds, which
+ * convert the timestamps of the records to wall clock time, and the length of
+ * the written part of the file. Every record then takes 16 bytes: the
+ * timestamp, the event code and the component ID, all in little-endian order.
+ *
+ * The file keeps the size of its mapped regions, as a mapped file cannot be
+ * truncated everywhere, and readers stop at the recorded length. The length
+ * is updated on every flush, but the mapped pages are only forced to the
+ * disk once a second and on close.
+ */
+public final class MappedFileEventSink implements EventSink {
+    public final static int HEADER_SIZE = 32;
+    public final static int RECORD_SIZE = 16;
+    private final static int MAGIC = 0x314a5645;
+    private final static int LENGTH_OFFSET = 24;
+    private final static long REGION_SIZE = RECORD_SIZE << 20;
+    private final static long FORCE_INTERVAL_NANOS = 1_000_000_000;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer region;
+    private long length;
+    private long forcedAt = System.nanoTime();
+
+    public MappedFileEventSink(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(0)
+                .putLong(System.currentTimeMillis() * 1_000_000)
+                .putLong(System.nanoTime())
+                .putLong(HEADER_SIZE);
+        map(0);
+        region.position(HEADER_SIZE);
+        length = HEADER_SIZE;
+    }
+
+    @Override
+    public void accept(long sequence, long timestampNanos, Event event, int componentId)
+            throws IOException {
+        if (region.remaining() < RECORD_SIZE) {
+            map(length);
+        }
+
+        region.putLong(timestampNanos).putInt(event.getCode()).putInt(componentId);
+        length += RECORD_SIZE;
+    }
+
+    /**
+     * Records the length written so far and forces the file to the disk if
+     * it has not been for a second.
+     */
+    @Override
+    public void flush() {
+        header.putLong(LENGTH_OFFSET, length);
+
+        if (System.nanoTime() - forcedAt >= FORCE_INTERVAL_NANOS) {
+            force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        header.putLong(LENGTH_OFFSET, length);
+        force();
+        region = null;
+        channel.close();
+    }
+
+    private void force() {
+        region.force();
+        header.force();
+        forcedAt = System.nanoTime();
+    }
+
+    private void map(long position) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, REGION_SIZE);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The MetricsRegistry class holds the counters, gauges and histograms of the
+ * application by name and publishes every one of them as an MXBean in the
+ * platform MBean server under com.solvd.computer:type=...,name=..., so they
+ * can be watched with any JMX client.
+ */
+public final class MetricsRegistry {
+    private final static Logger LOGGER = LogManager.getLogger(MetricsRegistry.class);
+    private final static String DOMAIN = "com.solvd.computer";
+    private final static MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    private MetricsRegistry() {}
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public static Counter counter(String name) {
+        return INSTANCE.get(name, Counter.class, "Counter", Counter::new);
+    }
+
+    public static Histogram histogram(String name) {
+        return INSTANCE.get(name, Histogram.class, "Histogram", Histogram::new);
+    }
+
+    public static Gauge gauge(String name, LongSupplier supplier) {
+        return INSTANCE.get(name, Gauge.class, "Gauge", () -> new Gauge(supplier));
+    }
+
+    public Map<String, Object> getMetrics() {
+        return Map.copyOf(metrics);
+    }
+
+    private <T> T get(String name, Class<T> type, String typeName,
+                      Supplier<T> factory) {
+        Object metric = metrics.computeIfAbsent(name, key -> {
+            T created = factory.get();
+            publish(key, typeName, created);
+            return created;
+        });
+
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("The metric " + name + " is not a "
+                                               + typeName.toLowerCase() + ".");
+        }
+
+        return type.cast(metric);
+    }
+
+    private void publish(String name, String typeName, Object metric) {
+        try {
+            server.registerMBean(metric, new ObjectName(DOMAIN + ":type=" + typeName
+                                                        + ",name=" + ObjectName.quote(name)));
+        } catch (InstanceAlreadyExistsException ex) {
+            LOGGER.warn("The metric {} is already published.", name);
+        } catch (JMException ex) {
+            LOGGER.error("The metric {} cannot be published.", name, ex);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * %W% %E% Pavel Shyrkavets
+ *
+ * Copyright (c) 2011-2024 Solvd, Inc. All Rights Reserved.
+ *
+ * This software is the confidential and proprietary information of Solvd,
+ * Inc. ("Confidential Information.") You shall not disclose such Confidential
+ * Information and shall use it only in accordance with the terms of the
+ * license agreement you entered into with Solvd.
+ *
+ * SOLVD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE SUITABILITY OF
+ * THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE, OR NON-INFRINGEMENT. SOLVD SHALL NOT BE LIABLE FOR ANY DAMAGES
+ * SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING OR DISTRIBUTING
+ * THIS SOFTWARE OR ITS DERIVATIVES.
+ */
+package com.solvd.computer.model;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * The Values class converts the values of a map into the property types of
+ * the domain model for the generated mappers. Numbers are converted between
+ * each other and all values except nested models may also be given as
+ * strings, as they come from text formats.
+ */
+public final class Values {
+    private Values() {}
+
+    public static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    public static boolean asBoolean(Object value) {
+        return value instanceof Boolean bool ? bool : Boolean.parseBoolean(text(value));
+    }
+
+    public static char asChar(Object value) {
+        if (value instanceof Character character) {
+            return character;
+        }
+
+        String text = text(value);
+
+        if (text.length() != 1) {
+            throw new IllegalArgumentException("Not a character: " + text);
+        }
+
+        return text.charAt(0);
+    }
+
+    public static byte asByte(Object value) {
+        return value instanceof Number number ? number.byteValue() : Byte.parseByte(text(value));
+    }
+
+    public static short asShort(Object value) {
+        return value instanceof Number number
+                ? number.shortValue()
+                : Short.parseShort(text(value));
+    }
+
+    public static int asInt(Object value) {
+        return value instanceof Number number ? number.intValue() : Integer.parseInt(text(value));
+    }
+
+    public static long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(text(value));
+    }
+
+    public static float asFloat(Object value) {
+        return value instanceof Number number
+                ? number.floatValue()
+                : Float.parseFloat(text(value));
+    }
+
+    public static double asDouble(Object value) {
+        return value instanceof Number number
+                ? number.doubleValue()
+                : Double.parseDouble(text(value));
+    }
+
+    public static BigDecimal asBigDecimal(Object value) {
+        return value == null || value instanceof BigDecimal
+                ? (BigDecimal) value
+                : new BigDecimal(value.toString());
+    }
+
+    public static <E extends Enum<E>> E asEnum(Class<E> type, Object value) {
+        return value == null || type.isInstance(value)
+                ? type.cast(value)
+                : Enum.valueOf(type, value.toString());
+    }
+
+    /**
+     * Returns the value as a map of a nested model, or null if it is not a
+     * map.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, ?> asMap(Object value) {
+        return value instanceof Map<?, ?> map ? (Map<String, ?>) map : null;
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("A primitive value is missing.");
+        }
+
+        return value.toString().trim();
+    }
+}